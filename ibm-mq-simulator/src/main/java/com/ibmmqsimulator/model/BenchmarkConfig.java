@@ -0,0 +1,109 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parameter matrix of a benchmark: every combination of delivery mode, priority, message size,
+ * thread count and batch size is run as a fixed-duration load against the same queue.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BenchmarkConfig {
+    private String queue;
+    private int durationSeconds;
+    // TRUE for persistent, FALSE for non-persistent
+    private List<Boolean> persistenceModes;
+    private List<Integer> priorities;
+    private List<Integer> messageSizes;
+    private List<Integer> threadCounts;
+    // 0 means non-transacted
+    private List<Integer> batchSizes;
+    // Empty the queue after each combination so depth does not skew the next one
+    private boolean drainBetweenRuns;
+
+    /**
+     * Expands the matrix into one pending result per combination, slowest-varying dimension first.
+     */
+    public List<BenchmarkResult> combinations() {
+        List<BenchmarkResult> combinations = new ArrayList<>();
+        for (Boolean persistent : persistenceModes) {
+            for (Integer priority : priorities) {
+                for (Integer size : messageSizes) {
+                    for (Integer threads : threadCounts) {
+                        for (Integer batchSize : batchSizes) {
+                            combinations.add(BenchmarkResult.builder()
+                                    .persistent(persistent)
+                                    .priority(priority)
+                                    .messageSize(size)
+                                    .threads(threads)
+                                    .batchSize(batchSize)
+                                    .durationSeconds(durationSeconds)
+                                    .build());
+                        }
+                    }
+                }
+            }
+        }
+        return combinations;
+    }
+
+    /**
+     * Parses a comma-separated list of sizes such as "1KB, 64KB, 1MB, 4MB"; a bare number is bytes.
+     */
+    public static List<Integer> parseSizes(String text) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String value = part.trim().toUpperCase(Locale.ROOT);
+            if (value.isEmpty()) {
+                continue;
+            }
+            int multiplier = 1;
+            if (value.endsWith("KB") || value.endsWith("K")) {
+                multiplier = 1024;
+            } else if (value.endsWith("MB") || value.endsWith("M")) {
+                multiplier = 1024 * 1024;
+            }
+            String number = value.replaceAll("[KMB]+$", "").trim();
+            try {
+                sizes.add(Math.multiplyExact(Integer.parseInt(number), multiplier));
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid message size: " + part.trim());
+            }
+        }
+        if (sizes.isEmpty()) {
+            throw new IllegalArgumentException("At least one message size is required");
+        }
+        return sizes;
+    }
+
+    /**
+     * Parses a comma-separated list of whole numbers such as "1, 4, 16".
+     */
+    public static List<Integer> parseIntegers(String text, String what) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String value = part.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                values.add(Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + what + ": " + value);
+            }
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("At least one " + what + " is required");
+        }
+        return values;
+    }
+}
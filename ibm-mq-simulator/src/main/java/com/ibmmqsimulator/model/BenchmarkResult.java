@@ -0,0 +1,71 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * One combination of a benchmark matrix: its parameters and, once run, its figures.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BenchmarkResult {
+
+    public static final String CSV_HEADER = "persistent,priority,message_bytes,threads,batch_size,duration_s,"
+            + "sent,errors,msg_per_s,mb_per_s,put_avg_ms,put_p50_ms,put_p99_ms,put_p999_ms,put_max_ms,commit_avg_ms";
+
+    private boolean persistent;
+    private int priority;
+    private int messageSize;
+    private int threads;
+    private int batchSize;
+    private int durationSeconds;
+
+    private long sent;
+    private long errors;
+    private long elapsedMs;
+    private double averagePutMs;
+    private double putP50Ms;
+    private double putP99Ms;
+    private double putP999Ms;
+    private double maxPutMs;
+    private double averageCommitMs;
+
+    public double getMessagesPerSecond() {
+        return elapsedMs == 0 ? 0 : sent * 1000.0 / elapsedMs;
+    }
+
+    public double getMegabytesPerSecond() {
+        return getMessagesPerSecond() * messageSize / (1024.0 * 1024.0);
+    }
+
+    /**
+     * Parameters only, e.g. "persistent, pri 4, 64 KB, 8 threads, batch 50".
+     */
+    public String describe() {
+        return String.format("%s, pri %d, %s, %d threads, %s", persistent ? "persistent" : "non-persistent",
+                priority, formatSize(messageSize), threads, batchSize > 0 ? "batch " + batchSize : "no batch");
+    }
+
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%b,%d,%d,%d,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                persistent, priority, messageSize, threads, batchSize, durationSeconds, sent, errors,
+                getMessagesPerSecond(), getMegabytesPerSecond(), averagePutMs, putP50Ms, putP99Ms, putP999Ms,
+                maxPutMs, averageCommitMs);
+    }
+
+    public static String formatSize(int bytes) {
+        if (bytes >= 1024 * 1024 && bytes % (1024 * 1024) == 0) {
+            return bytes / (1024 * 1024) + " MB";
+        }
+        if (bytes >= 1024 && bytes % 1024 == 0) {
+            return bytes / 1024 + " KB";
+        }
+        return bytes + " B";
+    }
+}
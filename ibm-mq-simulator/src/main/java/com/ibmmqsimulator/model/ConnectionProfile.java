@@ -0,0 +1,33 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A named set of client connection settings for the Dynamic Configuration tab. Several
+ * profiles can be connected at once, e.g. the members of a queue manager cluster or two
+ * channels to the same queue manager.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionProfile {
+    private String name;
+    private String queueManager;
+    private String channel;
+    private String connName;
+    private String user;
+    @ToString.Exclude
+    private String password;
+    // Sessions pooled on the profile's connection; a fan-out load uses at most one per thread
+    @Builder.Default
+    private int sessions = 4;
+
+    public String describe() {
+        return String.format("%s: %s via %s on %s", name, queueManager, channel, connName);
+    }
+}
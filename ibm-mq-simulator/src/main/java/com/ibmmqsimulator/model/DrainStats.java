@@ -0,0 +1,45 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a parallel queue drain.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrainStats {
+    private String queue;
+    private long received;
+    // Text payload characters; zero in count-only mode
+    private long characters;
+    private long errors;
+    private long elapsedMs;
+    private int sessions;
+    private boolean countOnly;
+
+    public double getMessagesPerSecond() {
+        return elapsedMs == 0 ? received : received * 1000.0 / elapsedMs;
+    }
+
+    /**
+     * One-line summary for the status bar.
+     */
+    public String summary() {
+        String text = String.format("%,d messages drained from %s in %.1f s (%.0f msg/s, %d sessions)",
+                received, queue, elapsedMs / 1000.0, getMessagesPerSecond(), sessions);
+        if (countOnly) {
+            text += ", payloads discarded";
+        } else {
+            text += String.format(", %,d chars", characters);
+        }
+        if (errors > 0) {
+            text += String.format(", %,d errors", errors);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Outcome of one load sent through several connection profiles at once: the figures of
+ * each profile, in the order they were given, and the totals across all of them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanOutStats {
+    private Map<String, SendStats> profiles;
+    private SendStats total;
+
+    /**
+     * One line per profile, then the totals.
+     */
+    public String summary() {
+        int width = profiles.keySet().stream().mapToInt(String::length).max().orElse(0);
+        width = Math.max(width, "TOTAL".length());
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, SendStats> entry : profiles.entrySet()) {
+            text.append(String.format("%-" + width + "s  %s | put p50 %.2f p99 %.2f ms%n", entry.getKey(),
+                    entry.getValue().summary(), entry.getValue().getPutP50Ms(), entry.getValue().getPutP99Ms()));
+        }
+        text.append(String.format("%-" + width + "s  %s | put p50 %.2f p99 %.2f ms", "TOTAL",
+                total.summary(), total.getPutP50Ms(), total.getPutP99Ms()));
+        return text.toString();
+    }
+}
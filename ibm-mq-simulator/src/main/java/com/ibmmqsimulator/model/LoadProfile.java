@@ -0,0 +1,73 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Arrival-rate profile for a timed load run. Rates are in messages per second.
+ * <ul>
+ *   <li>STEADY: peakRate for the whole run</li>
+ *   <li>RAMP: baseRate rising linearly to peakRate over phaseSeconds, then held</li>
+ *   <li>SPIKE: baseRate, with peakRate for spikeSeconds starting at phaseSeconds</li>
+ *   <li>STEP: baseRate to peakRate in {@code steps} equal increments across the run</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadProfile {
+
+    public enum Shape {
+        STEADY, RAMP, SPIKE, STEP
+    }
+
+    private Shape shape;
+    private int durationSeconds;
+    private double baseRate;
+    private double peakRate;
+    private int phaseSeconds;
+    private int spikeSeconds;
+    private int steps;
+
+    /**
+     * Target rate at the given point of the run.
+     */
+    public double rateAt(double elapsedSeconds) {
+        switch (shape) {
+            case RAMP:
+                if (phaseSeconds <= 0 || elapsedSeconds >= phaseSeconds) {
+                    return peakRate;
+                }
+                return baseRate + (peakRate - baseRate) * elapsedSeconds / phaseSeconds;
+            case SPIKE:
+                boolean inSpike = elapsedSeconds >= phaseSeconds && elapsedSeconds < phaseSeconds + spikeSeconds;
+                return inSpike ? peakRate : baseRate;
+            case STEP:
+                int stepCount = Math.max(1, steps);
+                double stepLength = (double) durationSeconds / stepCount;
+                int step = Math.min(stepCount - 1, (int) (elapsedSeconds / stepLength));
+                return stepCount == 1 ? peakRate : baseRate + (peakRate - baseRate) * step / (stepCount - 1);
+            case STEADY:
+            default:
+                return peakRate;
+        }
+    }
+
+    public String describe() {
+        switch (shape) {
+            case RAMP:
+                return String.format("ramp %.0f→%.0f msg/s over %ds, %ds total", baseRate, peakRate, phaseSeconds, durationSeconds);
+            case SPIKE:
+                return String.format("%.0f msg/s with %.0f msg/s spike at %ds for %ds, %ds total",
+                        baseRate, peakRate, phaseSeconds, spikeSeconds, durationSeconds);
+            case STEP:
+                return String.format("%d steps %.0f→%.0f msg/s, %ds total", Math.max(1, steps), baseRate, peakRate, durationSeconds);
+            case STEADY:
+            default:
+                return String.format("steady %.0f msg/s for %ds", peakRate, durationSeconds);
+        }
+    }
+}
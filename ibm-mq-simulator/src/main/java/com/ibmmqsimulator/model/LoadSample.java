@@ -0,0 +1,19 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One per-second observation of a timed load run. Backlog is the number of
+ * arrivals the profile asked for that the workers have not yet started.
+ */
+@Data
+@AllArgsConstructor
+public class LoadSample {
+    private int elapsedSeconds;
+    private double targetRate;
+    private double achievedRate;
+    private long sent;
+    private long errors;
+    private long backlog;
+}
@@ -8,6 +8,8 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "ibm.mq")
 public class MqConfig {
+    // "ibm-mq" for a real queue manager, "artemis" for the embedded broker
+    private String provider = "ibm-mq";
     private String queueManager;
     private String channel;
     private String connName;
@@ -15,10 +17,41 @@ public class MqConfig {
     private String password;
     private int receiveTimeout;
     private QueueConfig queue;
+    private HistoryConfig history = new HistoryConfig();
+    private ArtemisConfig artemis = new ArtemisConfig();
+    private ReconnectConfig reconnect = new ReconnectConfig();
 
     @Data
     public static class QueueConfig {
         private String in;
         private String out;
     }
+
+    @Data
+    public static class HistoryConfig {
+        // Entries kept in the in-memory history ring
+        private int capacity = 10000;
+        // Most recent entries that keep their full content; older ones are summarized
+        private int fullPayloads = 500;
+        // Optional file that receives full payloads before they are summarized
+        private String spillFile;
+    }
+
+    @Data
+    public static class ArtemisConfig {
+        // Journal and paging directory; blank keeps messages in memory only
+        private String dataDirectory;
+        // Optional acceptor for outside clients, e.g. tcp://localhost:61616
+        private String tcpUrl;
+    }
+
+    @Data
+    public static class ReconnectConfig {
+        private boolean enabled = true;
+        // Backoff between attempts starts here and doubles up to the maximum, with jitter
+        private long initialDelayMs = 500;
+        private long maxDelayMs = 30000;
+        // 0 keeps trying until disconnected
+        private int maxAttempts = 0;
+    }
 }
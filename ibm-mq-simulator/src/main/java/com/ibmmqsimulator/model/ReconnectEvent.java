@@ -0,0 +1,30 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One connection outage: when it was detected, how long until the connection was
+ * usable again, and how many attempts that took.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconnectEvent {
+    private LocalDateTime lostAt;
+    // System.nanoTime() at detection, for matching outages to the runs they interrupted
+    private long lostAtNanos;
+    private long downtimeMs;
+    private int attempts;
+    private String cause;
+
+    public String summary() {
+        return String.format("Reconnected after %.2f s (%d attempt%s); cause: %s",
+                downtimeMs / 1000.0, attempts, attempts == 1 ? "" : "s", cause);
+    }
+}
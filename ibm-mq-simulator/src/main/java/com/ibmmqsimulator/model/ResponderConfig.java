@@ -0,0 +1,31 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the responder (stub back-end) mode.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponderConfig {
+    private String requestQueue;
+    // Used when a request has no JMSReplyTo
+    private String replyQueue;
+    // Template placeholders plus ${REQ:name} for fields extracted from the request
+    private String responseTemplate;
+    private int listenerCount;
+    private int latencyMs;
+    // Random extra latency of 0..latencyJitterMs added per reply
+    private int latencyJitterMs;
+    // Field name -> XPath evaluated against the request XML
+    @Builder.Default
+    private Map<String, String> fields = new LinkedHashMap<>();
+}
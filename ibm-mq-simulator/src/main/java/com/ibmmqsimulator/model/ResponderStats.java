@@ -0,0 +1,28 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of the responder mode.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponderStats {
+    private long received;
+    private long replied;
+    private long errors;
+    // Replies scheduled but not yet sent because of artificial latency
+    private long delayed;
+    private long elapsedSeconds;
+    private double replyRate;
+
+    public String summary() {
+        return String.format("%,d received, %,d replied, %,d pending, %,d errors, %.0f replies/s",
+                received, replied, delayed, errors, replyRate);
+    }
+}
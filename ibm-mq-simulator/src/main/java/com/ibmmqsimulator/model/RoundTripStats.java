@@ -0,0 +1,35 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a request/reply run: counts plus end-to-end latency percentiles in milliseconds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundTripStats {
+    private long requests;
+    private long replies;
+    private long timeouts;
+    // Replies whose correlation ID matched no outstanding request (late, duplicate or foreign)
+    private long unmatched;
+    private long errors;
+    private long elapsedMs;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+
+    public String summary() {
+        return String.format("%,d requests, %,d replies, %,d timeouts, %,d unmatched, %,d errors | "
+                        + "RTT p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f ms (mean %.2f)",
+                requests, replies, timeouts, unmatched, errors, p50Ms, p90Ms, p99Ms, p999Ms, maxMs, meanMs);
+    }
+}
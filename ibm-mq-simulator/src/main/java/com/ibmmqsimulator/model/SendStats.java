@@ -0,0 +1,82 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a multi-threaded send run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SendStats {
+    private long sent;
+    private long errors;
+    private long elapsedMs;
+    private double averagePutMs;
+    private double putP50Ms;
+    private double putP99Ms;
+    private double putP999Ms;
+    private double maxPutMs;
+    // Commit figures are only populated in transacted mode
+    private long commits;
+    private double averageCommitMs;
+    private double maxCommitMs;
+    // Per-second samples, only populated for timed load runs
+    private List<LoadSample> samples;
+    // Async put figures: in-flight window and send-to-acknowledgment percentiles
+    private int asyncWindow;
+    private double ackP50Ms;
+    private double ackP99Ms;
+    private double ackP999Ms;
+    private double ackMaxMs;
+    // Connection outages during the run, and messages put again because their put was unacknowledged
+    private int reconnects;
+    private long downtimeMs;
+    private long maxDowntimeMs;
+    private long resent;
+    // Rendered messages rejected by the contract schema; also counted in errors
+    private long invalid;
+    // What ${RUN_ID} printed in this run's messages
+    private String runId;
+
+    public double getMessagesPerSecond() {
+        return elapsedMs == 0 ? sent : sent * 1000.0 / elapsedMs;
+    }
+
+    /**
+     * One-line summary for the status bar.
+     */
+    public String summary() {
+        String text = String.format("%,d sent, %,d errors, %.0f msg/s | put avg %.2f ms (max %.2f)",
+                sent, errors, getMessagesPerSecond(), averagePutMs, maxPutMs);
+        if (commits > 0) {
+            text += String.format(" | commit avg %.2f ms (max %.2f) over %,d commits",
+                    averageCommitMs, maxCommitMs, commits);
+        }
+        if (asyncWindow > 0) {
+            text += String.format(" | async window %,d, ack p50 %.2f p99 %.2f p99.9 %.2f max %.2f ms",
+                    asyncWindow, ackP50Ms, ackP99Ms, ackP999Ms, ackMaxMs);
+        }
+        if (reconnects > 0) {
+            text += String.format(" | %d reconnect%s, down %.2f s (max %.2f s), %,d re-sent",
+                    reconnects, reconnects == 1 ? "" : "s", downtimeMs / 1000.0, maxDowntimeMs / 1000.0, resent);
+        }
+        if (invalid > 0) {
+            text += String.format(" | %,d failed contract validation", invalid);
+        }
+        if (samples != null && !samples.isEmpty()) {
+            long peakBacklog = samples.stream().mapToLong(LoadSample::getBacklog).max().orElse(0);
+            text += String.format(" | peak backlog %,d", peakBacklog);
+        }
+        if (runId != null) {
+            text += " | run " + runId;
+        }
+        return text;
+    }
+}
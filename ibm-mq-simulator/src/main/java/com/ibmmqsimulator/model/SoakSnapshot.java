@@ -0,0 +1,39 @@
+package com.ibmmqsimulator.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Periodic progress report of a soak run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SoakSnapshot {
+    private long elapsedSeconds;
+    private long sent;
+    private long errors;
+    // Rate since the previous snapshot
+    private double intervalRate;
+    private double averageRate;
+    private double averagePutMs;
+    private double maxPutMs;
+    private long usedHeapMb;
+    // Outages since the soak started and their total length
+    private int reconnects;
+    private long downtimeMs;
+
+    public String summary() {
+        String text = String.format("%d:%02d:%02d  %,d sent  %,d errors  %.0f msg/s (avg %.0f)  put avg %.2f ms (max %.2f)  heap %d MB",
+                elapsedSeconds / 3600, elapsedSeconds / 60 % 60, elapsedSeconds % 60, sent, errors,
+                intervalRate, averageRate, averagePutMs, maxPutMs, usedHeapMb);
+        if (reconnects > 0) {
+            text += String.format("  %d reconnect%s (%.2f s down)", reconnects, reconnects == 1 ? "" : "s",
+                    downtimeMs / 1000.0);
+        }
+        return text;
+    }
+}
@@ -1,98 +1,119 @@
 package com.ibmmqsimulator.service;
 
-import com.ibm.mq.jms.MQConnectionFactory;
-import com.ibm.msg.client.wmq.WMQConstants;
+import com.ibmmqsimulator.model.ConnectionProfile;
+import com.ibmmqsimulator.model.FanOutStats;
+import com.ibmmqsimulator.model.MqConfig;
 import com.ibmmqsimulator.model.MqMessage;
+import com.ibmmqsimulator.model.SendStats;
+import com.ibmmqsimulator.util.CompiledTemplate;
+import com.ibmmqsimulator.util.LatencyTracker;
+import com.ibmmqsimulator.util.MessageHistory;
+import com.ibmmqsimulator.util.SendProgress;
+import com.ibmmqsimulator.util.TemplateRun;
 import com.ibmmqsimulator.util.TemplateUtil;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
 import org.springframework.stereotype.Service;
 
 import javax.jms.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Service for dynamic IBM MQ connections with user-provided configuration
+ * Service for dynamic IBM MQ connections with user-provided configuration. Any number of
+ * named connection profiles can be connected at once, each with its own connection and
+ * session pool, so one load can fan out across queue managers or channels.
  */
 @Slf4j
 @Service
 public class DynamicMqService {
 
-    private Connection connection;
-    private Session session;
-    private final List<MqMessage> messageHistory;
-    private boolean isConnected = false;
-    
-    // Dynamic configuration
-    private String queueManager;
-    private String channel;
-    private String connName;
-    private String user;
-    private String password;
+    // Upper bound of the merged put-latency histogram: one minute, in microseconds
+    private static final long MAX_PUT_MICROS = TimeUnit.MINUTES.toMicros(1);
 
-    public DynamicMqService() {
-        this.messageHistory = new CopyOnWriteArrayList<>();
+    private final MessageHistory messageHistory;
+    // Connected profiles by name, in the order they were connected
+    private final Map<String, PooledConnection> connections = new LinkedHashMap<>();
+
+    public DynamicMqService(MqConfig mqConfig) {
+        this.messageHistory = MessageHistory.fromConfig(mqConfig.getHistory(), "dynamic");
     }
 
     /**
-     * Connect to IBM MQ with dynamic configuration
+     * Connects a profile, replacing an earlier connection with the same name once the new one
+     * is up; if connecting fails the earlier one stays. Other profiles stay connected.
      */
-    public void connect(String queueManager, String channel, String connName, String user, String password) throws JMSException {
-        if (isConnected) {
-            log.warn("Already connected to IBM MQ. Disconnecting first.");
-            disconnect();
-        }
+    public void connect(ConnectionProfile profile) throws JMSException {
+        connect(profile.getName(), new IbmMqProvider(profile.getQueueManager(), profile.getChannel(),
+                profile.getConnName(), profile.getUser(), profile.getPassword()), profile.getSessions());
+    }
 
+    void connect(String name, JmsProvider provider, int sessions) throws JMSException {
+        PooledConnection pooled;
         try {
-            this.queueManager = queueManager;
-            this.channel = channel;
-            this.connName = connName;
-            this.user = user;
-            this.password = password;
-
-            MQConnectionFactory factory = new MQConnectionFactory();
-            factory.setTransportType(WMQConstants.WMQ_CM_CLIENT);
-            factory.setQueueManager(queueManager);
-            factory.setChannel(channel);
-            factory.setConnectionNameList(connName);
-            
-            connection = factory.createConnection(user, password);
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            connection.start();
-            
-            isConnected = true;
-            log.info("Connected to IBM MQ: {} via {}", queueManager, connName);
+            pooled = new PooledConnection(name, provider, sessions);
         } catch (JMSException e) {
-            log.error("Failed to connect to IBM MQ", e);
-            cleanup();
+            log.error("Failed to connect profile {} to {}", name, provider.describe(), e);
             throw e;
         }
+        // Swapped in one step, so two connects of the same profile cannot leave one unclosed
+        PooledConnection previous;
+        synchronized (connections) {
+            previous = connections.put(name, pooled);
+        }
+        if (previous != null) {
+            previous.close();
+            log.info("Closed the previous connection of profile {}", name);
+        }
+        log.info("Connected profile {} to {} with {} pooled sessions", name, provider.describe(), pooled.getSize());
+    }
+
+    /**
+     * Disconnects one profile; does nothing if it is not connected.
+     */
+    public void disconnect(String name) {
+        PooledConnection pooled;
+        synchronized (connections) {
+            pooled = connections.remove(name);
+        }
+        if (pooled != null) {
+            pooled.close();
+            log.info("Disconnected profile {}", name);
+        }
     }
 
+    /**
+     * Disconnects every profile.
+     */
+    @PreDestroy
     public void disconnect() {
-        cleanup();
-        isConnected = false;
-        log.info("Disconnected from IBM MQ");
+        for (String name : getProfileNames()) {
+            disconnect(name);
+        }
     }
 
     /**
      * Test connection with provided configuration
      */
-    public boolean testConnection(String queueManager, String channel, String connName, String user, String password) {
+    public boolean testConnection(ConnectionProfile profile) {
         try {
-            MQConnectionFactory factory = new MQConnectionFactory();
-            factory.setTransportType(WMQConstants.WMQ_CM_CLIENT);
-            factory.setQueueManager(queueManager);
-            factory.setChannel(channel);
-            factory.setConnectionNameList(connName);
-            
-            Connection testConn = factory.createConnection(user, password);
+            Connection testConn = new IbmMqProvider(profile.getQueueManager(), profile.getChannel(),
+                    profile.getConnName(), profile.getUser(), profile.getPassword()).connect();
             testConn.start();
             testConn.close();
-            
-            log.info("Connection test successful for: {}", queueManager);
+
+            log.info("Connection test successful for: {}", profile.getQueueManager());
             return true;
         } catch (JMSException e) {
             log.error("Connection test failed: {}", e.getMessage());
@@ -100,115 +121,316 @@ public class DynamicMqService {
         }
     }
 
-    public void sendMessage(String queueName, String messageContent) throws JMSException {
-        if (!isConnected) {
-            throw new JMSException("Not connected to IBM MQ");
+    public void sendMessage(String profileName, String queueName, String messageContent) throws JMSException {
+        PooledConnection pooled = connection(profileName);
+        Session session = pooled.borrow();
+        boolean healthy = false;
+        try {
+            Queue queue = session.createQueue(queueName);
+            MessageProducer producer = session.createProducer(queue);
+            try {
+                // Apply dynamic parameter substitution
+                String processedContent = TemplateUtil.replacePlaceholders(messageContent);
+
+                TextMessage message = session.createTextMessage(processedContent);
+                producer.send(message);
+
+                MqMessage mqMessage = MqMessage.builder()
+                        .messageId(message.getJMSMessageID())
+                        .content(processedContent)
+                        .queue(profileName + "/" + queueName)
+                        .timestamp(LocalDateTime.now())
+                        .type(MqMessage.MessageType.SENT)
+                        .build();
+
+                messageHistory.add(mqMessage);
+                log.info("Message sent to queue {} via profile {}", queueName, profileName);
+            } finally {
+                producer.close();
+            }
+            healthy = true;
+        } finally {
+            returnSession(pooled, session, healthy);
         }
+    }
 
-        Queue queue = session.createQueue(queueName);
-        MessageProducer producer = session.createProducer(queue);
-        
+    public List<MqMessage> receiveMessages(String profileName, String queueName, int maxMessages) throws JMSException {
+        PooledConnection pooled = connection(profileName);
+        List<MqMessage> messages = new ArrayList<>();
+        Session session = pooled.borrow();
+        boolean healthy = false;
         try {
-            // Apply dynamic parameter substitution
-            String processedContent = TemplateUtil.replacePlaceholders(messageContent);
-            
-            TextMessage message = session.createTextMessage(processedContent);
-            producer.send(message);
-            
-            MqMessage mqMessage = MqMessage.builder()
-                    .messageId(message.getJMSMessageID())
-                    .content(processedContent)
-                    .queue(queueName)
-                    .timestamp(LocalDateTime.now())
-                    .type(MqMessage.MessageType.SENT)
-                    .build();
-            
-            messageHistory.add(mqMessage);
-            log.info("Message sent to queue: {}", queueName);
+            Queue queue = session.createQueue(queueName);
+            MessageConsumer consumer = session.createConsumer(queue);
+            try {
+                for (int i = 0; i < maxMessages; i++) {
+                    Message message = consumer.receive(1000); // 1 second timeout
+                    if (message == null) {
+                        break;
+                    }
+
+                    if (message instanceof TextMessage) {
+                        TextMessage textMessage = (TextMessage) message;
+                        MqMessage mqMessage = MqMessage.builder()
+                                .messageId(textMessage.getJMSMessageID())
+                                .content(textMessage.getText())
+                                .queue(profileName + "/" + queueName)
+                                .timestamp(LocalDateTime.now())
+                                .type(MqMessage.MessageType.RECEIVED)
+                                .build();
+
+                        messages.add(mqMessage);
+                        messageHistory.add(mqMessage);
+                    }
+                }
+            } finally {
+                consumer.close();
+            }
+            healthy = true;
+            log.info("Received {} messages from queue {} via profile {}", messages.size(), queueName, profileName);
+            return messages;
         } finally {
-            producer.close();
+            returnSession(pooled, session, healthy);
         }
     }
 
-    public List<MqMessage> receiveMessages(String queueName, int maxMessages) throws JMSException {
-        if (!isConnected) {
-            throw new JMSException("Not connected to IBM MQ");
+    /**
+     * Sends {@code messagesPerProfile} messages to the same queue name through every listed
+     * profile at once, with {@code threadsPerProfile} workers per profile (capped at its pool
+     * size), each on a pooled session of its profile. Each profile reports its own throughput
+     * and put latency; the totals add up the counts and merge the latency histograms.
+     * @param progress Counters across all profiles, for the caller to poll; may be null
+     */
+    public FanOutStats runFanOut(List<String> profileNames, String queueName, String messageContent,
+                                 int messagesPerProfile, int threadsPerProfile,
+                                 SendProgress progress) throws JMSException, InterruptedException {
+        if (profileNames.isEmpty()) {
+            throw new JMSException("No connection profiles selected");
         }
+        int count = Math.max(1, messagesPerProfile);
+        CompiledTemplate template = TemplateUtil.compile(messageContent);
+        // One run across all profiles, so ${SEQ} and ${RUN_ID} span the whole fan-out
+        TemplateRun templateRun = TemplateRun.start();
+        SendProgress totals = progress != null ? progress : new SendProgress();
+        totals.start((long) count * profileNames.size());
 
-        List<MqMessage> messages = new ArrayList<>();
-        Queue queue = session.createQueue(queueName);
-        MessageConsumer consumer = session.createConsumer(queue);
+        List<ProfileRun> runs = new ArrayList<>();
+        int threadTotal = 0;
+        for (String name : profileNames) {
+            PooledConnection pooled = connection(name);
+            ProfileRun run = new ProfileRun(pooled, count,
+                    Math.max(1, Math.min(Math.min(threadsPerProfile, pooled.getSize()), count)));
+            runs.add(run);
+            threadTotal += run.threads;
+        }
+        log.info("Starting fan-out of {} messages per profile to {} through {}", count, queueName, profileNames);
 
+        long startNanos = System.nanoTime();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadTotal);
+        for (ProfileRun run : runs) {
+            for (int i = 0; i < run.threads; i++) {
+                executorService.submit(() -> fanOutWorker(run, queueName, template, templateRun, totals));
+            }
+        }
+        executorService.shutdown();
         try {
-            for (int i = 0; i < maxMessages; i++) {
-                Message message = consumer.receive(1000); // 1 second timeout
-                if (message == null) {
-                    break;
-                }
+            while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Still fanning out: {}/{} messages", totals.getSent(), totals.getTotal());
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            throw e;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
 
-                if (message instanceof TextMessage) {
-                    TextMessage textMessage = (TextMessage) message;
-                    MqMessage mqMessage = MqMessage.builder()
-                            .messageId(textMessage.getJMSMessageID())
-                            .content(textMessage.getText())
-                            .queue(queueName)
-                            .timestamp(LocalDateTime.now())
-                            .type(MqMessage.MessageType.RECEIVED)
-                            .build();
-                    
-                    messages.add(mqMessage);
-                    messageHistory.add(mqMessage);
+        Map<String, SendStats> perProfile = new LinkedHashMap<>();
+        Histogram merged = new Histogram(MAX_PUT_MICROS, 3);
+        double totalPutMillis = 0;
+        double maxPutMs = 0;
+        for (ProfileRun run : runs) {
+            Histogram histogram = run.putLatency.getIntervalHistogram();
+            merged.add(histogram);
+            SendStats stats = toStats(run.sent.sum(), count - run.sent.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(run.endNanos - startNanos), run.putLatency, histogram);
+            perProfile.put(run.pooled.getName(), stats);
+            totalPutMillis += run.putLatency.getAverageMillis() * run.putLatency.getCount();
+            maxPutMs = Math.max(maxPutMs, run.putLatency.getMaxMillis());
+        }
+        long sent = runs.stream().mapToLong(run -> run.sent.sum()).sum();
+        SendStats total = SendStats.builder()
+                .sent(sent)
+                .errors((long) count * runs.size() - sent)
+                .elapsedMs(elapsedMs)
+                .averagePutMs(merged.getTotalCount() == 0 ? 0 : totalPutMillis / merged.getTotalCount())
+                .putP50Ms(merged.getValueAtPercentile(50) / 1000.0)
+                .putP99Ms(merged.getValueAtPercentile(99) / 1000.0)
+                .putP999Ms(merged.getValueAtPercentile(99.9) / 1000.0)
+                .maxPutMs(maxPutMs)
+                .runId(templateRun.getId())
+                .build();
+
+        FanOutStats stats = FanOutStats.builder().profiles(perProfile).total(total).build();
+        messageHistory.add(MqMessage.builder()
+                .messageId("FANOUT-" + UUID.randomUUID().toString().substring(0, 8))
+                .content("[Fan-out] " + total.summary())
+                .queue(String.join(",", profileNames) + "/" + queueName)
+                .timestamp(LocalDateTime.now())
+                .type(MqMessage.MessageType.SENT)
+                .build());
+        log.info("Completed fan-out:\n{}", stats.summary());
+        return stats;
+    }
+
+    /**
+     * Sends numbers off the profile's sequence. After a failed send the session is discarded and
+     * the next message goes out on a fresh one; if no session can be had the worker stops, and
+     * whatever its profile's workers left unattempted is counted as errors.
+     */
+    private void fanOutWorker(ProfileRun run, String queueName, CompiledTemplate template,
+                              TemplateRun templateRun, SendProgress totals) {
+        Session session = null;
+        MessageProducer producer = null;
+        long messageNum = 0;
+        try {
+            // Checked before claiming, so an interrupt never strands a claimed number
+            while (!Thread.currentThread().isInterrupted()
+                    && (messageNum = run.sequence.incrementAndGet()) <= run.count) {
+                if (session == null) {
+                    session = run.pooled.borrow();
+                    producer = session.createProducer(session.createQueue(queueName));
+                }
+                try {
+                    TextMessage message = session.createTextMessage(template.render(templateRun, messageNum));
+                    MqService.setMessageNumber(message, messageNum);
+                    long putStart = System.nanoTime();
+                    producer.send(message);
+                    run.putLatency.record(System.nanoTime() - putStart);
+                    run.sent.increment();
+                    totals.addSent(1);
+                } catch (JMSException e) {
+                    totals.addErrors(1);
+                    log.error("Fan-out send {} via {} failed: {}", messageNum, run.pooled.getName(), e.getMessage());
+                    // The session may be broken; closing it also closes its producer
+                    run.pooled.discard(session);
+                    session = null;
                 }
             }
-            
-            log.info("Received {} messages from queue: {}", messages.size(), queueName);
-            return messages;
+        } catch (JMSException e) {
+            // The number claimed for the next message was never attempted
+            totals.addErrors(1);
+            log.error("Fan-out worker on profile {} stopped: {}", run.pooled.getName(), e.getMessage());
+            if (session != null) {
+                run.pooled.discard(session);
+                session = null;
+            }
         } finally {
-            consumer.close();
+            if (session != null) {
+                try {
+                    producer.close();
+                    run.pooled.release(session);
+                } catch (JMSException e) {
+                    run.pooled.discard(session);
+                }
+            }
+            run.workerDone(totals);
+        }
+    }
+
+    private static SendStats toStats(long sent, long errors, long elapsedMs, LatencyTracker latency, Histogram histogram) {
+        return SendStats.builder()
+                .sent(sent)
+                .errors(errors)
+                .elapsedMs(elapsedMs)
+                .averagePutMs(latency.getAverageMillis())
+                .putP50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                .putP99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                .putP999Ms(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .maxPutMs(latency.getMaxMillis())
+                .build();
+    }
+
+    /**
+     * One profile's share of a fan-out: its own sequence, counters and finish time.
+     */
+    private static class ProfileRun {
+        private final PooledConnection pooled;
+        private final int count;
+        private final int threads;
+        private final AtomicLong sequence = new AtomicLong();
+        private final LongAdder sent = new LongAdder();
+        private final LatencyTracker putLatency = new LatencyTracker();
+        private final AtomicInteger running;
+        private volatile long endNanos;
+
+        ProfileRun(PooledConnection pooled, int count, int threads) {
+            this.pooled = pooled;
+            this.count = count;
+            this.threads = threads;
+            this.running = new AtomicInteger(threads);
+        }
+
+        /**
+         * Once the last worker is done, counts the numbers no worker got to (all of them stopped
+         * or were interrupted early) as errors, so the totals still add up to the count.
+         */
+        void workerDone(SendProgress totals) {
+            if (running.decrementAndGet() == 0) {
+                endNanos = System.nanoTime();
+                long unclaimed = count - Math.min(sequence.get(), count);
+                if (unclaimed > 0) {
+                    totals.addErrors(unclaimed);
+                }
+            }
+        }
+    }
+
+    private void returnSession(PooledConnection pooled, Session session, boolean healthy) {
+        if (healthy) {
+            pooled.release(session);
+        } else {
+            pooled.discard(session);
+        }
+    }
+
+    private PooledConnection connection(String profileName) throws JMSException {
+        synchronized (connections) {
+            PooledConnection pooled = connections.get(profileName);
+            if (pooled == null) {
+                throw new JMSException("Profile " + profileName + " is not connected");
+            }
+            return pooled;
         }
     }
 
     public List<MqMessage> getMessageHistory() {
-        return new ArrayList<>(messageHistory);
+        return messageHistory.snapshot();
     }
 
     public void clearHistory() {
         messageHistory.clear();
     }
 
+    /**
+     * Whether at least one profile is connected.
+     */
     public boolean isConnected() {
-        return isConnected;
+        synchronized (connections) {
+            return !connections.isEmpty();
+        }
     }
 
-    public String getQueueManager() {
-        return queueManager;
+    public boolean isConnected(String profileName) {
+        synchronized (connections) {
+            return connections.containsKey(profileName);
+        }
     }
 
-    private void cleanup() {
-        try {
-            if (session != null) {
-                session.close();
-            }
-        } catch (JMSException e) {
-            log.warn("Error closing session", e);
+    /**
+     * Names of the connected profiles, in the order they were connected.
+     */
+    public List<String> getProfileNames() {
+        synchronized (connections) {
+            return new ArrayList<>(connections.keySet());
         }
-
-        try {
-            if (connection != null) {
-                connection.close();
-            }
-        } catch (JMSException e) {
-            log.warn("Error closing connection", e);
-        }
-
-        session = null;
-        connection = null;
-        
-        // Clear sensitive credentials
-        password = null;
-        user = null;
-        queueManager = null;
-        channel = null;
-        connName = null;
     }
 }
@@ -0,0 +1,76 @@
+package com.ibmmqsimulator.service;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.jms.MQConnectionFactory;
+import com.ibm.msg.client.wmq.WMQConstants;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import java.util.Set;
+
+/**
+ * IBM MQ queue manager reached over a client channel.
+ */
+public class IbmMqProvider implements JmsProvider {
+
+    // Reason codes meaning the queue manager or the channel went away, not that the call was wrong
+    private static final Set<Integer> CONNECTION_REASONS = Set.of(
+            CMQC.MQRC_CONNECTION_BROKEN,
+            CMQC.MQRC_Q_MGR_NOT_AVAILABLE,
+            CMQC.MQRC_Q_MGR_QUIESCING,
+            CMQC.MQRC_Q_MGR_STOPPING,
+            CMQC.MQRC_CONNECTION_QUIESCING,
+            CMQC.MQRC_CONNECTION_STOPPING,
+            CMQC.MQRC_HOST_NOT_AVAILABLE,
+            CMQC.MQRC_RECONNECT_FAILED);
+
+    private final String queueManager;
+    private final String channel;
+    private final String connName;
+    private final String user;
+    private final String password;
+
+    public IbmMqProvider(String queueManager, String channel, String connName, String user, String password) {
+        this.queueManager = queueManager;
+        this.channel = channel;
+        this.connName = connName;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public String describe() {
+        return "IBM MQ " + queueManager + " via " + connName;
+    }
+
+    @Override
+    public ConnectionFactory createConnectionFactory() throws JMSException {
+        MQConnectionFactory factory = new MQConnectionFactory();
+        factory.setTransportType(WMQConstants.WMQ_CM_CLIENT);
+        factory.setQueueManager(queueManager);
+        factory.setChannel(channel);
+        factory.setConnectionNameList(connName);
+        return factory;
+    }
+
+    @Override
+    public Connection connect() throws JMSException {
+        return createConnectionFactory().createConnection(user, password);
+    }
+
+    @Override
+    public boolean isConnectionFailure(JMSException e) {
+        if (e instanceof javax.jms.IllegalStateException) {
+            return true;
+        }
+        Throwable cause = e.getLinkedException() != null ? e.getLinkedException() : e.getCause();
+        for (int depth = 0; cause != null && depth < 10; depth++, cause = cause.getCause()) {
+            if (cause instanceof MQException && CONNECTION_REASONS.contains(((MQException) cause).getReason())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
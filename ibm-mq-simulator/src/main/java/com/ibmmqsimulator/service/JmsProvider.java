@@ -0,0 +1,60 @@
+package com.ibmmqsimulator.service;
+
+import com.ibmmqsimulator.model.MqConfig;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+
+/**
+ * Builds the JMS connections the services run on, so the same load, drain, browse and
+ * responder code works against IBM MQ or an in-process broker.
+ */
+public interface JmsProvider {
+
+    /**
+     * Human-readable target, e.g. "IBM MQ QM1 via localhost(1414)".
+     */
+    String describe();
+
+    ConnectionFactory createConnectionFactory() throws JMSException;
+
+    /**
+     * Opens a connection (not yet started) with whatever credentials the provider holds.
+     */
+    default Connection connect() throws JMSException {
+        return createConnectionFactory().createConnection();
+    }
+
+    /**
+     * Whether a failed call means the connection itself is gone, so the caller should wait for a
+     * reconnect and retry rather than count an error. By default only calls on closed objects qualify.
+     */
+    default boolean isConnectionFailure(JMSException e) {
+        return e instanceof javax.jms.IllegalStateException;
+    }
+
+    /**
+     * Releases anything the provider runs itself; a no-op for remote brokers.
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * The provider selected by {@code ibm.mq.provider}.
+     */
+    static JmsProvider fromConfig(MqConfig config) {
+        String provider = config.getProvider() == null ? "ibm-mq" : config.getProvider().trim().toLowerCase();
+        switch (provider) {
+            case "ibm-mq":
+                return new IbmMqProvider(config.getQueueManager(), config.getChannel(), config.getConnName(),
+                        config.getUser(), config.getPassword());
+            case "artemis":
+                return new EmbeddedArtemisProvider(config.getArtemis().getDataDirectory(),
+                        config.getArtemis().getTcpUrl());
+            default:
+                throw new IllegalArgumentException("Unknown JMS provider '" + config.getProvider()
+                        + "'; expected ibm-mq or artemis");
+        }
+    }
+}
@@ -1,67 +1,335 @@
 package com.ibmmqsimulator.service;
 
-import com.ibm.mq.jms.MQConnectionFactory;
+import com.ibm.mq.jms.MQDestination;
 import com.ibm.msg.client.wmq.WMQConstants;
+import com.ibmmqsimulator.model.BenchmarkConfig;
+import com.ibmmqsimulator.model.BenchmarkResult;
+import com.ibmmqsimulator.model.DrainStats;
+import com.ibmmqsimulator.model.LoadProfile;
+import com.ibmmqsimulator.model.LoadSample;
 import com.ibmmqsimulator.model.MqConfig;
 import com.ibmmqsimulator.model.MqMessage;
+import com.ibmmqsimulator.model.ReconnectEvent;
+import com.ibmmqsimulator.model.ResponderConfig;
+import com.ibmmqsimulator.model.ResponderStats;
+import com.ibmmqsimulator.model.RoundTripStats;
+import com.ibmmqsimulator.model.SendStats;
+import com.ibmmqsimulator.model.SoakSnapshot;
+import com.ibmmqsimulator.util.Backoff;
+import com.ibmmqsimulator.util.CompiledTemplate;
+import com.ibmmqsimulator.util.LatencyTracker;
+import com.ibmmqsimulator.util.MessageHistory;
+import com.ibmmqsimulator.util.PayloadGenerator;
+import com.ibmmqsimulator.util.SendProgress;
+import com.ibmmqsimulator.util.TemplateRun;
 import com.ibmmqsimulator.util.TemplateUtil;
+import com.ibmmqsimulator.util.TokenBucket;
+import com.ibmmqsimulator.util.XmlUtil;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 import org.springframework.stereotype.Service;
 
 import javax.jms.*;
+import javax.xml.validation.Schema;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
 public class MqService {
 
+    // History sample interval for multi-threaded sends
+    private static final int HISTORY_SAMPLE_INTERVAL = 10;
+    // Messages consumed per commit by each drain session
+    private static final int DRAIN_COMMIT_INTERVAL = 100;
+    // Upper bound of the async acknowledgment histogram: one minute, in microseconds
+    private static final long MAX_ACK_MICROS = TimeUnit.MINUTES.toMicros(1);
+
     private final MqConfig mqConfig;
+    private final JmsProvider provider;
     private Connection connection;
     private Session session;
-    private final List<MqMessage> messageHistory;
+    private final MessageHistory messageHistory;
     private MessageConsumer consumer;
-    private boolean isConnected = false;
+    private volatile boolean isConnected = false;
+    private volatile boolean stopRequested = false;
+    private Responder responder;
+
+    // Guards connection, session and the reconnect state below; waited on by workers during an outage
+    private final Object connectionLock = new Object();
+    // Bumped by every successful (re)connect, so failures on an already replaced connection are ignored
+    private long connectionGeneration;
+    private boolean reconnecting;
+    private Thread reconnectThread;
+    private volatile ConnectionListener connectionListener;
+    private final List<ReconnectEvent> reconnectEvents = new CopyOnWriteArrayList<>();
+    // What to restore once a dropped connection is re-established
+    private String listeningQueue;
+    private MessageListener listeningListener;
+    private ResponderConfig responderConfig;
+    // When set, every rendered message is validated against it and rejected messages are not sent
+    private volatile Schema contractSchema;
 
     public MqService(MqConfig mqConfig) {
         this.mqConfig = mqConfig;
-        this.messageHistory = new CopyOnWriteArrayList<>();
+        this.provider = JmsProvider.fromConfig(mqConfig);
+        this.messageHistory = MessageHistory.fromConfig(mqConfig.getHistory(), null);
     }
 
     public void connect() throws JMSException {
-        if (isConnected) {
-            log.warn("Already connected to IBM MQ");
+        synchronized (connectionLock) {
+            if (isConnected || reconnecting) {
+                log.warn("Already connected to {}", provider.describe());
+                return;
+            }
+
+            Connection newConnection = null;
+            try {
+                newConnection = provider.connect();
+                install(newConnection);
+
+                isConnected = true;
+                log.info("Connected to {}", provider.describe());
+            } catch (JMSException e) {
+                log.error("Failed to connect to {}", provider.describe(), e);
+                closeQuietly(newConnection);
+                throw e;
+            }
+        }
+    }
+
+    public void disconnect() {
+        synchronized (connectionLock) {
+            // Abandons a reconnect in progress; workers waiting on it give up
+            reconnecting = false;
+            isConnected = false;
+            if (reconnectThread != null) {
+                reconnectThread.interrupt();
+                reconnectThread = null;
+            }
+            connectionLock.notifyAll();
+        }
+        stopResponder();
+        listeningQueue = null;
+        listeningListener = null;
+        cleanup();
+        log.info("Disconnected from {}", provider.describe());
+    }
+
+    /**
+     * Opens the main session on a fresh connection, registers the exception listener that
+     * triggers a reconnect, and makes it the current connection. Called with connectionLock held.
+     */
+    private void install(Connection newConnection) throws JMSException {
+        Session newSession = newConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        long generation = ++connectionGeneration;
+        newConnection.setExceptionListener(e -> connectionLost(generation, e));
+        newConnection.start();
+        connection = newConnection;
+        session = newSession;
+    }
+
+    /**
+     * Called by the connection's exception listener, and by send workers whose calls fail with
+     * a connection error. The first report for the current connection marks the service
+     * disconnected and starts reconnecting in the background; later ones are ignored.
+     */
+    private void connectionLost(long generation, JMSException cause) {
+        String reason = cause.getMessage();
+        synchronized (connectionLock) {
+            if (generation != connectionGeneration || !isConnected) {
+                return;
+            }
+            isConnected = false;
+            reconnecting = true;
+            log.warn("Connection to {} lost: {}", provider.describe(), reason);
+            LocalDateTime lostAt = LocalDateTime.now();
+            long lostAtNanos = System.nanoTime();
+            reconnectThread = new Thread(() -> reconnect(lostAt, lostAtNanos, reason), "mq-reconnect");
+            reconnectThread.setDaemon(true);
+            reconnectThread.start();
+        }
+        ConnectionListener listener = connectionListener;
+        if (listener != null) {
+            listener.onConnectionLost(reason);
+        }
+    }
+
+    /**
+     * Retries the connection with exponential backoff and jitter until it succeeds, the
+     * configured attempts run out or {@link #disconnect()} is called. On success the listening
+     * consumer and the responder are restored; send workers reopen their own sessions.
+     */
+    private void reconnect(LocalDateTime lostAt, long lostAtNanos, String cause) {
+        MqConfig.ReconnectConfig settings = mqConfig.getReconnect();
+        // The old objects are unusable; closing them releases the client's threads and sockets
+        closeResponder();
+        cleanup();
+
+        Backoff backoff = new Backoff(settings.getInitialDelayMs(), settings.getMaxDelayMs());
+        int attempts = 0;
+        while (settings.isEnabled() && (settings.getMaxAttempts() <= 0 || attempts < settings.getMaxAttempts())) {
+            try {
+                Thread.sleep(backoff.nextDelayMillis());
+            } catch (InterruptedException e) {
+                // disconnect() was called
+                return;
+            }
+            attempts++;
+            Connection newConnection;
+            try {
+                newConnection = provider.connect();
+            } catch (JMSException e) {
+                log.info("Reconnect attempt {} to {} failed: {}", attempts, provider.describe(), e.getMessage());
+                continue;
+            }
+            synchronized (connectionLock) {
+                if (!reconnecting) {
+                    closeQuietly(newConnection);
+                    return;
+                }
+                try {
+                    install(newConnection);
+                } catch (JMSException e) {
+                    log.info("Reconnect attempt {} to {} failed: {}", attempts, provider.describe(), e.getMessage());
+                    closeQuietly(newConnection);
+                    continue;
+                }
+                reconnecting = false;
+                isConnected = true;
+                reconnectThread = null;
+                connectionLock.notifyAll();
+            }
+
+            ReconnectEvent event = ReconnectEvent.builder()
+                    .lostAt(lostAt)
+                    .lostAtNanos(lostAtNanos)
+                    .downtimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lostAtNanos))
+                    .attempts(attempts)
+                    .cause(cause)
+                    .build();
+            reconnectEvents.add(event);
+            log.info("{} to {}", event.summary(), provider.describe());
+            restoreListeners();
+            ConnectionListener listener = connectionListener;
+            if (listener != null) {
+                listener.onReconnected(event);
+            }
             return;
         }
 
+        synchronized (connectionLock) {
+            if (!reconnecting) {
+                return;
+            }
+            reconnecting = false;
+            reconnectThread = null;
+            connectionLock.notifyAll();
+        }
+        String reason = settings.isEnabled()
+                ? String.format("gave up after %d attempts", attempts)
+                : "reconnect is disabled";
+        log.error("Connection to {} not re-established: {}", provider.describe(), reason);
+        ConnectionListener listener = connectionListener;
+        if (listener != null) {
+            listener.onReconnectFailed(reason);
+        }
+    }
+
+    private void restoreListeners() {
         try {
-            MQConnectionFactory factory = new MQConnectionFactory();
-            factory.setTransportType(WMQConstants.WMQ_CM_CLIENT);
-            factory.setQueueManager(mqConfig.getQueueManager());
-            factory.setChannel(mqConfig.getChannel());
-            factory.setConnectionNameList(mqConfig.getConnName());
-            
-            connection = factory.createConnection(mqConfig.getUser(), mqConfig.getPassword());
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            connection.start();
-            
-            isConnected = true;
-            log.info("Connected to IBM MQ: {}", mqConfig.getQueueManager());
+            if (listeningQueue != null) {
+                startListening(listeningQueue, listeningListener);
+            }
+            synchronized (this) {
+                if (responderConfig != null) {
+                    startResponder(responderConfig);
+                }
+            }
         } catch (JMSException e) {
-            log.error("Failed to connect to IBM MQ", e);
-            cleanup();
-            throw e;
+            log.error("Failed to restore listeners after reconnect: {}", e.getMessage());
         }
     }
 
-    public void disconnect() {
-        cleanup();
-        isConnected = false;
-        log.info("Disconnected from IBM MQ");
+    /**
+     * Blocks a send worker while a reconnect is in progress.
+     * @param stoppable Give up when a stop is requested, for timed runs
+     * @return The generation of the re-established connection
+     * @throws JMSException if the connection was not re-established
+     */
+    private long awaitReconnect(boolean stoppable) throws JMSException {
+        synchronized (connectionLock) {
+            while (reconnecting && !(stoppable && stopRequested)) {
+                try {
+                    connectionLock.wait(250);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new JMSException("Interrupted waiting for the connection to be re-established");
+                }
+            }
+            if (!isConnected) {
+                throw new JMSException("Connection to " + provider.describe() + " lost and not re-established");
+            }
+            return connectionGeneration;
+        }
+    }
+
+    /**
+     * Notified from the reconnect thread when the connection drops and when it comes back.
+     */
+    public void setConnectionListener(ConnectionListener connectionListener) {
+        this.connectionListener = connectionListener;
+    }
+
+    /**
+     * Sets the contract XSD that send runs started from now on validate each rendered message
+     * against; messages that fail are counted as invalid and not sent. Null turns validation off.
+     */
+    public void setContractSchema(Schema contractSchema) {
+        this.contractSchema = contractSchema;
+    }
+
+    public Schema getContractSchema() {
+        return contractSchema;
+    }
+
+    /**
+     * Every outage since the service started, oldest first.
+     */
+    public List<ReconnectEvent> getReconnectEvents() {
+        return new ArrayList<>(reconnectEvents);
+    }
+
+    public boolean isReconnecting() {
+        synchronized (connectionLock) {
+            return reconnecting;
+        }
+    }
+
+    /**
+     * Closes the connection and stops an embedded broker when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (isConnected) {
+            disconnect();
+        }
+        provider.shutdown();
+    }
+
+    public String getProviderDescription() {
+        return provider.describe();
     }
 
     public void sendMessage(String queueName, String messageContent) throws JMSException {
@@ -95,123 +363,916 @@ public class MqService {
     }
 
     /**
-     * Sends multiple messages using multiple threads for fast delivery
+     * Sends multiple messages using multiple threads for fast delivery.
+     * Workers pull message numbers off a shared sequence and render each message just
+     * before sending it; each worker owns one session and one producer for the whole run.
      * @param queueName Target queue name
      * @param messageContent XML message content
-     * @param messageCount Number of messages to send (1-20000)
-     * @param threadCount Number of threads to use (1-100)
-     * @param progressCallback Callback for progress updates (sent, total)
+     * @param messageCount Number of messages to send
+     * @param threadCount Number of threads to use (at most one per message)
+     * @param progress Counters updated as messages are sent, for the caller to poll; may be null
+     */
+    public SendStats sendMessagesMultiThreaded(String queueName, String messageContent,
+                                               int messageCount, int threadCount,
+                                               SendProgress progress) throws JMSException, InterruptedException {
+        return sendMessagesMultiThreaded(queueName, messageContent, messageCount, threadCount, 0, progress);
+    }
+
+    /**
+     * Same as {@link #sendMessagesMultiThreaded(String, String, int, int, SendProgress)}, optionally
+     * sending under syncpoint: with a batch size above zero each worker uses a transacted session and
+     * commits every {@code transactionBatchSize} messages (and once more when the sequence runs out).
+     * Messages only count as sent once their batch is committed.
      */
-    public void sendMessagesMultiThreaded(String queueName, String messageContent, 
-                                          int messageCount, int threadCount,
-                                          ProgressCallback progressCallback) throws JMSException, InterruptedException {
+    public SendStats sendMessagesMultiThreaded(String queueName, String messageContent,
+                                               int messageCount, int threadCount, int transactionBatchSize,
+                                               SendProgress progress) throws JMSException, InterruptedException {
+        return sendMessagesMultiThreaded(queueName, messageContent, messageCount, threadCount,
+                transactionBatchSize, 0, progress);
+    }
+
+    /**
+     * Same as {@link #sendMessagesMultiThreaded(String, String, int, int, int, SendProgress)}, optionally
+     * with asynchronous puts: with an async window above zero, non-transacted workers send with a JMS 2.0
+     * {@link CompletionListener} instead of waiting for each put, and at most {@code asyncWindow} messages
+     * across all workers are awaiting acknowledgment at any time. Messages count as sent when acknowledged;
+     * the time from send to acknowledgment is reported as percentiles. Async put is ignored for transacted
+     * sends, whose commits already pipeline the batch.
+     */
+    public SendStats sendMessagesMultiThreaded(String queueName, String messageContent,
+                                               int messageCount, int threadCount, int transactionBatchSize,
+                                               int asyncWindow, SendProgress progress)
+            throws JMSException, InterruptedException {
         if (!isConnected) {
             throw new JMSException("Not connected to IBM MQ");
         }
 
         // Validate input and make final for lambda usage
-        final int finalMessageCount = Math.max(1, Math.min(20000, messageCount));
-        final int finalThreadCount = Math.max(1, Math.min(100, threadCount));
+        final int finalMessageCount = Math.max(1, messageCount);
+        final int finalThreadCount = Math.max(1, Math.min(threadCount, finalMessageCount));
+        final int batchSize = Math.max(0, transactionBatchSize);
+        SendRun run = new SendRun(messageContent, finalMessageCount, batchSize, HISTORY_SAMPLE_INTERVAL, progress);
+        if (asyncWindow > 0 && batchSize == 0) {
+            run.enableAsync(asyncWindow);
+        }
+        long startTime = System.currentTimeMillis();
+        
+        log.info("Starting to send {} messages using {} threads to queue: {}{}", 
+                 finalMessageCount, finalThreadCount, queueName,
+                 batchSize > 0 ? " (transacted, commit every " + batchSize + ")"
+                         : run.asyncWindow > 0 ? " (async put, window " + run.asyncWindow + ")" : "");
         
-        ExecutorService executorService = Executors.newFixedThreadPool(finalThreadCount);
-        AtomicInteger sentCount = new AtomicInteger(0);
-        AtomicInteger errorCount = new AtomicInteger(0);
-        CountDownLatch latch = new CountDownLatch(finalMessageCount);
+        ExecutorService executorService = startCountedWorkers(queueName, finalThreadCount, run);
         
-        // History sample interval constant
-        final int HISTORY_SAMPLE_INTERVAL = 10;
+        // Wait for every worker to run out of messages
+        try {
+            while (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Still sending: {}/{} messages", run.progress.getSent(), finalMessageCount);
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            throw e;
+        }
         
-        log.info("Starting to send {} messages using {} threads to queue: {}", 
-                 finalMessageCount, finalThreadCount, queueName);
+        SendStats stats = run.toStats(System.currentTimeMillis() - startTime);
+        stats.setErrors(finalMessageCount - stats.getSent());
+        log.info("Completed sending messages: {}", stats.summary());
         
-        for (int i = 0; i < finalMessageCount; i++) {
-            final int messageNum = i + 1;
+        if (run.progress.getErrors() > 0 || run.progress.getSent() < finalMessageCount) {
+            throw new JMSException(String.format("Failed to send %d messages out of %d%s",
+                                                 finalMessageCount - run.progress.getSent(), finalMessageCount,
+                                                 stats.getInvalid() > 0
+                                                         ? String.format(" (%d failed contract validation)", stats.getInvalid())
+                                                         : ""));
+        }
+        return stats;
+    }
+
+    /**
+     * Request/reply benchmark: sends messageCount requests to the request queue, each with
+     * JMSReplyTo set to the reply queue and a unique correlation ID, and measures the time
+     * until the matching reply arrives on a listener session. Replies are matched on either
+     * the echoed correlation ID or the request's message ID. Requests without a reply after
+     * {@code timeoutMs} are counted as timeouts.
+     */
+    public RoundTripStats runRequestReply(String requestQueueName, String replyQueueName, String messageContent,
+                                          int messageCount, int threadCount, long timeoutMs,
+                                          SendProgress progress) throws JMSException, InterruptedException {
+        if (!isConnected) {
+            throw new JMSException("Not connected to IBM MQ");
+        }
+
+        final int finalMessageCount = Math.max(1, messageCount);
+        final int finalThreadCount = Math.max(1, Math.min(threadCount, finalMessageCount));
+        RequestReplyTracker tracker = new RequestReplyTracker(Math.max(1, timeoutMs));
+        SendRun run = new SendRun(messageContent, finalMessageCount, 0, HISTORY_SAMPLE_INTERVAL, progress);
+        run.requests = tracker;
+        run.replyQueueName = replyQueueName;
+
+        log.info("Starting request/reply run: {} requests to {} using {} threads, replies on {}",
+                finalMessageCount, requestQueueName, finalThreadCount, replyQueueName);
+
+        Session replySession;
+        Connection current = currentConnection();
+        synchronized (current) {
+            replySession = current.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            // The listener must be in place before the first request goes out
+            MessageConsumer replyConsumer = replySession.createConsumer(replySession.createQueue(replyQueueName));
+            replyConsumer.setMessageListener(tracker);
+
+            ExecutorService executorService = startCountedWorkers(requestQueueName, finalThreadCount, run);
+            try {
+                while (!executorService.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+                    tracker.expire();
+                }
+                // Then wait for the stragglers, up to the timeout
+                while (tracker.getOutstanding() > 0) {
+                    Thread.sleep(50);
+                    tracker.expire();
+                }
+            } catch (InterruptedException e) {
+                executorService.shutdownNow();
+                throw e;
+            }
+        } finally {
+            try {
+                replySession.close();
+            } catch (JMSException e) {
+                log.warn("Error closing reply session: {}", e.getMessage());
+            }
+        }
+
+        RoundTripStats stats = tracker.toStats(run.progress.getSent(), run.progress.getErrors(),
+                System.currentTimeMillis() - startTime);
+        messageHistory.add(MqMessage.builder()
+                .messageId("RR-" + UUID.randomUUID().toString().substring(0, 8))
+                .content("[Request/Reply] " + stats.summary())
+                .queue(requestQueueName)
+                .timestamp(LocalDateTime.now())
+                .type(MqMessage.MessageType.SENT)
+                .build());
+        log.info("Completed request/reply run: {}", stats.summary());
+        return stats;
+    }
+
+    /**
+     * Runs a timed load against a queue, holding the arrival rate described by the profile.
+     * Workers share a token bucket whose rate the calling thread adjusts every tick; once a
+     * second a {@link LoadSample} with target rate, achieved rate and backlog is recorded and
+     * passed to the callback. Backlog grows when the workers cannot keep up with the profile.
+     */
+    public SendStats runLoad(String queueName, String messageContent, LoadProfile profile,
+                             int threadCount, int transactionBatchSize,
+                             LoadSampleCallback sampleCallback) throws JMSException, InterruptedException {
+        if (!isConnected) {
+            throw new JMSException("Not connected to IBM MQ");
+        }
+
+        final int finalThreadCount = Math.max(1, threadCount);
+        SendRun run = new SendRun(messageContent, 0, Math.max(0, transactionBatchSize), HISTORY_SAMPLE_INTERVAL, null);
+        // Allow roughly 100 ms of burst so workers can absorb scheduling jitter without overshooting
+        TokenBucket bucket = new TokenBucket(profile.rateAt(0),
+                Math.max(profile.getBaseRate(), profile.getPeakRate()) / 10);
+        AtomicLong sequence = new AtomicLong(0);
+        List<LoadSample> samples = new ArrayList<>();
+
+        log.info("Starting load run to queue {}: {} using {} threads", queueName, profile.describe(), finalThreadCount);
+
+        stopRequested = false;
+        long startNanos = System.nanoTime();
+        long startTime = System.currentTimeMillis();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(Math.max(1, profile.getDurationSeconds()));
+        ExecutorService executorService = startTimedWorkers(queueName, finalThreadCount,
+                run, sequence, bucket, deadline);
+
+        // Pace and sample from this thread until the run's duration has elapsed
+        final long tickNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        double expectedArrivals = 0;
+        long lastTick = startNanos;
+        long lastSampleSent = 0;
+        long lastSampleNanos = startNanos;
+        long nextSample = startNanos + TimeUnit.SECONDS.toNanos(1);
+        boolean finalSampleTaken = false;
+        try {
+            while (!executorService.awaitTermination(tickNanos, TimeUnit.NANOSECONDS)) {
+                if (stopRequested) {
+                    bucket.cancel();
+                }
+                long now = Math.min(System.nanoTime(), deadline);
+                double elapsedSeconds = (now - startNanos) / 1e9;
+                expectedArrivals += bucket.getRate() * (now - lastTick) / 1e9;
+                lastTick = now;
+                bucket.setRate(profile.rateAt(elapsedSeconds));
+
+                if ((now >= nextSample || now == deadline) && !finalSampleTaken && now > lastSampleNanos) {
+                    long sent = run.progress.getSent();
+                    long backlog = Math.max(0, Math.round(expectedArrivals) - sequence.get());
+                    double achievedRate = (sent - lastSampleSent) * 1e9 / (now - lastSampleNanos);
+                    LoadSample sample = new LoadSample((int) Math.round(elapsedSeconds), bucket.getRate(),
+                            achievedRate, sent, run.progress.getErrors(), backlog);
+                    samples.add(sample);
+                    lastSampleSent = sent;
+                    lastSampleNanos = now;
+                    nextSample += TimeUnit.SECONDS.toNanos(1);
+                    finalSampleTaken = now == deadline;
+                    if (sampleCallback != null) {
+                        sampleCallback.onSample(sample);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            throw e;
+        }
+
+        SendStats stats = run.toStats(System.currentTimeMillis() - startTime);
+        stats.setSamples(samples);
+        log.info("Completed load run: {}", stats.summary());
+        return stats;
+    }
+
+    /**
+     * Runs an open-ended soak: workers keep rendering and sending messages from a shared
+     * sequence until the duration elapses or {@link #stopTimedRun()} is called. Nothing is
+     * retained per message, so memory stays flat however long the run lasts; instead a
+     * {@link SoakSnapshot} is logged and passed to the callback every snapshot interval.
+     * @param durationSeconds Run length, or 0 to run until stopped
+     * @param rate Messages per second across all threads, or 0 to send as fast as possible
+     */
+    public SendStats runSoak(String queueName, String messageContent, long durationSeconds,
+                             int threadCount, int transactionBatchSize, double rate, int snapshotSeconds,
+                             SoakSnapshotCallback snapshotCallback) throws JMSException, InterruptedException {
+        if (!isConnected) {
+            throw new JMSException("Not connected to IBM MQ");
+        }
+
+        final int finalThreadCount = Math.max(1, threadCount);
+        // No per-message history: a soak would otherwise grow it without bound
+        SendRun run = new SendRun(messageContent, 0, Math.max(0, transactionBatchSize), 0, null);
+        TokenBucket bucket = rate > 0 ? new TokenBucket(rate, Math.max(1, rate / 10)) : null;
+        AtomicLong sequence = new AtomicLong(0);
+        long snapshotNanos = TimeUnit.SECONDS.toNanos(Math.max(1, snapshotSeconds));
+
+        log.info("Starting soak run to queue {} for {} using {} threads{}", queueName,
+                durationSeconds > 0 ? durationSeconds + "s" : "an unlimited time", finalThreadCount,
+                rate > 0 ? String.format(" at %.0f msg/s", rate) : "");
+
+        stopRequested = false;
+        long startNanos = System.nanoTime();
+        long startTime = System.currentTimeMillis();
+        long deadline = durationSeconds > 0
+                ? startNanos + TimeUnit.SECONDS.toNanos(durationSeconds)
+                : startNanos + Long.MAX_VALUE / 2;
+        ExecutorService executorService = startTimedWorkers(queueName, finalThreadCount,
+                run, sequence, bucket, deadline);
+
+        long lastSnapshotNanos = startNanos;
+        long lastSnapshotSent = 0;
+        try {
+            while (!executorService.awaitTermination(250, TimeUnit.MILLISECONDS)) {
+                if (stopRequested && bucket != null) {
+                    bucket.cancel();
+                }
+                long now = System.nanoTime();
+                if (now - lastSnapshotNanos >= snapshotNanos) {
+                    SoakSnapshot snapshot = takeSnapshot(run, startNanos, now, lastSnapshotNanos, lastSnapshotSent);
+                    lastSnapshotNanos = now;
+                    lastSnapshotSent = snapshot.getSent();
+                    log.info("Soak: {}", snapshot.summary());
+                    if (snapshotCallback != null) {
+                        snapshotCallback.onSnapshot(snapshot);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            throw e;
+        }
+
+        SoakSnapshot last = takeSnapshot(run, startNanos, System.nanoTime(), lastSnapshotNanos, lastSnapshotSent);
+        if (snapshotCallback != null) {
+            snapshotCallback.onSnapshot(last);
+        }
+        SendStats stats = run.toStats(System.currentTimeMillis() - startTime);
+        messageHistory.add(MqMessage.builder()
+                .messageId("SOAK-" + UUID.randomUUID().toString().substring(0, 8))
+                .content("[Soak] " + stats.summary())
+                .queue(queueName)
+                .timestamp(LocalDateTime.now())
+                .type(MqMessage.MessageType.SENT)
+                .build());
+        log.info("Completed soak run: {}", stats.summary());
+        return stats;
+    }
+
+    /**
+     * Runs every combination of the benchmark matrix in turn, each as an unpaced load of
+     * {@code durationSeconds} against the configured queue with a generated payload of the
+     * combination's size. Results are handed to the listener as each combination finishes;
+     * {@link #stopTimedRun()} ends the current combination and skips the rest.
+     */
+    public List<BenchmarkResult> runBenchmark(BenchmarkConfig config, BenchmarkListener listener)
+            throws JMSException, InterruptedException {
+        if (!isConnected) {
+            throw new JMSException("Not connected to IBM MQ");
+        }
+
+        List<BenchmarkResult> combinations = config.combinations();
+        List<BenchmarkResult> results = new ArrayList<>();
+        // Payloads are generated once per size and shared by every combination using it
+        Map<Integer, String> payloads = new HashMap<>();
+        log.info("Starting benchmark of {} combinations, {} s each, against queue {}",
+                combinations.size(), config.getDurationSeconds(), config.getQueue());
+
+        stopRequested = false;
+        for (int i = 0; i < combinations.size() && !stopRequested; i++) {
+            BenchmarkResult result = combinations.get(i);
+            if (listener != null) {
+                listener.onRunStarted(i + 1, combinations.size(), result);
+            }
+            String payload = payloads.computeIfAbsent(result.getMessageSize(), PayloadGenerator::xmlOfSize);
+            runBenchmarkCombination(config, result, payload);
+            results.add(result);
+            log.info("Benchmark {}: {} msg/s, put p99 {} ms", result.describe(),
+                    String.format("%.0f", result.getMessagesPerSecond()), String.format("%.2f", result.getPutP99Ms()));
+
+            if (config.isDrainBetweenRuns() && !stopRequested) {
+                DrainStats drained = drain(config.getQueue(), Math.max(1, result.getThreads()), 0, true,
+                        new SendProgress());
+                log.info("Drained {} messages after benchmark run", drained.getReceived());
+            }
+            if (listener != null) {
+                listener.onRunFinished(result);
+            }
+        }
+        log.info("Benchmark finished: {} of {} combinations run", results.size(), combinations.size());
+        return results;
+    }
+
+    private void runBenchmarkCombination(BenchmarkConfig config, BenchmarkResult result, String payload)
+            throws InterruptedException {
+        // No history: sampled entries of multi-megabyte payloads would only crowd out real ones
+        SendRun run = new SendRun(payload, 0, Math.max(0, result.getBatchSize()), 0, null);
+        run.deliveryMode = result.isPersistent() ? DeliveryMode.PERSISTENT : DeliveryMode.NON_PERSISTENT;
+        run.priority = result.getPriority();
+
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(Math.max(1, config.getDurationSeconds()));
+        ExecutorService executorService = startTimedWorkers(config.getQueue(), Math.max(1, result.getThreads()),
+                run, new AtomicLong(0), null, deadline);
+        try {
+            while (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
+                log.debug("Benchmark {}: {} sent", result.describe(), run.progress.getSent());
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            throw e;
+        }
+
+        SendStats stats = run.toStats(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        result.setSent(stats.getSent());
+        result.setErrors(stats.getErrors());
+        result.setElapsedMs(stats.getElapsedMs());
+        result.setAveragePutMs(stats.getAveragePutMs());
+        result.setPutP50Ms(stats.getPutP50Ms());
+        result.setPutP99Ms(stats.getPutP99Ms());
+        result.setPutP999Ms(stats.getPutP999Ms());
+        result.setMaxPutMs(stats.getMaxPutMs());
+        result.setAverageCommitMs(stats.getAverageCommitMs());
+    }
+
+    /**
+     * Asks a running timed load, soak run, benchmark or queue drain to finish: workers stop
+     * taking new messages, commit what they have and close their sessions.
+     */
+    public void stopTimedRun() {
+        stopRequested = true;
+    }
+
+    /**
+     * Starts the workers of a counted run; each pulls message numbers off a shared sequence
+     * until all {@code run.total} have been handed out.
+     */
+    private ExecutorService startCountedWorkers(String queueName, int threadCount, SendRun run) {
+        AtomicLong sequence = new AtomicLong(0);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
             executorService.submit(() -> {
-                Session threadSession = null;
-                MessageProducer producer = null;
-                try {
-                    // Synchronized session creation for thread safety
-                    synchronized (connection) {
-                        threadSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                try (SendWorker worker = new SendWorker(queueName, run)) {
+                    long messageNum;
+                    while ((messageNum = run.next(sequence)) <= run.total
+                            && !Thread.currentThread().isInterrupted()) {
+                        worker.send(messageNum);
                     }
-                    Queue queue = threadSession.createQueue(queueName);
-                    producer = threadSession.createProducer(queue);
-                    
-                    // Apply dynamic parameter substitution to the message content
-                    String processedContent = TemplateUtil.replacePlaceholders(messageContent);
-                    
-                    TextMessage message = threadSession.createTextMessage(processedContent);
-                    message.setIntProperty("messageNumber", messageNum);
-                    producer.send(message);
-                    
-                    int sent = sentCount.incrementAndGet();
-                    
-                    // Add to history (sample every HISTORY_SAMPLE_INTERVAL messages to avoid overwhelming the UI)
-                    if (messageNum % HISTORY_SAMPLE_INTERVAL == 0 || messageNum == finalMessageCount) {
-                        MqMessage mqMessage = MqMessage.builder()
-                                .messageId(message.getJMSMessageID())
-                                .content(String.format("[Batch %d/%d] %s", messageNum, finalMessageCount, 
-                                        processedContent.substring(0, Math.min(50, processedContent.length())) + "..."))
-                                .queue(queueName)
-                                .timestamp(LocalDateTime.now())
-                                .type(MqMessage.MessageType.SENT)
-                                .build();
-                        messageHistory.add(mqMessage);
+                    worker.finish();
+                } catch (JMSException e) {
+                    // The other workers keep draining the sequence; the shortfall shows up in the totals
+                    log.error("Send worker stopped: {}", e.getMessage());
+                    run.progress.addErrors(1);
+                }
+            });
+        }
+        executorService.shutdown();
+        return executorService;
+    }
+
+    /**
+     * Starts the workers of a timed run; each pulls message numbers off the shared sequence,
+     * paced by the bucket when there is one, until the deadline passes or a stop is requested.
+     */
+    private ExecutorService startTimedWorkers(String queueName, int threadCount,
+                                              SendRun run, AtomicLong sequence, TokenBucket bucket, long deadline) {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try (SendWorker worker = new SendWorker(queueName, run)) {
+                    while (!stopRequested && (bucket != null
+                            ? bucket.acquire(deadline)
+                            : System.nanoTime() - deadline < 0)) {
+                        worker.send(run.next(sequence));
                     }
-                    
-                    // Report progress
-                    if (progressCallback != null) {
-                        progressCallback.onProgress(sent, finalMessageCount);
+                    worker.finish();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (JMSException e) {
+                    log.error("Timed run worker stopped: {}", e.getMessage());
+                    run.progress.addErrors(1);
+                }
+            });
+        }
+        executorService.shutdown();
+        return executorService;
+    }
+
+    private SoakSnapshot takeSnapshot(SendRun run, long startNanos, long now, long lastSnapshotNanos, long lastSnapshotSent) {
+        long sent = run.progress.getSent();
+        Runtime runtime = Runtime.getRuntime();
+        List<ReconnectEvent> outages = run.outages();
+        return SoakSnapshot.builder()
+                .elapsedSeconds(TimeUnit.NANOSECONDS.toSeconds(now - startNanos))
+                .sent(sent)
+                .errors(run.progress.getErrors())
+                .intervalRate(now > lastSnapshotNanos ? (sent - lastSnapshotSent) * 1e9 / (now - lastSnapshotNanos) : 0)
+                .averageRate(now > startNanos ? sent * 1e9 / (now - startNanos) : 0)
+                .averagePutMs(run.putLatency.getAverageMillis())
+                .maxPutMs(run.putLatency.getMaxMillis())
+                .usedHeapMb((runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024))
+                .reconnects(outages.size())
+                .downtimeMs(outages.stream().mapToLong(ReconnectEvent::getDowntimeMs).sum())
+                .build();
+    }
+
+    /**
+     * Counters and settings shared by all workers of one send run.
+     */
+    private class SendRun {
+        private final CompiledTemplate template;
+        private final int total;
+        private final int batchSize;
+        private final int historyInterval;
+        private final SendProgress progress;
+        private final LatencyTracker putLatency = new LatencyTracker();
+        private final LatencyTracker commitLatency = new LatencyTracker();
+        // Set for request/reply runs only
+        private RequestReplyTracker requests;
+        private String replyQueueName;
+        // Producer settings; 0 / -1 keep the provider defaults
+        private int deliveryMode;
+        private int priority = -1;
+        // Set for async put runs only; the semaphore bounds sends still awaiting acknowledgment
+        private int asyncWindow;
+        private Semaphore inFlight;
+        private Recorder ackLatency;
+        // Message numbers whose put was not acknowledged when the connection dropped; sent again first
+        private final ConcurrentLinkedQueue<Long> resends = new ConcurrentLinkedQueue<>();
+        private final LongAdder resent = new LongAdder();
+        private final long startNanos = System.nanoTime();
+        // Contract XSD in force when the run started, and the messages it rejected
+        private final Schema contract = contractSchema;
+        private final LongAdder invalid = new LongAdder();
+        private final AtomicBoolean invalidLogged = new AtomicBoolean();
+        // Sequences, thread numbers and run id for the run placeholders
+        private final TemplateRun templateRun = TemplateRun.start();
+
+        /**
+         * @param total Message count for counted runs, 0 for timed runs
+         * @param historyInterval Record every Nth message in the history, 0 for none
+         */
+        SendRun(String messageContent, int total, int batchSize, int historyInterval, SendProgress progress) {
+            // Parsed once for the whole run; workers only render
+            this.template = TemplateUtil.compile(messageContent);
+            this.total = total;
+            this.batchSize = batchSize;
+            this.historyInterval = historyInterval;
+            this.progress = progress != null ? progress : new SendProgress();
+            this.progress.start(total);
+        }
+
+        void enableAsync(int window) {
+            this.asyncWindow = window;
+            this.inFlight = new Semaphore(window);
+            this.ackLatency = new Recorder(MAX_ACK_MICROS, 3);
+        }
+
+        /**
+         * The next message number to send: one handed back after a connection drop, else a fresh one.
+         */
+        long next(AtomicLong sequence) {
+            Long again = resends.poll();
+            return again != null ? again : sequence.incrementAndGet();
+        }
+
+        void requeue(long messageNum) {
+            resends.add(messageNum);
+            resent.increment();
+        }
+
+        /**
+         * Counts a message that failed contract validation as an error; only the first one is logged.
+         */
+        void rejected(long messageNum, String error) {
+            invalid.increment();
+            progress.addErrors(1);
+            if (invalidLogged.compareAndSet(false, true)) {
+                log.warn("Message {} does not match the contract schema, not sent: {}", messageNum, error);
+            }
+        }
+
+        /**
+         * Outages that began while this run was going.
+         */
+        List<ReconnectEvent> outages() {
+            return reconnectEvents.stream()
+                    .filter(event -> event.getLostAtNanos() - startNanos >= 0)
+                    .collect(Collectors.toList());
+        }
+
+        SendStats toStats(long elapsedMs) {
+            Histogram putHistogram = putLatency.getIntervalHistogram();
+            List<ReconnectEvent> outages = outages();
+            SendStats stats = SendStats.builder()
+                    .sent(progress.getSent())
+                    // Numbers still waiting to be re-sent were never delivered
+                    .errors(progress.getErrors() + resends.size())
+                    .elapsedMs(elapsedMs)
+                    .averagePutMs(putLatency.getAverageMillis())
+                    .putP50Ms(putHistogram.getValueAtPercentile(50) / 1000.0)
+                    .putP99Ms(putHistogram.getValueAtPercentile(99) / 1000.0)
+                    .putP999Ms(putHistogram.getValueAtPercentile(99.9) / 1000.0)
+                    .maxPutMs(putLatency.getMaxMillis())
+                    .commits(commitLatency.getCount())
+                    .averageCommitMs(commitLatency.getAverageMillis())
+                    .maxCommitMs(commitLatency.getMaxMillis())
+                    .asyncWindow(asyncWindow)
+                    .reconnects(outages.size())
+                    .downtimeMs(outages.stream().mapToLong(ReconnectEvent::getDowntimeMs).sum())
+                    .maxDowntimeMs(outages.stream().mapToLong(ReconnectEvent::getDowntimeMs).max().orElse(0))
+                    .resent(resent.sum())
+                    .invalid(invalid.sum())
+                    .runId(templateRun.getId())
+                    .build();
+            if (ackLatency != null) {
+                Histogram histogram = ackLatency.getIntervalHistogram();
+                stats.setAckP50Ms(histogram.getValueAtPercentile(50) / 1000.0);
+                stats.setAckP99Ms(histogram.getValueAtPercentile(99) / 1000.0);
+                stats.setAckP999Ms(histogram.getValueAtPercentile(99.9) / 1000.0);
+                stats.setAckMaxMs(histogram.getMaxValue() / 1000.0);
+            }
+            return stats;
+        }
+    }
+
+    /**
+     * One send thread's session and producer. With a batch size above zero the session is
+     * transacted and committed every batchSize messages; messages only count as sent once
+     * their batch is committed, and a failed commit rolls back and counts the batch as errors.
+     * In async mode a message counts as sent when its completion callback arrives, and closing
+     * the session waits for any callbacks still outstanding.
+     * If the connection drops, the worker hands back every message number not yet acknowledged
+     * (the failed put and any uncommitted batch), waits for the reconnect and reopens its session.
+     */
+    private class SendWorker implements AutoCloseable {
+        private final String queueName;
+        private final SendRun run;
+        private final boolean transacted;
+        private Session threadSession;
+        private MessageProducer producer;
+        private Queue replyTo;
+        // Connection generation the session was opened on
+        private long generation;
+        private int uncommitted;
+        private final long[] uncommittedNumbers;
+
+        SendWorker(String queueName, SendRun run) throws JMSException {
+            this.queueName = queueName;
+            this.run = run;
+            this.transacted = run.batchSize > 0;
+            this.uncommittedNumbers = new long[run.batchSize];
+            open();
+        }
+
+        private void open() throws JMSException {
+            Connection current;
+            synchronized (connectionLock) {
+                if (!isConnected) {
+                    throw new JMSException("Not connected to IBM MQ");
+                }
+                current = connection;
+                generation = connectionGeneration;
+            }
+            // Connection is shared; session creation is serialized as before, but now happens once per worker
+            synchronized (current) {
+                threadSession = transacted
+                        ? current.createSession(true, Session.SESSION_TRANSACTED)
+                        : current.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            }
+            try {
+                Queue queue = threadSession.createQueue(queueName);
+                if (run.asyncWindow > 0 && queue instanceof MQDestination) {
+                    // Lets the client put without waiting for the queue manager's response
+                    ((MQDestination) queue).setPutAsyncAllowed(WMQConstants.WMQ_PUT_ASYNC_ALLOWED_ENABLED);
+                }
+                producer = threadSession.createProducer(queue);
+                if (run.deliveryMode != 0) {
+                    producer.setDeliveryMode(run.deliveryMode);
+                }
+                if (run.priority >= 0) {
+                    producer.setPriority(run.priority);
+                }
+                replyTo = run.requests != null ? threadSession.createQueue(run.replyQueueName) : null;
+            } catch (JMSException e) {
+                threadSession.close();
+                threadSession = null;
+                throw e;
+            }
+        }
+
+        /**
+         * @throws JMSException only when the connection dropped and was not re-established
+         */
+        void send(long messageNum) throws JMSException {
+            try {
+                // Apply dynamic parameter substitution to the message content
+                String processedContent = run.template.render(run.templateRun, messageNum);
+                if (run.contract != null) {
+                    String error = XmlUtil.getSchemaError(processedContent, run.contract);
+                    if (error != null) {
+                        run.rejected(messageNum, error);
+                        return;
                     }
-                    
+                }
+
+                TextMessage message = threadSession.createTextMessage(processedContent);
+                setMessageNumber(message, messageNum);
+                String correlationId = null;
+                if (run.requests != null) {
+                    correlationId = run.requests.correlationId(messageNum);
+                    message.setJMSReplyTo(replyTo);
+                    message.setJMSCorrelationID(correlationId);
+                    run.requests.register(correlationId);
+                }
+                if (run.asyncWindow > 0) {
+                    sendAsync(message, messageNum, processedContent);
+                    return;
+                }
+                long putStart = System.nanoTime();
+                try {
+                    producer.send(message);
                 } catch (JMSException e) {
+                    if (correlationId != null) {
+                        run.requests.failed(correlationId);
+                    }
+                    throw e;
+                }
+                run.putLatency.record(System.nanoTime() - putStart);
+                if (correlationId != null) {
+                    run.requests.sent(correlationId, message.getJMSMessageID());
+                }
+
+                recordHistory(messageNum, message.getJMSMessageID(), processedContent);
+
+                if (!transacted) {
+                    run.progress.addSent(1);
+                    return;
+                }
+                uncommittedNumbers[uncommitted++] = messageNum;
+            } catch (JMSException e) {
+                if (!recover(e, messageNum)) {
                     log.error("Failed to send message {}: {}", messageNum, e.getMessage());
-                    errorCount.incrementAndGet();
-                } finally {
-                    // Clean up resources
-                    try {
-                        if (producer != null) producer.close();
-                    } catch (JMSException e) {
-                        log.warn("Error closing producer: {}", e.getMessage());
+                    run.progress.addErrors(1);
+                }
+                return;
+            }
+            if (uncommitted >= run.batchSize) {
+                commit();
+            }
+        }
+
+        /**
+         * If the failure means the connection is gone: reports it, hands the failed message and
+         * the uncommitted batch back to the run, waits for the reconnect and reopens the session.
+         * A put that failed this way may still have reached the queue, so resending is at-least-once.
+         * @param failedNum Message number whose put failed, or 0 for a failed commit
+         * @return false if the failure is an ordinary error the caller should count
+         */
+        private boolean recover(JMSException e, long failedNum) throws JMSException {
+            if (!provider.isConnectionFailure(e)) {
+                return false;
+            }
+            connectionLost(generation, e);
+            for (int i = 0; i < uncommitted; i++) {
+                run.requeue(uncommittedNumbers[i]);
+            }
+            uncommitted = 0;
+            if (failedNum > 0) {
+                run.requeue(failedNum);
+            }
+            closeSession();
+            while (true) {
+                awaitReconnect(run.total == 0);
+                try {
+                    open();
+                    break;
+                } catch (JMSException openError) {
+                    // The new connection failed as well; report it and wait for the next one
+                    if (!provider.isConnectionFailure(openError)) {
+                        throw openError;
                     }
-                    try {
-                        if (threadSession != null) threadSession.close();
-                    } catch (JMSException e) {
-                        log.warn("Error closing session: {}", e.getMessage());
+                    connectionLost(generation, openError);
+                }
+            }
+            log.info("Send worker resumed on the new connection");
+            return true;
+        }
+
+        /**
+         * Hands the message to the producer without waiting for the put to complete. Blocks
+         * first while the run's in-flight window is full, so a slow queue manager throttles
+         * the workers instead of letting unacknowledged messages pile up.
+         */
+        private void sendAsync(TextMessage message, long messageNum, String processedContent) throws JMSException {
+            try {
+                run.inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JMSException("Interrupted waiting for an async send slot");
+            }
+            long putStart = System.nanoTime();
+            try {
+                producer.send(message, new CompletionListener() {
+                    @Override
+                    public void onCompletion(Message completed) {
+                        run.ackLatency.recordValue(Math.min(MAX_ACK_MICROS,
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - putStart)));
+                        run.progress.addSent(1);
+                        run.inFlight.release();
+                        try {
+                            recordHistory(messageNum, completed.getJMSMessageID(), processedContent);
+                        } catch (JMSException e) {
+                            log.debug("No message ID for history entry: {}", e.getMessage());
+                        }
+                    }
+
+                    @Override
+                    public void onException(Message failed, Exception exception) {
+                        if (exception instanceof JMSException && provider.isConnectionFailure((JMSException) exception)) {
+                            // The worker's next put fails the same way and waits for the reconnect
+                            run.requeue(messageNum);
+                        } else {
+                            log.error("Async send of message {} failed: {}", messageNum, exception.getMessage());
+                            run.progress.addErrors(1);
+                        }
+                        run.inFlight.release();
                     }
-                    latch.countDown();
+                });
+            } catch (JMSException | RuntimeException e) {
+                run.inFlight.release();
+                throw e;
+            }
+            run.putLatency.record(System.nanoTime() - putStart);
+        }
+
+        /**
+         * Adds every Nth message to the history to avoid overwhelming the UI.
+         */
+        private void recordHistory(long messageNum, String messageId, String processedContent) {
+            if (run.historyInterval > 0 && (messageNum % run.historyInterval == 0 || messageNum == run.total)) {
+                String label = run.total > 0
+                        ? String.format("[Batch %d/%d]", messageNum, run.total)
+                        : String.format("[Load %d]", messageNum);
+                MqMessage mqMessage = MqMessage.builder()
+                        .messageId(messageId)
+                        .content(label + " " + processedContent.substring(0, Math.min(50, processedContent.length())) + "...")
+                        .queue(queueName)
+                        .timestamp(LocalDateTime.now())
+                        .type(MqMessage.MessageType.SENT)
+                        .build();
+                messageHistory.add(mqMessage);
+            }
+        }
+
+        /**
+         * Commits whatever is left of the last batch, then sends any message numbers still
+         * waiting to be re-sent after a connection drop.
+         */
+        void finish() throws JMSException {
+            Long again;
+            do {
+                if (transacted && uncommitted > 0) {
+                    commit();
                 }
-            });
+                while ((again = run.resends.poll()) != null) {
+                    send(again);
+                }
+            } while (uncommitted > 0 || !run.resends.isEmpty());
         }
-        
-        // Wait for all messages to be sent - calculate timeout based on message count
-        latch.await();
-        executorService.shutdown();
-        
-        // Timeout: 1 minute base + 2 seconds per 1000 messages
-        long timeoutSeconds = 60 + (finalMessageCount / 1000) * 2;
-        boolean terminated = executorService.awaitTermination(timeoutSeconds, TimeUnit.SECONDS);
-        
-        if (!terminated) {
-            log.warn("Executor service did not terminate within {} seconds", timeoutSeconds);
-            executorService.shutdownNow();
+
+        private void commit() throws JMSException {
+            int batch = uncommitted;
+            try {
+                long commitStart = System.nanoTime();
+                threadSession.commit();
+                run.commitLatency.record(System.nanoTime() - commitStart);
+                uncommitted = 0;
+                run.progress.addSent(batch);
+            } catch (JMSException e) {
+                if (recover(e, 0)) {
+                    return;
+                }
+                uncommitted = 0;
+                log.error("Failed to commit batch of {} messages: {}", batch, e.getMessage());
+                run.progress.addErrors(batch);
+                try {
+                    threadSession.rollback();
+                } catch (JMSException rollbackError) {
+                    log.warn("Error rolling back: {}", rollbackError.getMessage());
+                }
+            }
         }
-        
-        log.info("Completed sending messages. Success: {}, Errors: {}", 
-                 sentCount.get(), errorCount.get());
-        
-        if (errorCount.get() > 0) {
-            throw new JMSException(String.format("Failed to send %d messages out of %d", 
-                                                 errorCount.get(), finalMessageCount));
+
+        @Override
+        public void close() {
+            // Anything still uncommitted here is rolled back by the session close
+            run.progress.addErrors(uncommitted);
+            uncommitted = 0;
+            closeSession();
         }
+
+        private void closeSession() {
+            if (threadSession == null) {
+                return;
+            }
+            try {
+                producer.close();
+            } catch (JMSException e) {
+                log.warn("Error closing producer: {}", e.getMessage());
+            }
+            try {
+                threadSession.close();
+            } catch (JMSException e) {
+                log.warn("Error closing session: {}", e.getMessage());
+            }
+            threadSession = null;
+        }
+    }
+
+    /**
+     * Callback for the once-a-second samples of a timed load run
+     */
+    @FunctionalInterface
+    public interface LoadSampleCallback {
+        void onSample(LoadSample sample);
+    }
+
+    /**
+     * Progress of a benchmark, called from the benchmark thread
+     */
+    public interface BenchmarkListener {
+        void onRunStarted(int index, int total, BenchmarkResult pending);
+
+        void onRunFinished(BenchmarkResult result);
+    }
+
+    /**
+     * Connection state changes, called from the reconnect thread
+     */
+    public interface ConnectionListener {
+        void onConnectionLost(String cause);
+
+        void onReconnected(ReconnectEvent event);
+
+        void onReconnectFailed(String reason);
     }
 
     /**
-     * Callback interface for progress updates
+     * Callback for the periodic snapshots of a soak run
      */
     @FunctionalInterface
-    public interface ProgressCallback {
-        void onProgress(int sent, int total);
+    public interface SoakSnapshotCallback {
+        void onSnapshot(SoakSnapshot snapshot);
     }
 
     public List<MqMessage> receiveMessages(String queueName, int maxMessages) throws JMSException {
@@ -225,7 +1286,8 @@ public class MqService {
         
         try {
             for (int i = 0; i < maxMessages; i++) {
-                Message message = consumer.receive(mqConfig.getReceiveTimeout());
+                // Only the first get waits; once something has arrived the rest are taken without waiting
+                Message message = i == 0 ? consumer.receive(mqConfig.getReceiveTimeout()) : consumer.receiveNoWait();
                 if (message == null) {
                     break;
                 }
@@ -252,6 +1314,176 @@ public class MqService {
         return messages;
     }
 
+    /**
+     * Empties a queue with {@code sessionCount} transacted sessions consuming in parallel.
+     * Each session waits for its first message and then takes messages with
+     * {@code receiveNoWait}, committing every {@value #DRAIN_COMMIT_INTERVAL}; it finishes once a
+     * full receive timeout passes with nothing left. Received messages stream into the bounded
+     * history unless {@code countOnly} is set, in which case payloads are never read.
+     *
+     * @param maxMessages upper limit on messages taken, or 0 to drain until the queue is empty
+     * @param progress    counts received messages; its total is {@code maxMessages}
+     */
+    public DrainStats drainQueue(String queueName, int sessionCount, long maxMessages, boolean countOnly,
+                                 SendProgress progress) throws JMSException {
+        if (!isConnected) {
+            throw new JMSException("Not connected to IBM MQ");
+        }
+
+        stopRequested = false;
+        return drain(queueName, sessionCount, maxMessages, countOnly, progress);
+    }
+
+    /**
+     * Body of {@link #drainQueue}; leaves the stop flag alone so a benchmark can drain between runs.
+     */
+    private DrainStats drain(String queueName, int sessionCount, long maxMessages, boolean countOnly,
+                             SendProgress progress) {
+        progress.start(maxMessages);
+        LongAdder characters = new LongAdder();
+        // Claims against the limit; a claim is handed back when the get comes up empty
+        AtomicLong remaining = new AtomicLong(maxMessages > 0 ? maxMessages : Long.MAX_VALUE);
+        long startNanos = System.nanoTime();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            executorService.submit(() -> drainWorker(queueName, countOnly, remaining, characters, progress));
+        }
+        executorService.shutdown();
+        try {
+            while (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.info("Draining {}: {} messages so far", queueName, progress.getSent());
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        DrainStats stats = DrainStats.builder()
+                .queue(queueName)
+                .received(progress.getSent())
+                .characters(characters.sum())
+                .errors(progress.getErrors())
+                .elapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                .sessions(sessionCount)
+                .countOnly(countOnly)
+                .build();
+        log.info("Drain finished: {}", stats.summary());
+        return stats;
+    }
+
+    /**
+     * The connection as of now; a reconnect or disconnect may replace it at any time, so it is
+     * read under the lock and callers lock their local copy to create sessions.
+     */
+    private Connection currentConnection() throws JMSException {
+        synchronized (connectionLock) {
+            if (!isConnected || connection == null) {
+                throw new JMSException("Not connected to IBM MQ");
+            }
+            return connection;
+        }
+    }
+
+    /**
+     * Sets the messageNumber property as an int, as consumers have always read it, and only as a
+     * long for numbers past Integer.MAX_VALUE; JMS will not read a long property with getIntProperty.
+     */
+    static void setMessageNumber(Message message, long messageNum) throws JMSException {
+        if (messageNum <= Integer.MAX_VALUE) {
+            message.setIntProperty("messageNumber", (int) messageNum);
+        } else {
+            message.setLongProperty("messageNumber", messageNum);
+        }
+    }
+
+    private void drainWorker(String queueName, boolean countOnly, AtomicLong remaining,
+                             LongAdder characters, SendProgress progress) {
+        Session drainSession;
+        try {
+            Connection current = currentConnection();
+            synchronized (current) {
+                drainSession = current.createSession(true, Session.SESSION_TRANSACTED);
+            }
+        } catch (JMSException e) {
+            log.error("Drain worker failed to open session: {}", e.getMessage());
+            progress.addErrors(1);
+            return;
+        }
+        try (MessageConsumer drainConsumer = drainSession.createConsumer(drainSession.createQueue(queueName))) {
+            boolean waiting = true;
+            long uncommitted = 0;
+            while (!stopRequested && !Thread.currentThread().isInterrupted()) {
+                if (remaining.getAndDecrement() <= 0) {
+                    break;
+                }
+                Message message = waiting
+                        ? drainConsumer.receive(mqConfig.getReceiveTimeout())
+                        : drainConsumer.receiveNoWait();
+                if (message == null) {
+                    remaining.incrementAndGet();
+                    if (waiting) {
+                        break;
+                    }
+                    // Commit before the blocking get so nothing sits uncommitted while we wait
+                    if (uncommitted > 0) {
+                        drainSession.commit();
+                        progress.addSent(uncommitted);
+                        uncommitted = 0;
+                    }
+                    waiting = true;
+                    continue;
+                }
+                waiting = false;
+                if (!countOnly && message instanceof TextMessage) {
+                    String text = ((TextMessage) message).getText();
+                    characters.add(text != null ? text.length() : 0);
+                    messageHistory.add(MqMessage.builder()
+                            .messageId(message.getJMSMessageID())
+                            .content(text)
+                            .queue(queueName)
+                            .timestamp(LocalDateTime.now())
+                            .type(MqMessage.MessageType.RECEIVED)
+                            .build());
+                }
+                if (++uncommitted >= DRAIN_COMMIT_INTERVAL) {
+                    drainSession.commit();
+                    progress.addSent(uncommitted);
+                    uncommitted = 0;
+                }
+            }
+            if (uncommitted > 0) {
+                drainSession.commit();
+                progress.addSent(uncommitted);
+            }
+        } catch (JMSException e) {
+            // Uncommitted messages roll back onto the queue, so they are not counted
+            log.error("Drain worker failed: {}", e.getMessage());
+            progress.addErrors(1);
+            try {
+                drainSession.rollback();
+            } catch (JMSException rollbackError) {
+                log.warn("Error rolling back drain session: {}", rollbackError.getMessage());
+            }
+        } finally {
+            try {
+                drainSession.close();
+            } catch (JMSException e) {
+                log.warn("Error closing drain session: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens a non-destructive, paged view of a queue on its own session.
+     * The caller owns the pager and must close it.
+     *
+     * @param selector JMS message selector, or blank for every message
+     */
+    public QueueBrowsePager browseQueue(String queueName, String selector) throws JMSException {
+        return new QueueBrowsePager(currentConnection(), queueName, selector);
+    }
+
     public void startListening(String queueName, MessageListener listener) throws JMSException {
         if (!isConnected) {
             throw new JMSException("Not connected to IBM MQ");
@@ -262,10 +1494,14 @@ public class MqService {
         Queue queue = session.createQueue(queueName);
         consumer = session.createConsumer(queue);
         consumer.setMessageListener(listener);
+        listeningQueue = queueName;
+        listeningListener = listener;
         log.info("Started listening on queue: {}", queueName);
     }
 
     public void stopListening() throws JMSException {
+        listeningQueue = null;
+        listeningListener = null;
         if (consumer != null) {
             consumer.close();
             consumer = null;
@@ -273,8 +1509,46 @@ public class MqService {
         }
     }
 
+    /**
+     * Starts answering requests on {@code config.getRequestQueue()}, replacing any running responder.
+     */
+    public synchronized void startResponder(ResponderConfig config) throws JMSException {
+        Connection current = currentConnection();
+        stopResponder();
+        Responder newResponder = new Responder(current, config);
+        newResponder.start();
+        responder = newResponder;
+        responderConfig = config;
+    }
+
+    public synchronized void stopResponder() {
+        responderConfig = null;
+        closeResponder();
+    }
+
+    /**
+     * Stops the responder but keeps its configuration, so a reconnect can start it again.
+     */
+    private synchronized void closeResponder() {
+        if (responder != null) {
+            responder.stop();
+            responder = null;
+        }
+    }
+
+    public synchronized boolean isResponderRunning() {
+        return responder != null;
+    }
+
+    /**
+     * Totals of the running responder, or null if none is running.
+     */
+    public synchronized ResponderStats getResponderStats() {
+        return responder != null ? responder.getStats() : null;
+    }
+
     public List<MqMessage> getMessageHistory() {
-        return new ArrayList<>(messageHistory);
+        return messageHistory.snapshot();
     }
 
     public void clearHistory() {
@@ -293,6 +1567,16 @@ public class MqService {
         return mqConfig.getQueue().getOut();
     }
 
+    private void closeQuietly(Connection toClose) {
+        if (toClose != null) {
+            try {
+                toClose.close();
+            } catch (JMSException e) {
+                log.warn("Error closing connection: {}", e.getMessage());
+            }
+        }
+    }
+
     private void cleanup() {
         try {
             if (consumer != null) {
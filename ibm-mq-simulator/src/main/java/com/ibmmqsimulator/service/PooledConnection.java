@@ -0,0 +1,129 @@
+package com.ibmmqsimulator.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One connection profile's connection with a bounded pool of sessions on it. Sessions are
+ * single-threaded, so a caller borrows one for as long as it uses it and hands it back;
+ * sessions are created on first demand up to the pool size, after which callers wait.
+ */
+@Slf4j
+public class PooledConnection implements AutoCloseable {
+
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+
+    private final String name;
+    private final String description;
+    private final int size;
+    private final Connection connection;
+    private final Semaphore available;
+    private final ConcurrentLinkedQueue<Session> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    PooledConnection(String name, JmsProvider provider, int size) throws JMSException {
+        this.name = name;
+        this.description = provider.describe();
+        this.size = Math.max(1, size);
+        this.available = new Semaphore(this.size);
+        this.connection = provider.connect();
+        try {
+            connection.start();
+        } catch (JMSException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Takes an idle session, or opens a new one while the pool is below its size.
+     * @throws JMSException if none is free within 30 seconds, or the pool is closed
+     */
+    public Session borrow() throws JMSException {
+        try {
+            if (!available.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new JMSException("No free session on " + name + " after " + BORROW_TIMEOUT_SECONDS + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted waiting for a session on " + name);
+        }
+        if (closed) {
+            available.release();
+            throw new JMSException("Profile " + name + " is disconnected");
+        }
+        Session session = idle.poll();
+        if (session != null) {
+            return session;
+        }
+        try {
+            synchronized (connection) {
+                return connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            }
+        } catch (JMSException e) {
+            available.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a healthy session to the pool.
+     */
+    public void release(Session session) {
+        if (closed) {
+            closeQuietly(session);
+        } else {
+            idle.add(session);
+        }
+        available.release();
+    }
+
+    /**
+     * Closes a session that failed instead of pooling it; the next borrow opens a fresh one.
+     */
+    public void discard(Session session) {
+        closeQuietly(session);
+        available.release();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Session session;
+        while ((session = idle.poll()) != null) {
+            closeQuietly(session);
+        }
+        try {
+            // Also closes any session still borrowed
+            connection.close();
+        } catch (JMSException e) {
+            log.warn("Error closing connection of profile {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void closeQuietly(Session session) {
+        try {
+            session.close();
+        } catch (JMSException e) {
+            log.warn("Error closing session of profile {}: {}", name, e.getMessage());
+        }
+    }
+}
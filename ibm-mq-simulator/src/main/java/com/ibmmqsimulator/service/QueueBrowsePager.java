@@ -0,0 +1,140 @@
+package com.ibmmqsimulator.service;
+
+import com.ibmmqsimulator.model.BrowsedMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.jms.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Pages through a queue with a {@link QueueBrowser} on its own session. Messages are
+ * only pulled from the browser's enumeration when the next page is asked for, so a
+ * deep queue is never consumed nor read into memory in one go.
+ * <p>
+ * Like the session it wraps, a pager must be used from one thread at a time.
+ */
+@Slf4j
+public class QueueBrowsePager implements AutoCloseable {
+
+    // Bodies longer than this are cut off so a page of large messages stays small
+    public static final int MAX_CONTENT_CHARS = 16 * 1024;
+
+    private final String queueName;
+    private final String selector;
+    private final Session browseSession;
+    private final QueueBrowser browser;
+    private final Enumeration<?> messages;
+    private long position;
+    private boolean closed;
+
+    QueueBrowsePager(Connection connection, String queueName, String selector) throws JMSException {
+        this.queueName = queueName;
+        this.selector = selector == null || selector.isBlank() ? null : selector.trim();
+        synchronized (connection) {
+            browseSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+        try {
+            browser = browseSession.createBrowser(browseSession.createQueue(queueName), this.selector);
+            messages = browser.getEnumeration();
+        } catch (JMSException e) {
+            browseSession.close();
+            throw e;
+        }
+        log.info("Browsing queue {}{}", queueName, this.selector != null ? " where " + this.selector : "");
+    }
+
+    /**
+     * Reads up to {@code pageSize} further messages; returns fewer, possibly none, at the end of the queue.
+     */
+    public synchronized List<BrowsedMessage> nextPage(int pageSize) throws JMSException {
+        List<BrowsedMessage> page = new ArrayList<>(pageSize);
+        while (!closed && page.size() < pageSize && messages.hasMoreElements()) {
+            Object next = messages.nextElement();
+            if (next instanceof Message) {
+                page.add(toBrowsedMessage((Message) next, ++position));
+            }
+        }
+        return page;
+    }
+
+    public synchronized boolean hasMore() {
+        return !closed && messages.hasMoreElements();
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public String getSelector() {
+        return selector;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            browser.close();
+        } catch (JMSException e) {
+            log.warn("Error closing queue browser: {}", e.getMessage());
+        }
+        try {
+            browseSession.close();
+        } catch (JMSException e) {
+            log.warn("Error closing browse session: {}", e.getMessage());
+        }
+    }
+
+    private static BrowsedMessage toBrowsedMessage(Message message, long position) throws JMSException {
+        String content;
+        long size;
+        String bodyType;
+        boolean truncated;
+        if (message instanceof TextMessage) {
+            String text = ((TextMessage) message).getText();
+            bodyType = "Text";
+            content = text != null ? text : "";
+            size = content.length();
+            truncated = size > MAX_CONTENT_CHARS;
+            if (truncated) {
+                content = content.substring(0, MAX_CONTENT_CHARS);
+            }
+        } else if (message instanceof BytesMessage) {
+            BytesMessage bytesMessage = (BytesMessage) message;
+            bodyType = "Bytes";
+            size = bytesMessage.getBodyLength();
+            byte[] buffer = new byte[(int) Math.min(size, MAX_CONTENT_CHARS)];
+            int read = bytesMessage.readBytes(buffer);
+            content = read > 0 ? new String(buffer, 0, read, StandardCharsets.UTF_8) : "";
+            truncated = size > buffer.length;
+        } else {
+            bodyType = message.getClass().getSimpleName();
+            content = "";
+            size = 0;
+            truncated = false;
+        }
+        return BrowsedMessage.builder()
+                .position(position)
+                .messageId(message.getJMSMessageID())
+                .correlationId(message.getJMSCorrelationID())
+                .putTime(message.getJMSTimestamp() > 0
+                        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(message.getJMSTimestamp()), ZoneId.systemDefault())
+                        : null)
+                .bodyType(bodyType)
+                .priority(message.getJMSPriority())
+                .persistent(message.getJMSDeliveryMode() == DeliveryMode.PERSISTENT)
+                .redelivered(message.getJMSRedelivered())
+                .size(size)
+                .content(content)
+                .truncated(truncated)
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com.ibmmqsimulator.service;
+
+import com.ibmmqsimulator.model.RoundTripStats;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Matches replies to outstanding requests for a request/reply run and records the
+ * round-trip time of each into an HDR histogram.
+ * <p>
+ * Requests are registered under the correlation ID they are sent with and, once the put
+ * returns, also under their message ID, so both responder conventions (echo the
+ * correlation ID, or copy the request's message ID into the correlation ID) are matched.
+ * Requests still outstanding after the timeout are dropped by {@link #expire()}.
+ */
+@Slf4j
+class RequestReplyTracker implements MessageListener {
+
+    // Highest trackable round trip; longer ones are clamped
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final class Pending {
+        private final String correlationKey;
+        private final long sentNanos;
+        private volatile String messageKey;
+
+        private Pending(String correlationKey, long sentNanos) {
+            this.correlationKey = correlationKey;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    // A request is settled (replied, timed out or failed) by whoever removes its correlation key entry
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder outstanding = new LongAdder();
+    private final LongAdder replies = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    private final long timeoutNanos;
+    private final long runId = ThreadLocalRandom.current().nextLong();
+    private final long runStart = System.nanoTime();
+
+    RequestReplyTracker(long timeoutMs) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    /**
+     * Correlation ID for the given request: 24 bytes written as an "ID:" hex string, so
+     * IBM MQ carries it as a binary correlId and returns it unchanged.
+     */
+    String correlationId(long messageNum) {
+        return String.format("ID:%016x%016x%016x", runId, runStart, messageNum);
+    }
+
+    /**
+     * Call just before the request is put.
+     */
+    void register(String correlationId) {
+        String correlationKey = key(correlationId);
+        outstanding.increment();
+        pending.put(correlationKey, new Pending(correlationKey, System.nanoTime()));
+    }
+
+    /**
+     * Call once the put has returned and the provider has assigned the message ID.
+     */
+    void sent(String correlationId, String messageId) {
+        Pending request = pending.get(key(correlationId));
+        if (request == null || messageId == null) {
+            return;
+        }
+        request.messageKey = key(messageId);
+        pending.put(request.messageKey, request);
+        if (!pending.containsKey(request.correlationKey)) {
+            // Settled while we were adding the second key
+            pending.remove(request.messageKey, request);
+        }
+    }
+
+    /**
+     * Call if the put failed; the request will never be answered.
+     */
+    void failed(String correlationId) {
+        if (pending.remove(key(correlationId)) != null) {
+            outstanding.decrement();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        long now = System.nanoTime();
+        try {
+            String correlationId = message.getJMSCorrelationID();
+            String replyKey = correlationId != null ? key(correlationId) : null;
+            Pending request = replyKey != null ? pending.remove(replyKey) : null;
+            if (request == null || !settle(request, replyKey.equals(request.correlationKey))) {
+                unmatched.increment();
+                return;
+            }
+            replies.increment();
+            recorder.recordValue(Math.min(MAX_TRACKABLE_MICROS,
+                    TimeUnit.NANOSECONDS.toMicros(now - request.sentNanos)));
+        } catch (JMSException e) {
+            log.warn("Failed to read reply correlation ID: {}", e.getMessage());
+            unmatched.increment();
+        }
+    }
+
+    /**
+     * Drops requests that have waited longer than the timeout.
+     */
+    void expire() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            Pending request = entry.getValue();
+            if (entry.getKey().equals(request.correlationKey) && now - request.sentNanos > timeoutNanos
+                    && settle(request, false)) {
+                timeouts.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes whatever is left of the request's two map entries.
+     * @param correlationKeyRemoved true if the caller already removed the correlation key entry itself
+     * @return true if this call settled the request, false if someone else already had
+     */
+    private boolean settle(Pending request, boolean correlationKeyRemoved) {
+        boolean owner = correlationKeyRemoved || pending.remove(request.correlationKey, request);
+        String messageKey = request.messageKey;
+        if (messageKey != null) {
+            pending.remove(messageKey, request);
+        }
+        if (owner) {
+            outstanding.decrement();
+        }
+        return owner;
+    }
+
+    long getOutstanding() {
+        return outstanding.sum();
+    }
+
+    long getReplies() {
+        return replies.sum();
+    }
+
+    RoundTripStats toStats(long requests, long errors, long elapsedMs) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return RoundTripStats.builder()
+                .requests(requests)
+                .replies(replies.sum())
+                .timeouts(timeouts.sum())
+                .unmatched(unmatched.sum())
+                .errors(errors)
+                .elapsedMs(elapsedMs)
+                .meanMs(histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0)
+                .p50Ms(histogram.getValueAtPercentile(50) / 1000.0)
+                .p90Ms(histogram.getValueAtPercentile(90) / 1000.0)
+                .p99Ms(histogram.getValueAtPercentile(99) / 1000.0)
+                .p999Ms(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .maxMs(histogram.getMaxValue() / 1000.0)
+                .build();
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase();
+    }
+}
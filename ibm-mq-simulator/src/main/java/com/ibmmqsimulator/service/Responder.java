@@ -0,0 +1,316 @@
+package com.ibmmqsimulator.service;
+
+import com.ibmmqsimulator.model.ResponderConfig;
+import com.ibmmqsimulator.model.ResponderStats;
+import com.ibmmqsimulator.util.CompiledTemplate;
+import com.ibmmqsimulator.util.TemplateUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.jms.*;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stub back-end: consumes requests with N listener sessions and answers each with a
+ * rendered response template, sent to the request's JMSReplyTo (or the configured reply
+ * queue) with the request's correlation ID echoed, falling back to its message ID.
+ * <p>
+ * Each listener session owns its own XML parser and precompiled XPath expressions for
+ * the {@code ${REQ:name}} fields. Without artificial latency the reply goes out from the
+ * listener itself; with latency it is handed to a scheduler whose threads each have their
+ * own session and producer, so the delay never holds up consumption.
+ */
+@Slf4j
+class Responder {
+
+    private static final Pattern REQUEST_FIELD = Pattern.compile("\\$\\{REQ:([^}]+)\\}");
+    private static final int DELAY_THREADS = 4;
+
+    private final Connection connection;
+    private final ResponderConfig config;
+    // Response template split around ${REQ:name}: parts.size() == fieldRefs.size() + 1
+    private final List<CompiledTemplate> parts = new ArrayList<>();
+    private final List<String> fieldRefs = new ArrayList<>();
+
+    private final List<Session> sessions = Collections.synchronizedList(new ArrayList<>());
+    private ScheduledThreadPoolExecutor delayPool;
+    private ThreadLocal<ReplySender> delaySenders;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder replied = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    Responder(Connection connection, ResponderConfig config) {
+        this.connection = connection;
+        this.config = config;
+        Matcher matcher = REQUEST_FIELD.matcher(config.getResponseTemplate());
+        int pos = 0;
+        while (matcher.find()) {
+            parts.add(TemplateUtil.compile(config.getResponseTemplate().substring(pos, matcher.start())));
+            fieldRefs.add(matcher.group(1).trim());
+            pos = matcher.end();
+        }
+        parts.add(TemplateUtil.compile(config.getResponseTemplate().substring(pos)));
+    }
+
+    void start() throws JMSException {
+        // Fail fast on bad expressions rather than on the first request
+        for (Map.Entry<String, String> field : config.getFields().entrySet()) {
+            try {
+                XPathFactory.newInstance().newXPath().compile(field.getValue());
+            } catch (XPathExpressionException e) {
+                throw new IllegalArgumentException("Invalid XPath for field " + field.getKey() + ": " + field.getValue());
+            }
+        }
+
+        if (config.getLatencyMs() > 0 || config.getLatencyJitterMs() > 0) {
+            delayPool = new ScheduledThreadPoolExecutor(DELAY_THREADS, r -> {
+                Thread thread = new Thread(r, "responder-delay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            delaySenders = ThreadLocal.withInitial(() -> {
+                try {
+                    return new ReplySender(newSession());
+                } catch (JMSException e) {
+                    throw new java.lang.IllegalStateException("Failed to open reply session", e);
+                }
+            });
+        }
+
+        int listeners = Math.max(1, config.getListenerCount());
+        try {
+            for (int i = 0; i < listeners; i++) {
+                Session session = newSession();
+                MessageConsumer consumer = session.createConsumer(session.createQueue(config.getRequestQueue()));
+                consumer.setMessageListener(new RequestListener(session));
+            }
+        } catch (JMSException | RuntimeException e) {
+            stop();
+            throw e;
+        }
+        log.info("Responder started on {} with {} listeners, latency {}+{} ms",
+                config.getRequestQueue(), listeners, config.getLatencyMs(), config.getLatencyJitterMs());
+    }
+
+    /**
+     * Stops consuming, lets already scheduled delayed replies go out, then closes all sessions.
+     */
+    void stop() {
+        List<Session> open;
+        synchronized (sessions) {
+            open = new ArrayList<>(sessions);
+        }
+        if (delayPool != null) {
+            // Listener sessions first so no new replies get scheduled
+            for (Session session : open) {
+                closeQuietly(session);
+            }
+            delayPool.shutdown();
+            try {
+                long maxDelay = config.getLatencyMs() + config.getLatencyJitterMs();
+                if (!delayPool.awaitTermination(maxDelay + 5000, TimeUnit.MILLISECONDS)) {
+                    delayPool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                delayPool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            synchronized (sessions) {
+                open = new ArrayList<>(sessions);
+            }
+        }
+        for (Session session : open) {
+            closeQuietly(session);
+        }
+        sessions.clear();
+        log.info("Responder stopped: {}", getStats().summary());
+    }
+
+    ResponderStats getStats() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long repliedCount = replied.sum();
+        return ResponderStats.builder()
+                .received(received.sum())
+                .replied(repliedCount)
+                .errors(errors.sum())
+                .delayed(delayed.sum())
+                .elapsedSeconds(TimeUnit.NANOSECONDS.toSeconds(elapsedNanos))
+                .replyRate(elapsedNanos > 0 ? repliedCount * 1e9 / elapsedNanos : 0)
+                .build();
+    }
+
+    private Session newSession() throws JMSException {
+        Session session;
+        // Connection is shared with the rest of the service
+        synchronized (connection) {
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+        sessions.add(session);
+        return session;
+    }
+
+    private static void closeQuietly(Session session) {
+        try {
+            session.close();
+        } catch (JMSException e) {
+            log.warn("Error closing responder session: {}", e.getMessage());
+        }
+    }
+
+    private String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < fieldRefs.size(); i++) {
+            parts.get(i).renderTo(out);
+            appendEscaped(out, values.getOrDefault(fieldRefs.get(i), ""));
+        }
+        parts.get(fieldRefs.size()).renderTo(out);
+        return out.toString();
+    }
+
+    /**
+     * Extracted values are text; escape them so they cannot break the response XML.
+     */
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Producer without a fixed destination, owned by one thread.
+     */
+    private static final class ReplySender {
+        private final Session session;
+        private final MessageProducer producer;
+
+        private ReplySender(Session session) throws JMSException {
+            this.session = session;
+            this.producer = session.createProducer(null);
+        }
+
+        void send(Destination destination, String content, String correlationId) throws JMSException {
+            TextMessage reply = session.createTextMessage(content);
+            reply.setJMSCorrelationID(correlationId);
+            producer.send(destination, reply);
+        }
+    }
+
+    /**
+     * Listener of one session; JMS delivers to it serially, so its parser and
+     * XPath expressions need no synchronization.
+     */
+    private final class RequestListener implements MessageListener {
+        private final ReplySender sender;
+        private final Destination fallbackReplyQueue;
+        private final DocumentBuilder documentBuilder;
+        private final Map<String, XPathExpression> expressions = new HashMap<>();
+
+        RequestListener(Session session) throws JMSException {
+            this.sender = new ReplySender(session);
+            String replyQueue = config.getReplyQueue();
+            this.fallbackReplyQueue = replyQueue != null && !replyQueue.isBlank() ? session.createQueue(replyQueue) : null;
+            try {
+                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                // Requests come from outside: no DTDs or external entities
+                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+                factory.setExpandEntityReferences(false);
+                this.documentBuilder = factory.newDocumentBuilder();
+                XPath xpath = XPathFactory.newInstance().newXPath();
+                for (Map.Entry<String, String> field : config.getFields().entrySet()) {
+                    expressions.put(field.getKey(), xpath.compile(field.getValue()));
+                }
+            } catch (ParserConfigurationException | XPathExpressionException e) {
+                throw new java.lang.IllegalStateException("Failed to prepare request parser", e);
+            }
+        }
+
+        @Override
+        public void onMessage(Message request) {
+            received.increment();
+            try {
+                Destination destination = request.getJMSReplyTo() != null ? request.getJMSReplyTo() : fallbackReplyQueue;
+                if (destination == null) {
+                    log.warn("Request {} has no JMSReplyTo and no reply queue is configured", request.getJMSMessageID());
+                    errors.increment();
+                    return;
+                }
+                String correlationId = request.getJMSCorrelationID() != null
+                        ? request.getJMSCorrelationID() : request.getJMSMessageID();
+                String content = render(extractFields(request));
+
+                long delayMs = config.getLatencyMs() + (config.getLatencyJitterMs() > 0
+                        ? ThreadLocalRandom.current().nextInt(config.getLatencyJitterMs() + 1) : 0);
+                if (delayPool == null || delayMs == 0) {
+                    sender.send(destination, content, correlationId);
+                    replied.increment();
+                    return;
+                }
+                delayed.increment();
+                delayPool.schedule(() -> {
+                    delayed.decrement();
+                    try {
+                        delaySenders.get().send(destination, content, correlationId);
+                        replied.increment();
+                    } catch (Exception e) {
+                        errors.increment();
+                        log.warn("Failed to send delayed reply: {}", e.getMessage());
+                    }
+                }, delayMs, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                errors.increment();
+                log.warn("Failed to answer request: {}", e.getMessage());
+            }
+        }
+
+        private Map<String, String> extractFields(Message request) throws Exception {
+            if (expressions.isEmpty() || !(request instanceof TextMessage)) {
+                return Collections.emptyMap();
+            }
+            String text = ((TextMessage) request).getText();
+            if (text == null || text.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Document document = documentBuilder.parse(new InputSource(new StringReader(text)));
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, XPathExpression> expression : expressions.entrySet()) {
+                values.put(expression.getKey(), expression.getValue().evaluate(document));
+            }
+            return values;
+        }
+    }
+}
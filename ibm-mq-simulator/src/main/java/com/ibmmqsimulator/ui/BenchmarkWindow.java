@@ -0,0 +1,291 @@
+package com.ibmmqsimulator.ui;
+
+import com.ibmmqsimulator.model.BenchmarkConfig;
+import com.ibmmqsimulator.model.BenchmarkResult;
+import com.ibmmqsimulator.service.MqService;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.jms.JMSException;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Benchmark matrix: sweeps delivery mode, priority, message size, thread count and batch size,
+ * running each combination as a fixed-duration load, and shows the results as they come in.
+ */
+@Slf4j
+class BenchmarkWindow {
+
+    private final MqService mqService;
+    private final Stage stage;
+    private final ObservableList<BenchmarkResult> results = FXCollections.observableArrayList();
+
+    private ComboBox<String> queueCombo;
+    private CheckBox persistentCheckBox;
+    private CheckBox nonPersistentCheckBox;
+    private TextField prioritiesField;
+    private TextField sizesField;
+    private TextField threadsField;
+    private TextField batchesField;
+    private Spinner<Integer> durationSpinner;
+    private CheckBox drainCheckBox;
+    private Button runButton;
+    private Button stopButton;
+    private Button exportButton;
+    private Label statusLabel;
+
+    BenchmarkWindow(Window owner, MqService mqService, List<String> queues) {
+        this.mqService = mqService;
+        this.stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Benchmark Matrix - IBM MQ");
+
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(15));
+        root.setStyle("-fx-background-color: #2b2b2b;");
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+
+        queueCombo = new ComboBox<>(FXCollections.observableArrayList(queues));
+        queueCombo.setEditable(true);
+        if (!queues.isEmpty()) {
+            queueCombo.setValue(queues.get(0));
+        }
+        queueCombo.setStyle("-fx-background-color: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        persistentCheckBox = createCheckBox("Persistent", true);
+        nonPersistentCheckBox = createCheckBox("Non-persistent", true);
+        prioritiesField = createField("4");
+        sizesField = createField("1KB, 16KB, 256KB, 1MB, 4MB");
+        threadsField = createField("1, 4, 16");
+        batchesField = createField("0, 50");
+        durationSpinner = new Spinner<>(1, 3600, 10);
+        durationSpinner.setEditable(true);
+        durationSpinner.setPrefWidth(90);
+        drainCheckBox = createCheckBox("Drain queue between runs", true);
+
+        addField(grid, 0, 0, "Queue:", queueCombo);
+        addField(grid, 0, 2, "Delivery:", new HBox(10, persistentCheckBox, nonPersistentCheckBox));
+        addField(grid, 1, 0, "Message Sizes:", sizesField);
+        addField(grid, 1, 2, "Priorities (0-9):", prioritiesField);
+        addField(grid, 2, 0, "Threads:", threadsField);
+        addField(grid, 2, 2, "Tx Batch (0 = none):", batchesField);
+        addField(grid, 3, 0, "Duration per run (s):", durationSpinner);
+        grid.add(drainCheckBox, 2, 3, 2, 1);
+
+        runButton = createButton("Run Benchmark", "#FF9800");
+        stopButton = createButton("Stop", "#f44336");
+        exportButton = createButton("Export CSV", "#2196F3");
+        stopButton.setDisable(true);
+        exportButton.setDisable(true);
+        runButton.setOnAction(e -> runBenchmark());
+        stopButton.setOnAction(e -> {
+            stopButton.setDisable(true);
+            statusLabel.setText("Stopping after the current run's workers finish...");
+            mqService.stopTimedRun();
+        });
+        exportButton.setOnAction(e -> exportCsv());
+        HBox buttonBox = new HBox(10, runButton, stopButton, exportButton);
+        buttonBox.setAlignment(Pos.CENTER_LEFT);
+
+        TableView<BenchmarkResult> table = new TableView<>(results);
+        table.setPlaceholder(new Label("Results appear here as each combination finishes"));
+        table.getColumns().add(column("Delivery", 100, r -> r.isPersistent() ? "persistent" : "non-persistent"));
+        table.getColumns().add(column("Pri", 40, r -> String.valueOf(r.getPriority())));
+        table.getColumns().add(column("Size", 70, r -> BenchmarkResult.formatSize(r.getMessageSize())));
+        table.getColumns().add(column("Threads", 60, r -> String.valueOf(r.getThreads())));
+        table.getColumns().add(column("Batch", 55, r -> String.valueOf(r.getBatchSize())));
+        table.getColumns().add(column("Sent", 90, r -> String.format("%,d", r.getSent())));
+        table.getColumns().add(column("Errors", 60, r -> String.format("%,d", r.getErrors())));
+        table.getColumns().add(column("msg/s", 80, r -> String.format("%,.0f", r.getMessagesPerSecond())));
+        table.getColumns().add(column("MB/s", 70, r -> String.format("%.2f", r.getMegabytesPerSecond())));
+        table.getColumns().add(column("Put avg", 70, r -> String.format("%.2f", r.getAveragePutMs())));
+        table.getColumns().add(column("p50", 60, r -> String.format("%.2f", r.getPutP50Ms())));
+        table.getColumns().add(column("p99", 60, r -> String.format("%.2f", r.getPutP99Ms())));
+        table.getColumns().add(column("p99.9", 60, r -> String.format("%.2f", r.getPutP999Ms())));
+        table.getColumns().add(column("Max", 70, r -> String.format("%.2f", r.getMaxPutMs())));
+        table.getColumns().add(column("Commit avg", 80, r -> r.getBatchSize() > 0
+                ? String.format("%.2f", r.getAverageCommitMs()) : ""));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        statusLabel = new Label("Latencies are in milliseconds");
+        statusLabel.setTextFill(Color.web("#b0b0b0"));
+        statusLabel.setFont(Font.font("System", 11));
+
+        root.getChildren().addAll(grid, buttonBox, statusLabel, table);
+
+        Scene scene = new Scene(root, 1200, 700);
+        if (owner != null && owner.getScene() != null) {
+            scene.getStylesheets().addAll(owner.getScene().getStylesheets());
+        }
+        stage.setScene(scene);
+        // A benchmark left running would keep loading the queue with nothing showing it
+        stage.setOnHidden(e -> {
+            if (!stopButton.isDisabled()) {
+                mqService.stopTimedRun();
+            }
+        });
+    }
+
+    void show() {
+        stage.show();
+    }
+
+    private void runBenchmark() {
+        BenchmarkConfig config;
+        try {
+            List<Boolean> persistenceModes = new ArrayList<>();
+            if (persistentCheckBox.isSelected()) {
+                persistenceModes.add(true);
+            }
+            if (nonPersistentCheckBox.isSelected()) {
+                persistenceModes.add(false);
+            }
+            if (persistenceModes.isEmpty()) {
+                throw new IllegalArgumentException("Select at least one delivery mode");
+            }
+            String queue = queueCombo.getValue();
+            if (queue == null || queue.isBlank()) {
+                throw new IllegalArgumentException("Enter a queue name");
+            }
+            config = BenchmarkConfig.builder()
+                    .queue(queue.trim())
+                    .durationSeconds(durationSpinner.getValue())
+                    .persistenceModes(persistenceModes)
+                    .priorities(BenchmarkConfig.parseIntegers(prioritiesField.getText(), "priority"))
+                    .messageSizes(BenchmarkConfig.parseSizes(sizesField.getText()))
+                    .threadCounts(BenchmarkConfig.parseIntegers(threadsField.getText(), "thread count"))
+                    .batchSizes(BenchmarkConfig.parseIntegers(batchesField.getText(), "batch size"))
+                    .drainBetweenRuns(drainCheckBox.isSelected())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            statusLabel.setText(e.getMessage());
+            return;
+        }
+
+        int combinations = config.combinations().size();
+        results.clear();
+        runButton.setDisable(true);
+        exportButton.setDisable(true);
+        stopButton.setDisable(false);
+        statusLabel.setText(String.format("Running %d combinations, about %d s in total...",
+                combinations, (long) combinations * config.getDurationSeconds()));
+
+        new Thread(() -> {
+            try {
+                mqService.runBenchmark(config, new MqService.BenchmarkListener() {
+                    @Override
+                    public void onRunStarted(int index, int total, BenchmarkResult pending) {
+                        Platform.runLater(() -> statusLabel.setText(
+                                String.format("Run %d/%d: %s", index, total, pending.describe())));
+                    }
+
+                    @Override
+                    public void onRunFinished(BenchmarkResult result) {
+                        Platform.runLater(() -> results.add(result));
+                    }
+                });
+                Platform.runLater(() -> statusLabel.setText(String.format(
+                        "Benchmark finished: %d of %d combinations run (latencies in ms)", results.size(), combinations)));
+            } catch (JMSException | RuntimeException e) {
+                log.error("Benchmark failed", e);
+                Platform.runLater(() -> statusLabel.setText("Benchmark failed: " + e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Platform.runLater(() -> statusLabel.setText("Benchmark interrupted"));
+            } finally {
+                Platform.runLater(() -> {
+                    runButton.setDisable(false);
+                    stopButton.setDisable(true);
+                    exportButton.setDisable(results.isEmpty());
+                });
+            }
+        }, "benchmark").start();
+    }
+
+    private void exportCsv() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Benchmark Results");
+        chooser.setInitialFileName("mq-benchmark.csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(BenchmarkResult.CSV_HEADER);
+            writer.newLine();
+            for (BenchmarkResult result : results) {
+                writer.write(result.toCsvRow());
+                writer.newLine();
+            }
+            statusLabel.setText("Exported " + results.size() + " results to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            log.error("Failed to export benchmark results", e);
+            statusLabel.setText("Export failed: " + e.getMessage());
+        }
+    }
+
+    private static void addField(GridPane grid, int row, int column, String labelText, Node field) {
+        Label label = new Label(labelText);
+        label.setTextFill(Color.web("#b0b0b0"));
+        grid.add(label, column, row);
+        grid.add(field, column + 1, row);
+    }
+
+    private static TextField createField(String value) {
+        TextField field = new TextField(value);
+        field.setPrefColumnCount(18);
+        field.setStyle("-fx-control-inner-background: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        return field;
+    }
+
+    private static CheckBox createCheckBox(String text, boolean selected) {
+        CheckBox checkBox = new CheckBox(text);
+        checkBox.setSelected(selected);
+        checkBox.setTextFill(Color.web("#b0b0b0"));
+        return checkBox;
+    }
+
+    private static TableColumn<BenchmarkResult, String> column(String title, double width,
+                                                               Function<BenchmarkResult, String> value) {
+        TableColumn<BenchmarkResult, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+        return column;
+    }
+
+    private static Button createButton(String text, String color) {
+        Button button = new Button(text);
+        button.setStyle(String.format(
+            "-fx-background-color: %s; -fx-text-fill: white; " +
+            "-fx-font-weight: bold; -fx-padding: 8 16; " +
+            "-fx-cursor: hand; -fx-background-radius: 4;", color));
+        return button;
+    }
+}
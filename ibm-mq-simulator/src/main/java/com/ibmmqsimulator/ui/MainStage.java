@@ -1,11 +1,26 @@
 package com.ibmmqsimulator.ui;
 
+import com.ibmmqsimulator.model.ConnectionProfile;
+import com.ibmmqsimulator.model.DrainStats;
+import com.ibmmqsimulator.model.FanOutStats;
+import com.ibmmqsimulator.model.LoadProfile;
 import com.ibmmqsimulator.model.MqConfig;
 import com.ibmmqsimulator.model.MqMessage;
+import com.ibmmqsimulator.model.ReconnectEvent;
+import com.ibmmqsimulator.model.ResponderConfig;
+import com.ibmmqsimulator.model.ResponderStats;
+import com.ibmmqsimulator.model.RoundTripStats;
+import com.ibmmqsimulator.model.SendStats;
 import com.ibmmqsimulator.service.DynamicMqService;
 import com.ibmmqsimulator.service.MqService;
+import com.ibmmqsimulator.util.DataFeed;
+import com.ibmmqsimulator.util.SendProgress;
+import com.ibmmqsimulator.util.StreamingXml;
 import com.ibmmqsimulator.util.TemplateUtil;
 import com.ibmmqsimulator.util.XmlUtil;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -15,16 +30,29 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.TextMessage;
+import javax.xml.validation.Schema;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -45,19 +73,75 @@ public class MainStage {
     private Button connectButton;
     private Button disconnectButton;
     private Button receiveButton;
+    private Button browseButton;
+    private Spinner<Integer> drainSessionsSpinner;
+    private Spinner<Integer> drainLimitSpinner;
+    private CheckBox drainCountOnlyCheckBox;
+    private Button drainButton;
+    private Button stopDrainButton;
+    private ProgressBar drainProgressBar;
+    private Label drainProgressLabel;
     private Button clearHistoryButton;
     private ListView<String> historyListView;
     private Spinner<Integer> messageCountSpinner;
     private Spinner<Integer> threadCountSpinner;
+    private Spinner<Integer> batchSizeSpinner;
+    private Spinner<Integer> asyncWindowSpinner;
+    private ComboBox<LoadProfile.Shape> loadShapeCombo;
+    private Spinner<Integer> loadDurationSpinner;
+    private Spinner<Integer> loadBaseRateSpinner;
+    private Spinner<Integer> loadPeakRateSpinner;
+    private Spinner<Integer> loadPhaseSpinner;
+    private Spinner<Integer> loadSpikeSpinner;
+    private Spinner<Integer> loadStepsSpinner;
+    private Button runLoadButton;
+    private Button benchmarkButton;
+    private Spinner<Integer> soakDurationSpinner;
+    private Spinner<Integer> soakRateSpinner;
+    private Spinner<Integer> soakSnapshotSpinner;
+    private Button stopRunButton;
+    private ComboBox<String> replyQueueCombo;
+    private Spinner<Integer> replyTimeoutSpinner;
+    private Label roundTripLabel;
+    private ComboBox<String> responderRequestQueueCombo;
+    private ComboBox<String> responderReplyQueueCombo;
+    private Spinner<Integer> responderListenersSpinner;
+    private Spinner<Integer> responderLatencySpinner;
+    private Spinner<Integer> responderJitterSpinner;
+    private TextArea responderFieldsArea;
+    private TextArea responderTemplateArea;
+    private Button startResponderButton;
+    private Button stopResponderButton;
+    private Label responderStatsLabel;
+    private Timeline responderStatsTimeline;
     private ProgressBar sendProgressBar;
     private Label progressLabel;
     private Label templateInfoLabel;
+    private Label contractLabel;
+    private Label dataFeedLabel;
+    // Payloads longer than LARGE_XML_CHARS live here; the editor shows one read-only page of them
+    private String largePayload;
+    private boolean largePayloadChecked;
+    private String largePayloadError;
+    private int payloadPage;
+    // Set while the editor text is replaced by a page, so the change is not taken as an edit
+    private boolean showingPage;
+    private HBox pagerBox;
+    private Label pageLabel;
+    private Button prevPageButton;
+    private Button nextPageButton;
+    private ProgressBar xmlTaskProgressBar;
     
     // Dynamic tab components
     private Button dynamicSendButton;
     private Button dynamicReceiveButton;
+    private Button dynamicFanOutButton;
+    private ListView<String> dynamicProfileList;
 
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Above this many characters the payload is paged and checked off the FX thread
+    private static final int LARGE_XML_CHARS = 1_000_000;
+    private static final int PAGE_CHARS = 100_000;
 
     public MainStage(MqService mqService, MqConfig mqConfig, DynamicMqService dynamicMqService) {
         this.mqService = mqService;
@@ -125,6 +209,40 @@ public class MainStage {
         primaryStage.show();
 
         updateConnectionState(false);
+        registerConnectionListener();
+    }
+
+    /**
+     * The service reconnects on its own after the connection drops; keeps the status bar and
+     * buttons in step. Runs in progress keep their buttons while they wait for the reconnect.
+     */
+    private void registerConnectionListener() {
+        mqService.setConnectionListener(new MqService.ConnectionListener() {
+            @Override
+            public void onConnectionLost(String cause) {
+                Platform.runLater(() -> showStatus("Connection lost (" + cause + "), reconnecting...", "#FF9800"));
+            }
+
+            @Override
+            public void onReconnected(ReconnectEvent event) {
+                Platform.runLater(() -> {
+                    updateConnectionState(true);
+                    if (mqService.isResponderRunning()) {
+                        responderStatsTimeline.play();
+                    }
+                    showStatus(String.format("Reconnected to %s after %.2f s", mqService.getProviderDescription(),
+                            event.getDowntimeMs() / 1000.0), "#4CAF50");
+                });
+            }
+
+            @Override
+            public void onReconnectFailed(String reason) {
+                Platform.runLater(() -> {
+                    updateConnectionState(false);
+                    showStatus("Connection lost: " + reason, "#f44336");
+                });
+            }
+        });
     }
 
     private VBox createConnectionPanel() {
@@ -216,7 +334,7 @@ public class MainStage {
         
         Label countLabel = new Label("Message Count:");
         countLabel.setTextFill(Color.web("#b0b0b0"));
-        messageCountSpinner = new Spinner<>(1, 20000, 1);
+        messageCountSpinner = new Spinner<>(1, Integer.MAX_VALUE, 1);
         messageCountSpinner.setEditable(true);
         messageCountSpinner.setMaxWidth(Double.MAX_VALUE);
         HBox.setHgrow(messageCountSpinner, Priority.SOMETIMES);
@@ -224,13 +342,33 @@ public class MainStage {
         
         Label threadLabel = new Label("Threads:");
         threadLabel.setTextFill(Color.web("#b0b0b0"));
-        threadCountSpinner = new Spinner<>(1, 100, 1);
+        threadCountSpinner = new Spinner<>(1, 1000, 1);
         threadCountSpinner.setEditable(true);
         threadCountSpinner.setMaxWidth(Double.MAX_VALUE);
         HBox.setHgrow(threadCountSpinner, Priority.SOMETIMES);
         threadCountSpinner.setStyle("-fx-background-color: #3e3e3e;");
         
-        configBox.getChildren().addAll(countLabel, messageCountSpinner, threadLabel, threadCountSpinner);
+        Label batchLabel = new Label("Tx Batch:");
+        batchLabel.setTextFill(Color.web("#b0b0b0"));
+        batchSizeSpinner = new Spinner<>(0, 10000, 0);
+        batchSizeSpinner.setEditable(true);
+        batchSizeSpinner.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(batchSizeSpinner, Priority.SOMETIMES);
+        batchSizeSpinner.setStyle("-fx-background-color: #3e3e3e;");
+        batchSizeSpinner.setTooltip(new Tooltip("Commit every N messages under syncpoint (0 = non-transacted)"));
+
+        Label asyncLabel = new Label("Async:");
+        asyncLabel.setTextFill(Color.web("#b0b0b0"));
+        asyncWindowSpinner = new Spinner<>(0, 100000, 0);
+        asyncWindowSpinner.setEditable(true);
+        asyncWindowSpinner.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(asyncWindowSpinner, Priority.SOMETIMES);
+        asyncWindowSpinner.setStyle("-fx-background-color: #3e3e3e;");
+        asyncWindowSpinner.setTooltip(new Tooltip(
+                "Async put: at most N messages awaiting acknowledgment (0 = synchronous; ignored when Tx Batch > 0)"));
+        
+        configBox.getChildren().addAll(countLabel, messageCountSpinner, threadLabel, threadCountSpinner,
+                batchLabel, batchSizeSpinner, asyncLabel, asyncWindowSpinner);
 
         Label xmlLabel = new Label("XML Message Content:");
         xmlLabel.setTextFill(Color.web("#b0b0b0"));
@@ -241,7 +379,25 @@ public class MainStage {
         xmlInputArea.setWrapText(true);
         xmlInputArea.setStyle("-fx-control-inner-background: #1e1e1e; -fx-text-fill: #e0e0e0; " +
                               "-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
-        xmlInputArea.textProperty().addListener((obs, oldVal, newVal) -> validateXml(newVal));
+        xmlInputArea.textProperty().addListener((obs, oldVal, newVal) -> onEditorChanged(newVal));
+
+        // Pager for payloads too large to edit as one text
+        pagerBox = new HBox(10);
+        pagerBox.setAlignment(Pos.CENTER_LEFT);
+        prevPageButton = createStyledButton("◀ Prev", "#607D8B");
+        nextPageButton = createStyledButton("Next ▶", "#607D8B");
+        prevPageButton.setOnAction(e -> showPayloadPage(payloadPage - 1));
+        nextPageButton.setOnAction(e -> showPayloadPage(payloadPage + 1));
+        pageLabel = new Label("");
+        pageLabel.setTextFill(Color.web("#b0b0b0"));
+        pagerBox.getChildren().addAll(prevPageButton, pageLabel, nextPageButton);
+        pagerBox.setVisible(false);
+        pagerBox.setManaged(false);
+
+        xmlTaskProgressBar = new ProgressBar(0);
+        xmlTaskProgressBar.setMaxWidth(Double.MAX_VALUE);
+        xmlTaskProgressBar.setVisible(false);
+        xmlTaskProgressBar.setManaged(false);
 
         validationLabel = new Label("");
         validationLabel.setFont(Font.font("System", 11));
@@ -251,6 +407,50 @@ public class MainStage {
         templateInfoLabel.setFont(Font.font("System", 11));
         templateInfoLabel.setTextFill(Color.web("#FF9800"));
 
+        // Contract XSD that every rendered message of a send run is validated against
+        HBox contractBox = new HBox(10);
+        contractBox.setAlignment(Pos.CENTER_LEFT);
+        Label contractTitleLabel = new Label("Contract XSD:");
+        contractTitleLabel.setTextFill(Color.web("#b0b0b0"));
+        contractLabel = new Label("None");
+        contractLabel.setTextFill(Color.web("#b0b0b0"));
+        Button loadContractButton = createStyledButton("Load XSD...", "#607D8B");
+        Button clearContractButton = createStyledButton("Clear XSD", "#757575");
+        loadContractButton.setOnAction(e -> loadContractSchema());
+        clearContractButton.setOnAction(e -> {
+            mqService.setContractSchema(null);
+            contractLabel.setText("None");
+            revalidatePayload();
+        });
+        contractBox.getChildren().addAll(contractTitleLabel, contractLabel, loadContractButton, clearContractButton);
+
+        // CSV/JSONL file whose rows feed ${col:NAME} placeholders
+        HBox dataBox = new HBox(10);
+        dataBox.setAlignment(Pos.CENTER_LEFT);
+        Label dataTitleLabel = new Label("Data File:");
+        dataTitleLabel.setTextFill(Color.web("#b0b0b0"));
+        dataFeedLabel = new Label("None");
+        dataFeedLabel.setTextFill(Color.web("#b0b0b0"));
+        ComboBox<DataFeed.Order> dataOrderCombo = new ComboBox<>();
+        dataOrderCombo.getItems().addAll(DataFeed.Order.values());
+        dataOrderCombo.setValue(DataFeed.Order.SEQUENTIAL);
+        dataOrderCombo.setTooltip(new Tooltip("Which row each message gets"));
+        dataOrderCombo.setOnAction(e -> {
+            DataFeed feed = TemplateUtil.getDataFeed();
+            if (feed != null) {
+                feed.setOrder(dataOrderCombo.getValue());
+            }
+        });
+        Button loadDataButton = createStyledButton("Load Data...", "#607D8B");
+        Button clearDataButton = createStyledButton("Clear Data", "#757575");
+        loadDataButton.setOnAction(e -> loadDataFeed(dataOrderCombo.getValue()));
+        clearDataButton.setOnAction(e -> {
+            TemplateUtil.setDataFeed(null);
+            dataFeedLabel.setText("None");
+            revalidatePayload();
+        });
+        dataBox.getChildren().addAll(dataTitleLabel, dataFeedLabel, dataOrderCombo, loadDataButton, clearDataButton);
+
         // Progress bar for multi-threaded sending
         progressLabel = new Label("");
         progressLabel.setTextFill(Color.web("#b0b0b0"));
@@ -269,11 +469,23 @@ public class MainStage {
         sendButton = createStyledButton("Send Message", "#4CAF50");
         Button clearButton = createStyledButton("Clear", "#757575");
         
+        benchmarkButton = createStyledButton("Benchmark...", "#9C27B0");
+        benchmarkButton.setTooltip(new Tooltip("Sweep delivery mode, priority, size, threads and batch size"));
+        
+        Button openXmlButton = createStyledButton("Open XML...", "#607D8B");
+        openXmlButton.setOnAction(e -> openXmlFile());
         beautifyButton.setOnAction(e -> beautifyXml());
         sendButton.setOnAction(e -> sendMessage());
-        clearButton.setOnAction(e -> xmlInputArea.clear());
+        clearButton.setOnAction(e -> clearPayload());
+        benchmarkButton.setOnAction(e -> new BenchmarkWindow(benchmarkButton.getScene().getWindow(), mqService,
+                List.of(sendQueueCombo.getValue(), mqConfig.getQueue().getIn(), mqConfig.getQueue().getOut())
+                        .stream().distinct().collect(Collectors.toList())).show());
         
-        buttonBox.getChildren().addAll(beautifyButton, sendButton, clearButton);
+        buttonBox.getChildren().addAll(openXmlButton, beautifyButton, sendButton, clearButton, benchmarkButton);
+
+        TitledPane loadPane = createLoadProfilePane();
+        TitledPane soakPane = createSoakPane();
+        TitledPane requestReplyPane = createRequestReplyPane();
 
         // Message History
         Label historyLabel = new Label("Message History:");
@@ -288,14 +500,146 @@ public class MainStage {
 
         VBox.setVgrow(xmlInputArea, Priority.ALWAYS);
         panel.getChildren().addAll(
-            titleLabel, queueBox, configBox, xmlLabel, xmlInputArea, validationLabel, templateInfoLabel,
-            progressLabel, sendProgressBar, 
-            buttonBox, historyLabel, historyListView, clearHistoryButton
+            titleLabel, queueBox, configBox, xmlLabel, xmlInputArea, pagerBox, validationLabel, xmlTaskProgressBar,
+            templateInfoLabel, contractBox, dataBox, progressLabel, sendProgressBar, 
+            buttonBox, loadPane, soakPane, requestReplyPane, historyLabel, historyListView, clearHistoryButton
         );
         
         return panel;
     }
 
+    /**
+     * Timed load settings: an arrival-rate profile run with the thread and batch settings above.
+     */
+    private TitledPane createLoadProfilePane() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(10));
+        grid.setStyle("-fx-background-color: #2b2b2b;");
+
+        loadShapeCombo = new ComboBox<>();
+        loadShapeCombo.getItems().addAll(LoadProfile.Shape.values());
+        loadShapeCombo.setValue(LoadProfile.Shape.STEADY);
+        loadShapeCombo.setStyle("-fx-background-color: #3e3e3e; -fx-text-fill: #e0e0e0;");
+
+        loadDurationSpinner = createLoadSpinner(1, 86400, 60);
+        loadBaseRateSpinner = createLoadSpinner(0, 100000, 10);
+        loadPeakRateSpinner = createLoadSpinner(1, 100000, 100);
+        loadPhaseSpinner = createLoadSpinner(0, 86400, 10);
+        loadSpikeSpinner = createLoadSpinner(1, 86400, 5);
+        loadStepsSpinner = createLoadSpinner(1, 100, 5);
+
+        addLoadField(grid, 0, 0, "Profile:", loadShapeCombo);
+        addLoadField(grid, 0, 2, "Duration (s):", loadDurationSpinner);
+        addLoadField(grid, 1, 0, "Base Rate (msg/s):", loadBaseRateSpinner);
+        addLoadField(grid, 1, 2, "Peak Rate (msg/s):", loadPeakRateSpinner);
+        addLoadField(grid, 2, 0, "Ramp / Spike Start (s):", loadPhaseSpinner);
+        addLoadField(grid, 2, 2, "Spike Length (s):", loadSpikeSpinner);
+        addLoadField(grid, 3, 0, "Steps:", loadStepsSpinner);
+
+        runLoadButton = createStyledButton("Run Load", "#FF9800");
+        // Same preconditions as a plain send: connected, valid XML, nothing else running
+        runLoadButton.disableProperty().bind(sendButton.disableProperty());
+        runLoadButton.setOnAction(e -> runLoad());
+        grid.add(runLoadButton, 3, 3);
+
+        TitledPane pane = new TitledPane("Timed Load Profile", grid);
+        pane.setExpanded(false);
+        pane.setStyle("-fx-text-fill: #e0e0e0;");
+        return pane;
+    }
+
+    /**
+     * Open-ended soak settings; also hosts the Stop button shared by timed load and soak runs.
+     */
+    private TitledPane createSoakPane() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(10));
+        grid.setStyle("-fx-background-color: #2b2b2b;");
+
+        soakDurationSpinner = createLoadSpinner(0, 100000, 720);
+        soakRateSpinner = createLoadSpinner(0, 100000, 0);
+        soakSnapshotSpinner = createLoadSpinner(1, 3600, 30);
+
+        addLoadField(grid, 0, 0, "Duration (min, 0 = until stopped):", soakDurationSpinner);
+        addLoadField(grid, 0, 2, "Rate (msg/s, 0 = max):", soakRateSpinner);
+        addLoadField(grid, 1, 0, "Snapshot Every (s):", soakSnapshotSpinner);
+
+        Button startSoakButton = createStyledButton("Start Soak", "#FF9800");
+        startSoakButton.disableProperty().bind(sendButton.disableProperty());
+        startSoakButton.setOnAction(e -> runSoak());
+        stopRunButton = createStyledButton("Stop Run", "#f44336");
+        stopRunButton.setDisable(true);
+        stopRunButton.setOnAction(e -> {
+            mqService.stopTimedRun();
+            stopRunButton.setDisable(true);
+            progressLabel.setText("Stopping: workers are committing and closing their sessions...");
+        });
+        HBox soakButtons = new HBox(10, startSoakButton, stopRunButton);
+        grid.add(soakButtons, 2, 1, 2, 1);
+
+        TitledPane pane = new TitledPane("Soak Run", grid);
+        pane.setExpanded(false);
+        pane.setStyle("-fx-text-fill: #e0e0e0;");
+        return pane;
+    }
+
+    /**
+     * Request/reply benchmark settings: requests go to the Send queue with JMSReplyTo set to the
+     * reply queue, using the message count and thread settings above.
+     */
+    private TitledPane createRequestReplyPane() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(10));
+        grid.setStyle("-fx-background-color: #2b2b2b;");
+
+        replyQueueCombo = new ComboBox<>();
+        replyQueueCombo.getItems().addAll(mqConfig.getQueue().getIn(), mqConfig.getQueue().getOut());
+        replyQueueCombo.setValue(mqConfig.getQueue().getOut());
+        replyQueueCombo.setEditable(true);
+        replyQueueCombo.setStyle("-fx-background-color: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        replyTimeoutSpinner = createLoadSpinner(1, 600000, 5000);
+
+        addLoadField(grid, 0, 0, "Reply Queue:", replyQueueCombo);
+        addLoadField(grid, 0, 2, "Timeout (ms):", replyTimeoutSpinner);
+
+        Button runButton = createStyledButton("Run Request/Reply", "#FF9800");
+        runButton.disableProperty().bind(sendButton.disableProperty());
+        runButton.setOnAction(e -> runRequestReply());
+        grid.add(runButton, 3, 1);
+
+        roundTripLabel = new Label("");
+        roundTripLabel.setTextFill(Color.web("#b0b0b0"));
+        roundTripLabel.setFont(Font.font("Courier New", 12));
+        roundTripLabel.setWrapText(true);
+        grid.add(roundTripLabel, 0, 2, 4, 1);
+
+        TitledPane pane = new TitledPane("Request / Reply Latency", grid);
+        pane.setExpanded(false);
+        pane.setStyle("-fx-text-fill: #e0e0e0;");
+        return pane;
+    }
+
+    private Spinner<Integer> createLoadSpinner(int min, int max, int initial) {
+        Spinner<Integer> spinner = new Spinner<>(min, max, initial);
+        spinner.setEditable(true);
+        spinner.setPrefWidth(110);
+        spinner.setStyle("-fx-background-color: #3e3e3e;");
+        return spinner;
+    }
+
+    private void addLoadField(GridPane grid, int row, int column, String labelText, Control field) {
+        Label label = new Label(labelText);
+        label.setTextFill(Color.web("#b0b0b0"));
+        grid.add(label, column, row);
+        grid.add(field, column + 1, row);
+    }
+
     private VBox createReceiveMessagePanel() {
         VBox panel = new VBox(10);
         panel.setPadding(new Insets(15));
@@ -330,17 +674,198 @@ public class MainStage {
         receiveButton = createStyledButton("Receive Messages", "#FF9800");
         Button clearReceiveButton = createStyledButton("Clear", "#757575");
         
+        browseButton = createStyledButton("Browse...", "#2196F3");
+        browseButton.setTooltip(new Tooltip("Page through a queue without consuming its messages"));
+        
         receiveButton.setOnAction(e -> receiveMessages());
         clearReceiveButton.setOnAction(e -> receivedMessagesArea.clear());
+        browseButton.setOnAction(e -> new QueueBrowserWindow(browseButton.getScene().getWindow(),
+                "Browse Queue - IBM MQ", List.of(receiveQueueCombo.getValue(), mqConfig.getQueue().getIn(),
+                        mqConfig.getQueue().getOut()).stream().distinct().collect(Collectors.toList()),
+                mqService::browseQueue).show());
         
-        buttonBox.getChildren().addAll(receiveButton, clearReceiveButton);
+        buttonBox.getChildren().addAll(receiveButton, browseButton, clearReceiveButton);
+
+        // Parallel drain: N sessions empty the queue, results go to history rather than the text area
+        HBox drainBox = new HBox(10);
+        drainBox.setAlignment(Pos.CENTER_LEFT);
+        Label drainSessionsLabel = new Label("Sessions:");
+        drainSessionsLabel.setTextFill(Color.web("#b0b0b0"));
+        drainSessionsSpinner = createLoadSpinner(1, 100, 4);
+        Label drainLimitLabel = new Label("Max:");
+        drainLimitLabel.setTextFill(Color.web("#b0b0b0"));
+        drainLimitSpinner = createLoadSpinner(0, Integer.MAX_VALUE, 0);
+        drainLimitSpinner.setPrefWidth(110);
+        drainLimitSpinner.setTooltip(new Tooltip("0 drains until the queue is empty"));
+        drainCountOnlyCheckBox = new CheckBox("Count only");
+        drainCountOnlyCheckBox.setTextFill(Color.web("#b0b0b0"));
+        drainCountOnlyCheckBox.setTooltip(new Tooltip("Discard payloads instead of keeping them in history"));
+        drainButton = createStyledButton("Drain Queue", "#FF9800");
+        stopDrainButton = createStyledButton("Stop", "#f44336");
+        stopDrainButton.setDisable(true);
+        drainButton.setOnAction(e -> drainQueue());
+        stopDrainButton.setOnAction(e -> {
+            stopDrainButton.setDisable(true);
+            mqService.stopTimedRun();
+        });
+        drainBox.getChildren().addAll(drainSessionsLabel, drainSessionsSpinner, drainLimitLabel, drainLimitSpinner,
+                drainCountOnlyCheckBox, drainButton, stopDrainButton);
+
+        drainProgressLabel = new Label("");
+        drainProgressLabel.setTextFill(Color.web("#b0b0b0"));
+        drainProgressLabel.setFont(Font.font("System", 11));
+        drainProgressBar = new ProgressBar(0);
+        drainProgressBar.setMaxWidth(Double.MAX_VALUE);
+        drainProgressBar.setVisible(false);
+        drainProgressBar.setStyle("-fx-accent: #FF9800;");
+
+        TitledPane responderPane = createResponderPane();
 
         VBox.setVgrow(receivedMessagesArea, Priority.ALWAYS);
-        panel.getChildren().addAll(titleLabel, queueBox, receivedMessagesArea, buttonBox);
+        panel.getChildren().addAll(titleLabel, queueBox, receivedMessagesArea, buttonBox, drainBox,
+                drainProgressLabel, drainProgressBar, responderPane);
         
         return panel;
     }
 
+    /**
+     * Responder (stub back-end) settings: answers every request on a queue with a rendered template.
+     */
+    private TitledPane createResponderPane() {
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(10));
+        grid.setStyle("-fx-background-color: #2b2b2b;");
+
+        responderRequestQueueCombo = new ComboBox<>();
+        responderRequestQueueCombo.getItems().addAll(mqConfig.getQueue().getIn(), mqConfig.getQueue().getOut());
+        responderRequestQueueCombo.setValue(mqConfig.getQueue().getIn());
+        responderRequestQueueCombo.setEditable(true);
+        responderRequestQueueCombo.setStyle("-fx-background-color: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        responderReplyQueueCombo = new ComboBox<>();
+        responderReplyQueueCombo.getItems().addAll(mqConfig.getQueue().getIn(), mqConfig.getQueue().getOut());
+        responderReplyQueueCombo.setValue(mqConfig.getQueue().getOut());
+        responderReplyQueueCombo.setEditable(true);
+        responderReplyQueueCombo.setStyle("-fx-background-color: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        responderReplyQueueCombo.setTooltip(new Tooltip("Used when a request has no JMSReplyTo"));
+
+        responderListenersSpinner = createLoadSpinner(1, 200, 4);
+        responderLatencySpinner = createLoadSpinner(0, 600000, 0);
+        responderJitterSpinner = createLoadSpinner(0, 600000, 0);
+
+        addLoadField(grid, 0, 0, "Request Queue:", responderRequestQueueCombo);
+        addLoadField(grid, 0, 2, "Reply Queue:", responderReplyQueueCombo);
+        addLoadField(grid, 1, 0, "Listeners:", responderListenersSpinner);
+        addLoadField(grid, 1, 2, "Latency (ms):", responderLatencySpinner);
+        addLoadField(grid, 2, 0, "Jitter (ms):", responderJitterSpinner);
+
+        Label fieldsLabel = new Label("Request fields (name=XPath per line, use as ${REQ:name}):");
+        fieldsLabel.setTextFill(Color.web("#b0b0b0"));
+        responderFieldsArea = new TextArea("orderId=/*/orderId");
+        responderFieldsArea.setPrefRowCount(3);
+        responderFieldsArea.setStyle("-fx-control-inner-background: #1e1e1e; -fx-text-fill: #e0e0e0; " +
+                                     "-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
+        grid.add(fieldsLabel, 0, 3, 4, 1);
+        grid.add(responderFieldsArea, 0, 4, 4, 1);
+
+        Label templateLabel = new Label("Response template:");
+        templateLabel.setTextFill(Color.web("#b0b0b0"));
+        responderTemplateArea = new TextArea("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<response>\n"
+                + "  <orderId>${REQ:orderId}</orderId>\n  <status>ACCEPTED</status>\n"
+                + "  <reference>${UUID}</reference>\n  <timestamp>${TIMESTAMP}</timestamp>\n</response>");
+        responderTemplateArea.setPrefRowCount(6);
+        responderTemplateArea.setStyle("-fx-control-inner-background: #1e1e1e; -fx-text-fill: #e0e0e0; " +
+                                       "-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
+        grid.add(templateLabel, 0, 5, 4, 1);
+        grid.add(responderTemplateArea, 0, 6, 4, 1);
+
+        startResponderButton = createStyledButton("Start Responder", "#4CAF50");
+        stopResponderButton = createStyledButton("Stop Responder", "#f44336");
+        startResponderButton.setDisable(true);
+        stopResponderButton.setDisable(true);
+        startResponderButton.setOnAction(e -> startResponder());
+        stopResponderButton.setOnAction(e -> stopResponder());
+        responderStatsLabel = new Label("");
+        responderStatsLabel.setTextFill(Color.web("#b0b0b0"));
+        HBox responderButtons = new HBox(10, startResponderButton, stopResponderButton, responderStatsLabel);
+        responderButtons.setAlignment(Pos.CENTER_LEFT);
+        grid.add(responderButtons, 0, 7, 4, 1);
+
+        responderStatsTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
+            ResponderStats stats = mqService.getResponderStats();
+            if (stats != null) {
+                responderStatsLabel.setText(stats.summary());
+            }
+        }));
+        responderStatsTimeline.setCycleCount(Animation.INDEFINITE);
+
+        TitledPane pane = new TitledPane("Responder (Stub Back-End)", grid);
+        pane.setExpanded(false);
+        pane.setStyle("-fx-text-fill: #e0e0e0;");
+        return pane;
+    }
+
+    private void startResponder() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (String line : responderFieldsArea.getText().split("\\R")) {
+            String trimmed = line.trim();
+            int equals = trimmed.indexOf('=');
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (equals <= 0) {
+                showAlert("Error", "Field lines must look like name=XPath: " + trimmed, Alert.AlertType.ERROR);
+                return;
+            }
+            fields.put(trimmed.substring(0, equals).trim(), trimmed.substring(equals + 1).trim());
+        }
+        ResponderConfig config = ResponderConfig.builder()
+                .requestQueue(responderRequestQueueCombo.getValue())
+                .replyQueue(responderReplyQueueCombo.getValue())
+                .responseTemplate(responderTemplateArea.getText())
+                .listenerCount(responderListenersSpinner.getValue())
+                .latencyMs(responderLatencySpinner.getValue())
+                .latencyJitterMs(responderJitterSpinner.getValue())
+                .fields(fields)
+                .build();
+
+        startResponderButton.setDisable(true);
+        new Thread(() -> {
+            try {
+                mqService.startResponder(config);
+                Platform.runLater(() -> {
+                    stopResponderButton.setDisable(false);
+                    responderStatsTimeline.play();
+                    showStatus("Responder answering requests on " + config.getRequestQueue(), "#4CAF50");
+                });
+            } catch (JMSException | RuntimeException e) {
+                log.error("Failed to start responder", e);
+                Platform.runLater(() -> {
+                    showAlert("Responder Error", "Failed to start responder: " + e.getMessage(), Alert.AlertType.ERROR);
+                    startResponderButton.setDisable(!mqService.isConnected());
+                });
+            }
+        }, "responder-start").start();
+    }
+
+    private void stopResponder() {
+        stopResponderButton.setDisable(true);
+        responderStatsTimeline.stop();
+        new Thread(() -> {
+            ResponderStats stats = mqService.getResponderStats();
+            // Waits for replies still held back by artificial latency
+            mqService.stopResponder();
+            Platform.runLater(() -> {
+                startResponderButton.setDisable(!mqService.isConnected());
+                if (stats != null) {
+                    responderStatsLabel.setText(stats.summary());
+                    showStatus("Responder stopped: " + stats.summary(), "#4CAF50");
+                }
+            });
+        }, "responder-stop").start();
+    }
+
     private HBox createStatusPanel() {
         HBox panel = new HBox();
         panel.setPadding(new Insets(10));
@@ -385,21 +910,36 @@ public class MainStage {
             return;
         }
 
-        boolean isValid = XmlUtil.isValidXml(xml);
-        if (isValid) {
+        String error = XmlUtil.getXmlError(xml);
+        Schema contract = mqService.getContractSchema();
+        // Checked on one rendering; runs validate every message they render
+        String contractError = error == null && contract != null
+                ? XmlUtil.getSchemaError(TemplateUtil.replacePlaceholders(xml), contract) : null;
+        showValidation(error, contract != null, contractError, error == null && TemplateUtil.hasPlaceholders(xml));
+    }
+
+    private void showValidation(String error, boolean contractSet, String contractError, boolean hasPlaceholders) {
+        if (error == null) {
             validationLabel.setText("✓ Valid XML");
             validationLabel.setTextFill(Color.web("#4CAF50"));
             sendButton.setDisable(!mqService.isConnected());
+            if (contractSet) {
+                if (contractError == null) {
+                    validationLabel.setText("✓ Valid XML, matches contract");
+                } else {
+                    validationLabel.setText("⚠ Does not match contract: " + contractError);
+                    validationLabel.setTextFill(Color.web("#FF9800"));
+                }
+            }
             
             // Check for template variables
-            if (TemplateUtil.hasPlaceholders(xml)) {
+            if (hasPlaceholders) {
                 templateInfoLabel.setText("ℹ Dynamic parameters detected - each message will have unique values");
                 templateInfoLabel.setTextFill(Color.web("#FF9800"));
             } else {
                 templateInfoLabel.setText("");
             }
         } else {
-            String error = XmlUtil.getXmlError(xml);
             validationLabel.setText("✗ " + error);
             validationLabel.setTextFill(Color.web("#f44336"));
             templateInfoLabel.setText("");
@@ -407,7 +947,214 @@ public class MainStage {
         }
     }
 
+    private void onEditorChanged(String text) {
+        if (showingPage) {
+            return;
+        }
+        if (text != null && text.length() > LARGE_XML_CHARS) {
+            // A huge paste: switch to the paged view, which cannot happen inside this change event
+            Platform.runLater(() -> loadLargePayload(text));
+            return;
+        }
+        validateXml(text);
+    }
+
+    private void revalidatePayload() {
+        if (largePayload != null) {
+            checkLargePayload();
+        } else {
+            validateXml(xmlInputArea.getText());
+        }
+    }
+
+    /**
+     * The payload to send: the large one behind the paged view, else the editor text.
+     */
+    private String currentXml() {
+        return largePayload != null ? largePayload : xmlInputArea.getText();
+    }
+
+    private boolean isPayloadValid(String xml) {
+        if (xml != null && xml == largePayload) {
+            // Checked in the background when it was loaded
+            return largePayloadChecked && largePayloadError == null;
+        }
+        return XmlUtil.isValidXml(xml);
+    }
+
+    /**
+     * Holds a payload too large for the editor and shows it a page at a time, read-only,
+     * while it is checked in the background.
+     */
+    private void loadLargePayload(String xml) {
+        largePayload = xml;
+        largePayloadChecked = false;
+        largePayloadError = null;
+        xmlInputArea.setEditable(false);
+        pagerBox.setVisible(true);
+        pagerBox.setManaged(true);
+        showPayloadPage(0);
+        checkLargePayload();
+    }
+
+    private void showPayloadPage(int page) {
+        int pages = (largePayload.length() + PAGE_CHARS - 1) / PAGE_CHARS;
+        payloadPage = Math.max(0, Math.min(page, pages - 1));
+        int start = payloadPage * PAGE_CHARS;
+        showingPage = true;
+        try {
+            xmlInputArea.setText(largePayload.substring(start, Math.min(largePayload.length(), start + PAGE_CHARS)));
+        } finally {
+            showingPage = false;
+        }
+        xmlInputArea.positionCaret(0);
+        pageLabel.setText(String.format("Page %,d of %,d - %,d characters, read-only", payloadPage + 1, pages,
+                largePayload.length()));
+        prevPageButton.setDisable(payloadPage == 0);
+        nextPageButton.setDisable(payloadPage >= pages - 1);
+    }
+
+    /**
+     * Drops any large payload and empties the editor.
+     */
+    private void clearPayload() {
+        largePayload = null;
+        largePayloadChecked = false;
+        largePayloadError = null;
+        xmlInputArea.setEditable(true);
+        pagerBox.setVisible(false);
+        pagerBox.setManaged(false);
+        showXmlTaskProgress(false);
+        xmlInputArea.clear();
+    }
+
+    private void checkLargePayload() {
+        String payload = largePayload;
+        Schema contract = mqService.getContractSchema();
+        sendButton.setDisable(true);
+        validationLabel.setText(String.format("Checking %,d characters...", payload.length()));
+        validationLabel.setTextFill(Color.web("#b0b0b0"));
+        templateInfoLabel.setText("");
+        showXmlTaskProgress(true);
+
+        new Thread(() -> {
+            String error = StreamingXml.getXmlError(new StringReader(payload), read -> updateXmlTaskProgress(payload, read));
+            String contractError = error == null && contract != null
+                    ? XmlUtil.getSchemaError(TemplateUtil.replacePlaceholders(payload), contract) : null;
+            boolean hasPlaceholders = error == null && TemplateUtil.hasPlaceholders(payload);
+            Platform.runLater(() -> {
+                if (payload != largePayload) {
+                    // Replaced or cleared while this ran
+                    return;
+                }
+                showXmlTaskProgress(false);
+                largePayloadChecked = true;
+                largePayloadError = error;
+                showValidation(error, contract != null, contractError, hasPlaceholders);
+            });
+        }, "xml-check").start();
+    }
+
+    private void updateXmlTaskProgress(String payload, long charsRead) {
+        Platform.runLater(() -> {
+            if (payload == largePayload) {
+                xmlTaskProgressBar.setProgress((double) charsRead / payload.length());
+            }
+        });
+    }
+
+    private void showXmlTaskProgress(boolean visible) {
+        xmlTaskProgressBar.setProgress(0);
+        xmlTaskProgressBar.setVisible(visible);
+        xmlTaskProgressBar.setManaged(visible);
+    }
+
+    private void openXmlFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Open XML Payload");
+        chooser.getExtensionFilters().addAll(new FileChooser.ExtensionFilter("XML files", "*.xml"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showOpenDialog(xmlInputArea.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        showStatus("Reading " + file.getName() + "...", "#FF9800");
+        new Thread(() -> {
+            try {
+                String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+                Platform.runLater(() -> {
+                    clearPayload();
+                    if (content.length() > LARGE_XML_CHARS) {
+                        loadLargePayload(content);
+                    } else {
+                        xmlInputArea.setText(content);
+                    }
+                    showStatus(String.format("Loaded %s (%,d characters)", file.getName(), content.length()), "#4CAF50");
+                });
+            } catch (IOException e) {
+                log.error("Failed to read {}", file, e);
+                Platform.runLater(() ->
+                    showAlert("Error", "Failed to read " + file.getName() + ": " + e.getMessage(), Alert.AlertType.ERROR));
+            }
+        }, "xml-open").start();
+    }
+
+    private void loadContractSchema() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Load Contract XSD");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("XML Schema", "*.xsd"));
+        File file = chooser.showOpenDialog(contractLabel.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            mqService.setContractSchema(XmlUtil.loadSchema(file.toPath()));
+            contractLabel.setText(file.getName());
+            revalidatePayload();
+        } catch (Exception e) {
+            log.error("Failed to load schema {}", file, e);
+            showAlert("Schema Error", "Failed to load " + file.getName() + ": " + e.getMessage(), Alert.AlertType.ERROR);
+        }
+    }
+
+    private void loadDataFeed(DataFeed.Order order) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Load Data File");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV or JSON Lines", "*.csv", "*.jsonl", "*.ndjson"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = chooser.showOpenDialog(dataFeedLabel.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        dataFeedLabel.setText("Indexing " + file.getName() + "...");
+        // Indexing scans the whole file once; millions of rows take a moment
+        new Thread(() -> {
+            try {
+                DataFeed feed = DataFeed.open(file.toPath(), order);
+                Platform.runLater(() -> {
+                    TemplateUtil.setDataFeed(feed);
+                    dataFeedLabel.setText(String.format("%s - %,d rows, columns %s", file.getName(),
+                            feed.getRowCount(), String.join(", ", feed.getColumns())));
+                    revalidatePayload();
+                });
+            } catch (Exception e) {
+                log.error("Failed to load data file {}", file, e);
+                Platform.runLater(() -> {
+                    DataFeed current = TemplateUtil.getDataFeed();
+                    dataFeedLabel.setText(current == null ? "None" : current.getFile().getFileName().toString());
+                    showAlert("Data File Error", "Failed to load " + file.getName() + ": " + e.getMessage(),
+                            Alert.AlertType.ERROR);
+                });
+            }
+        }, "data-feed").start();
+    }
+
     private void beautifyXml() {
+        if (largePayload != null) {
+            beautifyLargePayload();
+            return;
+        }
         String xml = xmlInputArea.getText();
         if (xml == null || xml.trim().isEmpty()) {
             showAlert("Error", "Please enter XML content first", Alert.AlertType.WARNING);
@@ -423,13 +1170,46 @@ public class MainStage {
         }
     }
 
+    /**
+     * Re-indents the large payload with the streaming printer off the FX thread, then pages the result.
+     */
+    private void beautifyLargePayload() {
+        String payload = largePayload;
+        beautifyButton.setDisable(true);
+        showXmlTaskProgress(true);
+        showStatus(String.format("Beautifying %,d characters...", payload.length()), "#FF9800");
+
+        new Thread(() -> {
+            try {
+                StringWriter out = new StringWriter(payload.length() + payload.length() / 2);
+                StreamingXml.prettyPrint(new StringReader(payload), out, 4, read -> updateXmlTaskProgress(payload, read));
+                String beautified = out.toString();
+                Platform.runLater(() -> {
+                    beautifyButton.setDisable(false);
+                    if (payload == largePayload) {
+                        loadLargePayload(beautified);
+                        showStatus("XML beautified successfully", "#4CAF50");
+                    }
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    beautifyButton.setDisable(false);
+                    if (payload == largePayload) {
+                        showXmlTaskProgress(false);
+                    }
+                    showAlert("Error", "Failed to beautify XML: " + e.getMessage(), Alert.AlertType.ERROR);
+                });
+            }
+        }, "xml-beautify").start();
+    }
+
     private void connectToMq() {
         new Thread(() -> {
             try {
                 mqService.connect();
                 Platform.runLater(() -> {
                     updateConnectionState(true);
-                    showStatus("Connected to IBM MQ", "#4CAF50");
+                    showStatus("Connected to " + mqService.getProviderDescription(), "#4CAF50");
                 });
             } catch (JMSException e) {
                 log.error("Connection failed", e);
@@ -446,12 +1226,14 @@ public class MainStage {
     }
 
     private void sendMessage() {
-        String xml = xmlInputArea.getText();
+        String xml = currentXml();
         String queue = sendQueueCombo.getValue();
         int messageCount = messageCountSpinner.getValue();
         int threadCount = threadCountSpinner.getValue();
+        int batchSize = batchSizeSpinner.getValue();
+        int asyncWindow = asyncWindowSpinner.getValue();
 
-        if (!XmlUtil.isValidXml(xml)) {
+        if (!isPayloadValid(xml)) {
             showAlert("Error", "Invalid XML content", Alert.AlertType.ERROR);
             return;
         }
@@ -460,57 +1242,315 @@ public class MainStage {
         sendButton.setDisable(true);
         messageCountSpinner.setDisable(true);
         threadCountSpinner.setDisable(true);
+        batchSizeSpinner.setDisable(true);
+        asyncWindowSpinner.setDisable(true);
         sendProgressBar.setVisible(true);
         sendProgressBar.setProgress(0);
         progressLabel.setText(String.format("Sending 0/%d messages...", messageCount));
+
+        // Workers only bump counters; the monitor samples them on the FX thread
+        SendProgress progress = new SendProgress();
+        progress.start(messageCount);
+        ProgressMonitor progressMonitor = new ProgressMonitor(progress, sendProgressBar, progressLabel);
+        progressMonitor.start();
         
         new Thread(() -> {
             try {
-                mqService.sendMessagesMultiThreaded(queue, xml, messageCount, threadCount, 
-                    (sent, total) -> {
-                        // Progress callback
-                        Platform.runLater(() -> {
-                            double progress = (double) sent / total;
-                            sendProgressBar.setProgress(progress);
-                            progressLabel.setText(String.format("Sending %d/%d messages...", sent, total));
-                        });
-                    });
+                SendStats stats = mqService.sendMessagesMultiThreaded(queue, xml, messageCount, threadCount, batchSize,
+                    asyncWindow, progress);
                 
                 Platform.runLater(() -> {
-                    showStatus(String.format("Successfully sent %d messages to %s using %d threads", 
-                        messageCount, queue, threadCount), "#4CAF50");
+                    progressMonitor.stop();
+                    showStatus(String.format("Sent to %s using %d threads: %s",
+                        queue, threadCount, stats.summary()), "#4CAF50");
                     updateHistoryList();
                     sendProgressBar.setVisible(false);
                     progressLabel.setText("");
                     sendButton.setDisable(!mqService.isConnected());
                     messageCountSpinner.setDisable(false);
                     threadCountSpinner.setDisable(false);
+                    batchSizeSpinner.setDisable(false);
+                    asyncWindowSpinner.setDisable(false);
                 });
             } catch (JMSException e) {
                 log.error("Failed to send messages", e);
                 Platform.runLater(() -> {
+                    progressMonitor.stop();
                     showAlert("Send Error", "Failed to send messages: " + e.getMessage(), Alert.AlertType.ERROR);
                     sendProgressBar.setVisible(false);
                     progressLabel.setText("");
                     sendButton.setDisable(!mqService.isConnected());
                     messageCountSpinner.setDisable(false);
                     threadCountSpinner.setDisable(false);
+                    batchSizeSpinner.setDisable(false);
+                    asyncWindowSpinner.setDisable(false);
                 });
             } catch (InterruptedException e) {
                 log.error("Message sending interrupted", e);
                 Thread.currentThread().interrupt();
                 Platform.runLater(() -> {
+                    progressMonitor.stop();
                     showAlert("Send Error", "Message sending was interrupted", Alert.AlertType.ERROR);
                     sendProgressBar.setVisible(false);
                     progressLabel.setText("");
                     sendButton.setDisable(!mqService.isConnected());
                     messageCountSpinner.setDisable(false);
                     threadCountSpinner.setDisable(false);
+                    batchSizeSpinner.setDisable(false);
+                    asyncWindowSpinner.setDisable(false);
                 });
             }
         }).start();
     }
 
+    private void runRequestReply() {
+        String xml = currentXml();
+        String queue = sendQueueCombo.getValue();
+        String replyQueue = replyQueueCombo.getValue();
+        int messageCount = messageCountSpinner.getValue();
+        int threadCount = threadCountSpinner.getValue();
+        long timeoutMs = replyTimeoutSpinner.getValue();
+
+        if (!isPayloadValid(xml)) {
+            showAlert("Error", "Invalid XML content", Alert.AlertType.ERROR);
+            return;
+        }
+        if (replyQueue == null || replyQueue.isBlank()) {
+            showAlert("Error", "Reply queue cannot be empty", Alert.AlertType.ERROR);
+            return;
+        }
+
+        sendButton.setDisable(true);
+        sendProgressBar.setVisible(true);
+        sendProgressBar.setProgress(0);
+        roundTripLabel.setText("");
+        SendProgress progress = new SendProgress();
+        progress.start(messageCount);
+        ProgressMonitor progressMonitor = new ProgressMonitor(progress, sendProgressBar, progressLabel);
+        progressMonitor.start();
+
+        new Thread(() -> {
+            try {
+                RoundTripStats stats = mqService.runRequestReply(queue, replyQueue.trim(), xml, messageCount,
+                    threadCount, timeoutMs, progress);
+                Platform.runLater(() -> {
+                    progressMonitor.stop();
+                    roundTripLabel.setText(String.format(
+                        "Replies %,d/%,d  timeouts %,d  unmatched %,d  errors %,d%n"
+                            + "p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  p99.9 %.2f ms  max %.2f ms",
+                        stats.getReplies(), stats.getRequests(), stats.getTimeouts(), stats.getUnmatched(),
+                        stats.getErrors(), stats.getP50Ms(), stats.getP90Ms(), stats.getP99Ms(),
+                        stats.getP999Ms(), stats.getMaxMs()));
+                    showStatus(String.format("Request/reply on %s → %s: %s", queue, replyQueue, stats.summary()),
+                        stats.getTimeouts() + stats.getErrors() > 0 ? "#FF9800" : "#4CAF50");
+                    updateHistoryList();
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                });
+            } catch (JMSException e) {
+                log.error("Request/reply run failed", e);
+                Platform.runLater(() -> {
+                    progressMonitor.stop();
+                    showAlert("Request/Reply Error", "Request/reply run failed: " + e.getMessage(), Alert.AlertType.ERROR);
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                });
+            } catch (InterruptedException e) {
+                log.error("Request/reply run interrupted", e);
+                Thread.currentThread().interrupt();
+                Platform.runLater(() -> {
+                    progressMonitor.stop();
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                });
+            }
+        }, "request-reply-run").start();
+    }
+
+    private void runLoad() {
+        String xml = currentXml();
+        String queue = sendQueueCombo.getValue();
+        int threadCount = threadCountSpinner.getValue();
+        int batchSize = batchSizeSpinner.getValue();
+        LoadProfile profile = LoadProfile.builder()
+                .shape(loadShapeCombo.getValue())
+                .durationSeconds(loadDurationSpinner.getValue())
+                .baseRate(loadBaseRateSpinner.getValue())
+                .peakRate(loadPeakRateSpinner.getValue())
+                .phaseSeconds(loadPhaseSpinner.getValue())
+                .spikeSeconds(loadSpikeSpinner.getValue())
+                .steps(loadStepsSpinner.getValue())
+                .build();
+
+        if (!isPayloadValid(xml)) {
+            showAlert("Error", "Invalid XML content", Alert.AlertType.ERROR);
+            return;
+        }
+
+        sendButton.setDisable(true);
+        stopRunButton.setDisable(false);
+        sendProgressBar.setVisible(true);
+        sendProgressBar.setProgress(0);
+        progressLabel.setText("Starting load: " + profile.describe());
+
+        new Thread(() -> {
+            try {
+                SendStats stats = mqService.runLoad(queue, xml, profile, threadCount, batchSize,
+                    sample -> Platform.runLater(() -> {
+                        sendProgressBar.setProgress((double) sample.getElapsedSeconds() / profile.getDurationSeconds());
+                        progressLabel.setText(String.format(
+                            "%ds/%ds  target %.0f msg/s  achieved %.0f msg/s  backlog %,d  sent %,d  errors %,d",
+                            sample.getElapsedSeconds(), profile.getDurationSeconds(), sample.getTargetRate(),
+                            sample.getAchievedRate(), sample.getBacklog(), sample.getSent(), sample.getErrors()));
+                    }));
+
+                Platform.runLater(() -> {
+                    showStatus(String.format("Load run on %s (%s): %s", queue, profile.describe(), stats.summary()),
+                        stats.getErrors() > 0 ? "#FF9800" : "#4CAF50");
+                    updateHistoryList();
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                    stopRunButton.setDisable(true);
+                });
+            } catch (JMSException e) {
+                log.error("Load run failed", e);
+                Platform.runLater(() -> {
+                    showAlert("Load Error", "Load run failed: " + e.getMessage(), Alert.AlertType.ERROR);
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                    stopRunButton.setDisable(true);
+                });
+            } catch (InterruptedException e) {
+                log.error("Load run interrupted", e);
+                Thread.currentThread().interrupt();
+                Platform.runLater(() -> {
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                    stopRunButton.setDisable(true);
+                });
+            }
+        }, "load-run").start();
+    }
+
+    private void runSoak() {
+        String xml = currentXml();
+        String queue = sendQueueCombo.getValue();
+        int threadCount = threadCountSpinner.getValue();
+        int batchSize = batchSizeSpinner.getValue();
+        long durationSeconds = soakDurationSpinner.getValue() * 60L;
+        int rate = soakRateSpinner.getValue();
+        int snapshotSeconds = soakSnapshotSpinner.getValue();
+
+        if (!isPayloadValid(xml)) {
+            showAlert("Error", "Invalid XML content", Alert.AlertType.ERROR);
+            return;
+        }
+
+        sendButton.setDisable(true);
+        stopRunButton.setDisable(false);
+        sendProgressBar.setVisible(true);
+        // Indeterminate while open-ended
+        sendProgressBar.setProgress(durationSeconds > 0 ? 0 : ProgressBar.INDETERMINATE_PROGRESS);
+        progressLabel.setText("Starting soak run...");
+
+        new Thread(() -> {
+            try {
+                SendStats stats = mqService.runSoak(queue, xml, durationSeconds, threadCount, batchSize, rate,
+                    snapshotSeconds, snapshot -> Platform.runLater(() -> {
+                        if (durationSeconds > 0) {
+                            sendProgressBar.setProgress((double) snapshot.getElapsedSeconds() / durationSeconds);
+                        }
+                        progressLabel.setText("Soak " + snapshot.summary());
+                    }));
+
+                Platform.runLater(() -> {
+                    showStatus(String.format("Soak run on %s: %s", queue, stats.summary()),
+                        stats.getErrors() > 0 ? "#FF9800" : "#4CAF50");
+                    updateHistoryList();
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                    stopRunButton.setDisable(true);
+                });
+            } catch (JMSException e) {
+                log.error("Soak run failed", e);
+                Platform.runLater(() -> {
+                    showAlert("Soak Error", "Soak run failed: " + e.getMessage(), Alert.AlertType.ERROR);
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                    stopRunButton.setDisable(true);
+                });
+            } catch (InterruptedException e) {
+                log.error("Soak run interrupted", e);
+                Thread.currentThread().interrupt();
+                Platform.runLater(() -> {
+                    sendProgressBar.setVisible(false);
+                    progressLabel.setText("");
+                    sendButton.setDisable(!mqService.isConnected());
+                    stopRunButton.setDisable(true);
+                });
+            }
+        }, "soak-run").start();
+    }
+
+    private void drainQueue() {
+        String queue = receiveQueueCombo.getValue();
+        int sessions = drainSessionsSpinner.getValue();
+        long limit = drainLimitSpinner.getValue();
+        boolean countOnly = drainCountOnlyCheckBox.isSelected();
+
+        drainButton.setDisable(true);
+        receiveButton.setDisable(true);
+        stopDrainButton.setDisable(false);
+        drainProgressBar.setProgress(limit > 0 ? 0 : ProgressBar.INDETERMINATE_PROGRESS);
+        drainProgressBar.setVisible(true);
+        drainProgressLabel.setText("Draining " + queue + "...");
+
+        SendProgress progress = new SendProgress();
+        ProgressMonitor progressMonitor = new ProgressMonitor(progress, drainProgressBar, drainProgressLabel,
+                "Draining", "Drained");
+        progressMonitor.start();
+
+        new Thread(() -> {
+            try {
+                DrainStats stats = mqService.drainQueue(queue, sessions, limit, countOnly, progress);
+                Platform.runLater(() -> {
+                    progressMonitor.stop();
+                    drainProgressBar.setVisible(false);
+                    drainProgressLabel.setText(stats.summary());
+                    receivedMessagesArea.appendText("\n[" + java.time.LocalDateTime.now().format(TIME_FORMATTER) + "] "
+                            + stats.summary() + "\n");
+                    showStatus(stats.summary(), stats.getErrors() > 0 ? "#FF9800" : "#4CAF50");
+                    if (!countOnly) {
+                        updateHistoryList();
+                    }
+                });
+            } catch (JMSException e) {
+                log.error("Failed to drain queue", e);
+                Platform.runLater(() -> {
+                    progressMonitor.stop();
+                    drainProgressBar.setVisible(false);
+                    drainProgressLabel.setText("");
+                    showAlert("Drain Error", "Failed to drain queue: " + e.getMessage(), Alert.AlertType.ERROR);
+                });
+            } finally {
+                Platform.runLater(() -> {
+                    boolean connected = mqService.isConnected();
+                    drainButton.setDisable(!connected);
+                    receiveButton.setDisable(!connected);
+                    stopDrainButton.setDisable(true);
+                });
+            }
+        }, "queue-drain").start();
+    }
+
     private void receiveMessages() {
         String queue = receiveQueueCombo.getValue();
         
@@ -551,8 +1591,8 @@ public class MainStage {
     }
 
     private void updateHistoryList() {
-        historyListView.getItems().clear();
         List<MqMessage> history = mqService.getMessageHistory();
+        List<String> items = new java.util.ArrayList<>(history.size());
         for (MqMessage msg : history) {
             String icon = msg.getType() == MqMessage.MessageType.SENT ? "→" : "←";
             String item = String.format("%s %s [%s] %s", 
@@ -560,19 +1600,29 @@ public class MainStage {
                 msg.getTimestamp().format(TIME_FORMATTER),
                 msg.getQueue(),
                 msg.getType());
-            historyListView.getItems().add(item);
+            items.add(item);
         }
+        // One list change instead of one per entry; the history can hold thousands
+        historyListView.getItems().setAll(items);
     }
 
     private void updateConnectionState(boolean connected) {
         connectButton.setDisable(connected);
         disconnectButton.setDisable(!connected);
-        sendButton.setDisable(!connected || !XmlUtil.isValidXml(xmlInputArea.getText()));
+        sendButton.setDisable(!connected || !isPayloadValid(currentXml()));
         receiveButton.setDisable(!connected);
+        benchmarkButton.setDisable(!connected);
+        browseButton.setDisable(!connected);
+        drainButton.setDisable(!connected);
+        startResponderButton.setDisable(!connected || mqService.isResponderRunning());
+        stopResponderButton.setDisable(!connected || !mqService.isResponderRunning());
+        if (!connected) {
+            responderStatsTimeline.stop();
+        }
         beautifyButton.setDisable(false);
         
         if (connected) {
-            statusLabel.setText("Connected to " + mqConfig.getQueueManager());
+            statusLabel.setText("Connected to " + mqService.getProviderDescription());
             statusLabel.setTextFill(Color.web("#4CAF50"));
         } else {
             statusLabel.setText("Disconnected");
@@ -616,6 +1666,14 @@ public class MainStage {
         configForm.setPadding(new Insets(15));
         configForm.setStyle("-fx-background-color: #1e1e1e; -fx-background-radius: 5;");
 
+        // Profile Name
+        Label profileLabel = new Label("Profile Name:");
+        profileLabel.setTextFill(Color.web("#b0b0b0"));
+        TextField profileField = new TextField();
+        profileField.setPromptText("Defaults to the queue manager");
+        profileField.setStyle("-fx-control-inner-background: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        profileField.setMaxWidth(Double.MAX_VALUE);
+
         // Queue Manager
         Label qmLabel = new Label("Queue Manager:");
         qmLabel.setTextFill(Color.web("#b0b0b0"));
@@ -656,17 +1714,40 @@ public class MainStage {
         passwordField.setStyle("-fx-control-inner-background: #3e3e3e; -fx-text-fill: #e0e0e0;");
         passwordField.setMaxWidth(Double.MAX_VALUE);
 
+        // Pooled sessions per profile
+        Label sessionsLabel = new Label("Sessions:");
+        sessionsLabel.setTextFill(Color.web("#b0b0b0"));
+        Spinner<Integer> sessionsSpinner = createLoadSpinner(1, 100, 4);
+
+        // Connected profiles; send, receive and disconnect act on the selected ones (all when none is selected)
+        Label profilesLabel = new Label("Connected Profiles:");
+        profilesLabel.setTextFill(Color.web("#b0b0b0"));
+        dynamicProfileList = new ListView<>();
+        dynamicProfileList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        dynamicProfileList.setPrefHeight(150);
+        dynamicProfileList.setStyle("-fx-control-inner-background: #3e3e3e;");
+        VBox profilesBox = new VBox(5, profilesLabel, dynamicProfileList);
+
         // Add to grid
-        configForm.add(qmLabel, 0, 0);
-        configForm.add(qmField, 1, 0);
-        configForm.add(channelLabel, 0, 1);
-        configForm.add(channelField, 1, 1);
-        configForm.add(connLabel, 0, 2);
-        configForm.add(connField, 1, 2);
-        configForm.add(userLabel, 0, 3);
-        configForm.add(userField, 1, 3);
-        configForm.add(passwordLabel, 0, 4);
-        configForm.add(passwordField, 1, 4);
+        configForm.add(profileLabel, 0, 0);
+        configForm.add(profileField, 1, 0);
+        configForm.add(qmLabel, 0, 1);
+        configForm.add(qmField, 1, 1);
+        configForm.add(channelLabel, 0, 2);
+        configForm.add(channelField, 1, 2);
+        configForm.add(connLabel, 0, 3);
+        configForm.add(connField, 1, 3);
+        configForm.add(userLabel, 0, 4);
+        configForm.add(userField, 1, 4);
+        configForm.add(passwordLabel, 0, 5);
+        configForm.add(passwordField, 1, 5);
+        configForm.add(sessionsLabel, 0, 6);
+        configForm.add(sessionsSpinner, 1, 6);
+        configForm.add(profilesBox, 2, 0, 1, 7);
+        ColumnConstraints fieldColumn = new ColumnConstraints();
+        fieldColumn.setHgrow(Priority.ALWAYS);
+        ColumnConstraints profilesColumn = new ColumnConstraints(250);
+        configForm.getColumnConstraints().addAll(new ColumnConstraints(), fieldColumn, profilesColumn);
 
         // Buttons
         HBox buttonBox = new HBox(10);
@@ -707,14 +1788,9 @@ public class MainStage {
 
         // Event Handlers
         testButton.setOnAction(e -> {
-            String qm = qmField.getText().trim();
-            String channel = channelField.getText().trim();
-            String conn = connField.getText().trim();
-            String user = userField.getText().trim();
-            String password = passwordField.getText();
-
-            if (qm.isEmpty() || channel.isEmpty() || conn.isEmpty()) {
-                showAlert("Validation Error", "Please fill in Queue Manager, Channel, and Connection fields", Alert.AlertType.WARNING);
+            ConnectionProfile profile = readProfile(profileField, qmField, channelField, connField, userField,
+                    passwordField, sessionsSpinner);
+            if (profile == null) {
                 return;
             }
 
@@ -722,7 +1798,7 @@ public class MainStage {
             dynamicStatusLabel.setTextFill(Color.web("#FF9800"));
 
             new Thread(() -> {
-                boolean success = dynamicMqService.testConnection(qm, channel, conn, user, password);
+                boolean success = dynamicMqService.testConnection(profile);
                 Platform.runLater(() -> {
                     if (success) {
                         dynamicStatusLabel.setText("✓ Connection test successful");
@@ -738,33 +1814,26 @@ public class MainStage {
         });
 
         dynamicConnectButton.setOnAction(e -> {
-            String qm = qmField.getText().trim();
-            String channel = channelField.getText().trim();
-            String conn = connField.getText().trim();
-            String user = userField.getText().trim();
-            String password = passwordField.getText();
-
-            if (qm.isEmpty() || channel.isEmpty() || conn.isEmpty()) {
-                showAlert("Validation Error", "Please fill in Queue Manager, Channel, and Connection fields", Alert.AlertType.WARNING);
+            ConnectionProfile profile = readProfile(profileField, qmField, channelField, connField, userField,
+                    passwordField, sessionsSpinner);
+            if (profile == null) {
                 return;
             }
 
             new Thread(() -> {
                 try {
-                    dynamicMqService.connect(qm, channel, conn, user, password);
+                    dynamicMqService.connect(profile);
                     Platform.runLater(() -> {
-                        dynamicStatusLabel.setText("Connected to " + qm);
-                        dynamicStatusLabel.setTextFill(Color.web("#4CAF50"));
-                        dynamicConnectButton.setDisable(true);
+                        refreshDynamicProfiles(dynamicStatusLabel);
                         dynamicDisconnectButton.setDisable(false);
-                        testButton.setDisable(true);
-                        updateDynamicButtonStates(true);
-                        showAlert("Success", "Connected to IBM MQ successfully!", Alert.AlertType.INFORMATION);
+                        profileField.clear();
+                        showAlert("Success", "Connected " + profile.describe(), Alert.AlertType.INFORMATION);
                     });
                 } catch (JMSException ex) {
                     log.error("Connection failed", ex);
                     Platform.runLater(() -> {
-                        dynamicStatusLabel.setText("Connection failed");
+                        refreshDynamicProfiles(dynamicStatusLabel);
+                        dynamicStatusLabel.setText("Connection failed for " + profile.getName());
                         dynamicStatusLabel.setTextFill(Color.web("#f44336"));
                         showAlert("Connection Error", "Failed to connect: " + ex.getMessage(), Alert.AlertType.ERROR);
                     });
@@ -773,13 +1842,11 @@ public class MainStage {
         });
 
         dynamicDisconnectButton.setOnAction(e -> {
-            dynamicMqService.disconnect();
-            dynamicStatusLabel.setText("Disconnected");
-            dynamicStatusLabel.setTextFill(Color.web("#f44336"));
-            dynamicConnectButton.setDisable(false);
-            dynamicDisconnectButton.setDisable(true);
-            testButton.setDisable(false);
-            updateDynamicButtonStates(false);
+            for (String name : selectedDynamicProfiles()) {
+                dynamicMqService.disconnect(name);
+            }
+            refreshDynamicProfiles(dynamicStatusLabel);
+            dynamicDisconnectButton.setDisable(!dynamicMqService.isConnected());
         });
 
         return mainLayout;
@@ -831,6 +1898,26 @@ public class MainStage {
         
         buttonBox.getChildren().addAll(dynamicBeautifyButton, dynamicSendButton, clearButton);
 
+        // Fan-out: the same load through every selected profile at once
+        HBox fanOutBox = new HBox(10);
+        fanOutBox.setAlignment(Pos.CENTER_LEFT);
+        Label fanOutMessagesLabel = new Label("Messages/profile:");
+        fanOutMessagesLabel.setTextFill(Color.web("#b0b0b0"));
+        Spinner<Integer> fanOutMessagesSpinner = createLoadSpinner(1, 1000000, 1000);
+        Label fanOutThreadsLabel = new Label("Threads/profile:");
+        fanOutThreadsLabel.setTextFill(Color.web("#b0b0b0"));
+        Spinner<Integer> fanOutThreadsSpinner = createLoadSpinner(1, 100, 4);
+        dynamicFanOutButton = createStyledButton("Run Fan-out", "#9C27B0");
+        dynamicFanOutButton.setDisable(true);
+        fanOutBox.getChildren().addAll(fanOutMessagesLabel, fanOutMessagesSpinner, fanOutThreadsLabel,
+                fanOutThreadsSpinner, dynamicFanOutButton);
+
+        ProgressBar fanOutProgressBar = new ProgressBar(0);
+        fanOutProgressBar.setMaxWidth(Double.MAX_VALUE);
+        fanOutProgressBar.setVisible(false);
+        Label fanOutProgressLabel = new Label("");
+        fanOutProgressLabel.setTextFill(Color.web("#b0b0b0"));
+
         // Result area
         Label resultLabel = new Label("Result:");
         resultLabel.setTextFill(Color.web("#b0b0b0"));
@@ -842,7 +1929,8 @@ public class MainStage {
         addCopyContextMenu(resultArea);
 
         VBox.setVgrow(dynamicXmlInput, Priority.ALWAYS);
-        panel.getChildren().addAll(titleLabel, queueBox, xmlLabel, dynamicXmlInput, dynamicValidationLabel, buttonBox, resultLabel, resultArea);
+        panel.getChildren().addAll(titleLabel, queueBox, xmlLabel, dynamicXmlInput, dynamicValidationLabel, buttonBox,
+                fanOutBox, fanOutProgressBar, fanOutProgressLabel, resultLabel, resultArea);
 
         // Event handlers
         dynamicXmlInput.textProperty().addListener((obs, oldVal, newVal) -> {
@@ -895,12 +1983,15 @@ public class MainStage {
                 return;
             }
 
+            List<String> profiles = selectedDynamicProfiles();
             new Thread(() -> {
                 try {
-                    dynamicMqService.sendMessage(queue, xml);
+                    for (String profile : profiles) {
+                        dynamicMqService.sendMessage(profile, queue, xml);
+                    }
                     Platform.runLater(() -> {
-                        resultArea.setText(String.format("✓ Message sent successfully to %s at %s", 
-                            queue, LocalDateTime.now().format(TIME_FORMATTER)));
+                        resultArea.setText(String.format("✓ Message sent successfully to %s via %s at %s", 
+                            queue, String.join(", ", profiles), LocalDateTime.now().format(TIME_FORMATTER)));
                     });
                 } catch (JMSException ex) {
                     log.error("Failed to send message", ex);
@@ -912,11 +2003,110 @@ public class MainStage {
             }).start();
         });
 
+        dynamicFanOutButton.setOnAction(e -> {
+            String xml = dynamicXmlInput.getText();
+            String queue = dynamicQueueField.getText().trim();
+
+            if (queue.isEmpty()) {
+                showAlert("Error", "Please enter a queue name", Alert.AlertType.WARNING);
+                return;
+            }
+
+            if (!XmlUtil.isValidXml(xml)) {
+                showAlert("Error", "Invalid XML content", Alert.AlertType.ERROR);
+                return;
+            }
+
+            List<String> profiles = selectedDynamicProfiles();
+            int messagesPerProfile = fanOutMessagesSpinner.getValue();
+            int threadsPerProfile = fanOutThreadsSpinner.getValue();
+            dynamicFanOutButton.setDisable(true);
+            fanOutProgressBar.setVisible(true);
+            fanOutProgressBar.setProgress(0);
+
+            SendProgress progress = new SendProgress();
+            progress.start((long) messagesPerProfile * profiles.size());
+            ProgressMonitor progressMonitor = new ProgressMonitor(progress, fanOutProgressBar, fanOutProgressLabel);
+            progressMonitor.start();
+
+            new Thread(() -> {
+                String result;
+                try {
+                    FanOutStats stats = dynamicMqService.runFanOut(profiles, queue, xml, messagesPerProfile,
+                            threadsPerProfile, progress);
+                    result = String.format("✓ Fan-out to %s finished at %s%n%s",
+                            queue, LocalDateTime.now().format(TIME_FORMATTER), stats.summary());
+                } catch (JMSException ex) {
+                    log.error("Fan-out failed", ex);
+                    result = "✗ Fan-out failed: " + ex.getMessage();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    result = "✗ Fan-out was interrupted";
+                }
+                String text = result;
+                Platform.runLater(() -> {
+                    progressMonitor.stop();
+                    fanOutProgressBar.setVisible(false);
+                    fanOutProgressLabel.setText("");
+                    resultArea.setText(text);
+                    dynamicFanOutButton.setDisable(!dynamicMqService.isConnected());
+                });
+            }).start();
+        });
+
         clearButton.setOnAction(e -> dynamicXmlInput.clear());
 
         return panel;
     }
 
+    /**
+     * Builds a profile from the connection form, or warns and returns null when required fields are missing.
+     */
+    private ConnectionProfile readProfile(TextField profileField, TextField qmField, TextField channelField,
+                                          TextField connField, TextField userField, PasswordField passwordField,
+                                          Spinner<Integer> sessionsSpinner) {
+        String qm = qmField.getText().trim();
+        String channel = channelField.getText().trim();
+        String conn = connField.getText().trim();
+
+        if (qm.isEmpty() || channel.isEmpty() || conn.isEmpty()) {
+            showAlert("Validation Error", "Please fill in Queue Manager, Channel, and Connection fields", Alert.AlertType.WARNING);
+            return null;
+        }
+
+        String name = profileField.getText().trim();
+        return ConnectionProfile.builder()
+                .name(name.isEmpty() ? qm : name)
+                .queueManager(qm)
+                .channel(channel)
+                .connName(conn)
+                .user(userField.getText().trim())
+                .password(passwordField.getText())
+                .sessions(sessionsSpinner.getValue())
+                .build();
+    }
+
+    /**
+     * Profiles selected in the connected-profiles list, or every connected profile when none is selected.
+     */
+    private List<String> selectedDynamicProfiles() {
+        List<String> selected = List.copyOf(dynamicProfileList.getSelectionModel().getSelectedItems());
+        return selected.isEmpty() ? dynamicMqService.getProfileNames() : selected;
+    }
+
+    private void refreshDynamicProfiles(Label dynamicStatusLabel) {
+        List<String> names = dynamicMqService.getProfileNames();
+        dynamicProfileList.getItems().setAll(names);
+        if (names.isEmpty()) {
+            dynamicStatusLabel.setText("Not connected");
+            dynamicStatusLabel.setTextFill(Color.web("#f44336"));
+        } else {
+            dynamicStatusLabel.setText(names.size() + " profile(s) connected");
+            dynamicStatusLabel.setTextFill(Color.web("#4CAF50"));
+        }
+        updateDynamicButtonStates(!names.isEmpty());
+    }
+
     private VBox createDynamicReceivePanel() {
         VBox panel = new VBox(10);
         panel.setPadding(new Insets(15));
@@ -971,9 +2161,13 @@ public class MainStage {
                 return;
             }
 
+            List<String> profiles = selectedDynamicProfiles();
             new Thread(() -> {
                 try {
-                    List<MqMessage> messages = dynamicMqService.receiveMessages(queue, 10);
+                    List<MqMessage> messages = new ArrayList<>();
+                    for (String profile : profiles) {
+                        messages.addAll(dynamicMqService.receiveMessages(profile, queue, 10));
+                    }
                     Platform.runLater(() -> {
                         if (messages.isEmpty()) {
                             dynamicReceivedArea.appendText("\n[No messages received]\n");
@@ -1018,6 +2212,9 @@ public class MainStage {
         if (dynamicReceiveButton != null) {
             dynamicReceiveButton.setDisable(!connected);
         }
+        if (dynamicFanOutButton != null) {
+            dynamicFanOutButton.setDisable(!connected);
+        }
     }
 
     /**
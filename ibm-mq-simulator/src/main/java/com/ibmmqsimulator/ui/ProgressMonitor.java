@@ -0,0 +1,87 @@
+package com.ibmmqsimulator.ui;
+
+import com.ibmmqsimulator.util.SendProgress;
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+
+/**
+ * Polls a {@link SendProgress} from the FX thread about ten times a second and shows
+ * count, rate, ETA and errors. The UI cost is the same however fast the workers send,
+ * since nothing is queued to the FX thread per message.
+ */
+class ProgressMonitor extends AnimationTimer {
+
+    private static final long REFRESH_NANOS = 100_000_000L;
+    // Rate shown is smoothed over roughly the last second
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final SendProgress progress;
+    private final ProgressBar progressBar;
+    private final Label progressLabel;
+    // "Sending"/"Sent" for send runs, "Draining"/"Drained" for drains
+    private final String activeVerb;
+    private final String doneVerb;
+
+    private long lastRefresh;
+    private long lastSent;
+    private double rate;
+
+    ProgressMonitor(SendProgress progress, ProgressBar progressBar, Label progressLabel) {
+        this(progress, progressBar, progressLabel, "Sending", "Sent");
+    }
+
+    ProgressMonitor(SendProgress progress, ProgressBar progressBar, Label progressLabel,
+                    String activeVerb, String doneVerb) {
+        this.progress = progress;
+        this.progressBar = progressBar;
+        this.progressLabel = progressLabel;
+        this.activeVerb = activeVerb;
+        this.doneVerb = doneVerb;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastRefresh != 0 && now - lastRefresh < REFRESH_NANOS) {
+            return;
+        }
+        long sent = progress.getSent();
+        if (lastRefresh != 0) {
+            double instantRate = (sent - lastSent) * 1e9 / (now - lastRefresh);
+            rate = rate == 0 ? instantRate : rate + RATE_SMOOTHING * (instantRate - rate);
+        }
+        lastRefresh = now;
+        lastSent = sent;
+        refresh(sent);
+    }
+
+    /**
+     * Stops polling after showing the final counts.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        refresh(progress.getSent());
+    }
+
+    private void refresh(long sent) {
+        long total = progress.getTotal();
+        long errors = progress.getErrors();
+        StringBuilder text = new StringBuilder();
+        if (total > 0) {
+            progressBar.setProgress((double) (sent + errors) / total);
+            text.append(String.format("%s %,d/%,d messages", activeVerb, sent, total));
+        } else {
+            text.append(String.format("%s %,d messages", doneVerb, sent));
+        }
+        text.append(String.format("  %,.0f msg/s", rate));
+        if (total > 0 && rate > 0) {
+            long remainingSeconds = (long) ((total - sent - errors) / rate);
+            text.append(String.format("  ETA %d:%02d", remainingSeconds / 60, remainingSeconds % 60));
+        }
+        if (errors > 0) {
+            text.append(String.format("  %,d errors", errors));
+        }
+        progressLabel.setText(text.toString());
+    }
+}
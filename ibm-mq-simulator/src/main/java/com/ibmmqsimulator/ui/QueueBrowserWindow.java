@@ -0,0 +1,266 @@
+package com.ibmmqsimulator.ui;
+
+import com.ibmmqsimulator.model.BrowsedMessage;
+import com.ibmmqsimulator.service.QueueBrowsePager;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.jms.JMSException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Non-destructive queue browser. Rows are shown in a virtualized table and the next page
+ * is only read from the queue when the user scrolls near the end of what is loaded.
+ * All browser calls run on one background thread, since the pager's session is single-threaded.
+ */
+@Slf4j
+class QueueBrowserWindow {
+
+    private static final int PAGE_SIZE = 200;
+    // Fetch the next page once a row this close to the end is rendered
+    private static final int PREFETCH_ROWS = 50;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    @FunctionalInterface
+    interface PagerFactory {
+        QueueBrowsePager open(String queueName, String selector) throws JMSException;
+    }
+
+    private final PagerFactory pagerFactory;
+    private final Stage stage;
+    private final ExecutorService browseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "queue-browser");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ObservableList<BrowsedMessage> rows = FXCollections.observableArrayList();
+
+    private ComboBox<String> queueCombo;
+    private TextField selectorField;
+    private TableView<BrowsedMessage> table;
+    private TextArea detailArea;
+    private Label statusLabel;
+
+    // Only touched on the browse thread
+    private QueueBrowsePager pager;
+    // Only touched on the FX thread; the generation discards pages of an earlier browse
+    private long generation;
+    private boolean loading;
+    private boolean exhausted = true;
+
+    QueueBrowserWindow(Window owner, String title, List<String> queues, PagerFactory pagerFactory) {
+        this.pagerFactory = pagerFactory;
+        this.stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle(title);
+
+        VBox root = new VBox(10);
+        root.setPadding(new Insets(15));
+        root.setStyle("-fx-background-color: #2b2b2b;");
+
+        HBox queryBox = new HBox(10);
+        queryBox.setAlignment(Pos.CENTER_LEFT);
+        Label queueLabel = new Label("Queue:");
+        queueLabel.setTextFill(Color.web("#b0b0b0"));
+        queueCombo = new ComboBox<>(FXCollections.observableArrayList(queues));
+        queueCombo.setEditable(true);
+        if (!queues.isEmpty()) {
+            queueCombo.setValue(queues.get(0));
+        }
+        queueCombo.setStyle("-fx-background-color: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        Label selectorLabel = new Label("Selector:");
+        selectorLabel.setTextFill(Color.web("#b0b0b0"));
+        selectorField = new TextField();
+        selectorField.setPromptText("e.g. JMSPriority > 4 AND JMSCorrelationID LIKE 'ID:%'");
+        selectorField.setStyle("-fx-control-inner-background: #3e3e3e; -fx-text-fill: #e0e0e0;");
+        HBox.setHgrow(selectorField, Priority.ALWAYS);
+        Button browseButton = createButton("Browse", "#2196F3");
+        browseButton.setDefaultButton(true);
+        browseButton.setOnAction(e -> browse());
+        queryBox.getChildren().addAll(queueLabel, queueCombo, selectorLabel, selectorField, browseButton);
+
+        table = new TableView<>(rows);
+        table.setPlaceholder(new Label("Choose a queue and click Browse"));
+        table.getColumns().add(column("#", 60, message -> String.valueOf(message.getPosition())));
+        table.getColumns().add(column("Put Time", 170, message ->
+                message.getPutTime() != null ? message.getPutTime().format(TIME_FORMATTER) : ""));
+        table.getColumns().add(column("Message ID", 260, BrowsedMessage::getMessageId));
+        table.getColumns().add(column("Correlation ID", 200, BrowsedMessage::getCorrelationId));
+        table.getColumns().add(column("Type", 60, BrowsedMessage::getBodyType));
+        table.getColumns().add(column("Pri", 40, message -> String.valueOf(message.getPriority())));
+        table.getColumns().add(column("Persistent", 75, message -> message.isPersistent() ? "yes" : "no"));
+        table.getColumns().add(column("Redelivered", 80, message -> message.isRedelivered() ? "yes" : "no"));
+        table.getColumns().add(column("Size", 80, message -> String.format("%,d", message.getSize())));
+        table.getColumns().add(column("Preview", 400, BrowsedMessage::getPreview));
+        table.setRowFactory(view -> new TableRow<>() {
+            @Override
+            protected void updateItem(BrowsedMessage item, boolean empty) {
+                super.updateItem(item, empty);
+                if (!empty && getIndex() >= rows.size() - PREFETCH_ROWS) {
+                    loadMore();
+                }
+            }
+        });
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldValue, message) -> showDetail(message));
+
+        detailArea = new TextArea();
+        detailArea.setEditable(false);
+        detailArea.setWrapText(true);
+        detailArea.setStyle("-fx-control-inner-background: #1e1e1e; -fx-text-fill: #e0e0e0; " +
+                            "-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
+
+        SplitPane splitPane = new SplitPane(table, detailArea);
+        splitPane.setOrientation(Orientation.VERTICAL);
+        splitPane.setDividerPositions(0.65);
+        VBox.setVgrow(splitPane, Priority.ALWAYS);
+
+        statusLabel = new Label("");
+        statusLabel.setTextFill(Color.web("#b0b0b0"));
+        statusLabel.setFont(Font.font("System", 11));
+
+        root.getChildren().addAll(queryBox, splitPane, statusLabel);
+
+        Scene scene = new Scene(root, 1200, 700);
+        if (owner != null && owner.getScene() != null) {
+            scene.getStylesheets().addAll(owner.getScene().getStylesheets());
+        }
+        stage.setScene(scene);
+        stage.setOnHidden(e -> {
+            browseExecutor.submit(this::closePager);
+            browseExecutor.shutdown();
+        });
+    }
+
+    void show() {
+        stage.show();
+    }
+
+    private void browse() {
+        String queueName = queueCombo.getValue();
+        if (queueName == null || queueName.isBlank()) {
+            statusLabel.setText("Enter a queue name");
+            return;
+        }
+        String selector = selectorField.getText();
+        long browseGeneration = ++generation;
+        rows.clear();
+        detailArea.clear();
+        loading = true;
+        exhausted = false;
+        statusLabel.setText("Opening browser on " + queueName + "...");
+
+        browseExecutor.submit(() -> {
+            closePager();
+            try {
+                pager = pagerFactory.open(queueName, selector);
+                List<BrowsedMessage> page = pager.nextPage(PAGE_SIZE);
+                Platform.runLater(() -> pageLoaded(browseGeneration, page));
+            } catch (JMSException | RuntimeException e) {
+                log.error("Failed to browse queue {}", queueName, e);
+                Platform.runLater(() -> pageFailed(browseGeneration, e));
+            }
+        });
+    }
+
+    private void loadMore() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        long browseGeneration = generation;
+        statusLabel.setText(String.format("%,d messages loaded, reading more...", rows.size()));
+        browseExecutor.submit(() -> {
+            try {
+                List<BrowsedMessage> page = pager.nextPage(PAGE_SIZE);
+                Platform.runLater(() -> pageLoaded(browseGeneration, page));
+            } catch (JMSException | RuntimeException e) {
+                log.error("Failed to read next browse page", e);
+                Platform.runLater(() -> pageFailed(browseGeneration, e));
+            }
+        });
+    }
+
+    private void pageLoaded(long browseGeneration, List<BrowsedMessage> page) {
+        if (browseGeneration != generation) {
+            return;
+        }
+        rows.addAll(page);
+        loading = false;
+        exhausted = page.size() < PAGE_SIZE;
+        if (exhausted) {
+            statusLabel.setText(String.format("%,d messages on the queue (end reached)", rows.size()));
+        } else {
+            statusLabel.setText(String.format("%,d messages loaded, scroll for more", rows.size()));
+        }
+    }
+
+    private void pageFailed(long browseGeneration, Exception e) {
+        if (browseGeneration != generation) {
+            return;
+        }
+        loading = false;
+        exhausted = true;
+        statusLabel.setText("Browse failed: " + e.getMessage());
+    }
+
+    private void showDetail(BrowsedMessage message) {
+        if (message == null) {
+            detailArea.clear();
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        text.append("Message ID: ").append(message.getMessageId()).append('\n');
+        if (message.getCorrelationId() != null) {
+            text.append("Correlation ID: ").append(message.getCorrelationId()).append('\n');
+        }
+        text.append("----------------------------------------\n").append(message.getContent());
+        if (message.isTruncated()) {
+            text.append(String.format("%n... [showing the first %,d of %,d]",
+                    message.getContent().length(), message.getSize()));
+        }
+        detailArea.setText(text.toString());
+    }
+
+    private void closePager() {
+        if (pager != null) {
+            pager.close();
+            pager = null;
+        }
+    }
+
+    private static TableColumn<BrowsedMessage, String> column(String title, double width,
+                                                              Function<BrowsedMessage, String> value) {
+        TableColumn<BrowsedMessage, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setCellValueFactory(cell -> new SimpleStringProperty(value.apply(cell.getValue())));
+        return column;
+    }
+
+    private static Button createButton(String text, String color) {
+        Button button = new Button(text);
+        button.setStyle(String.format(
+            "-fx-background-color: %s; -fx-text-fill: white; " +
+            "-fx-font-weight: bold; -fx-padding: 8 16; " +
+            "-fx-cursor: hand; -fx-background-radius: 4;", color));
+        return button;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ibmmqsimulator.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for reconnect attempts. Each delay is drawn from the
+ * upper half of a ceiling that doubles per attempt up to {@code maxMillis}, so clients
+ * that lost the same queue manager do not all retry in lockstep. Each outage starts a new one.
+ */
+public class Backoff {
+
+    private final long maxMillis;
+    private long ceiling;
+
+    public Backoff(long initialMillis, long maxMillis) {
+        this.ceiling = Math.max(1, initialMillis);
+        this.maxMillis = Math.max(this.ceiling, maxMillis);
+    }
+
+    /**
+     * Delay before the next attempt; doubles the ceiling for the one after.
+     */
+    public long nextDelayMillis() {
+        long current = ceiling;
+        ceiling = Math.min(maxMillis, ceiling * 2);
+        return current / 2 + ThreadLocalRandom.current().nextLong(current / 2 + 1);
+    }
+}
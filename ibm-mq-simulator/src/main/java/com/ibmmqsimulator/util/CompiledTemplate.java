@@ -0,0 +1,241 @@
+package com.ibmmqsimulator.util;
+
+import java.util.Arrays;
+
+/**
+ * A template parsed once into literal chunks and value generators, see {@link TemplateUtil#compile(String)}.
+ * Rendering appends every segment into a builder reused per thread, so a message costs one
+ * String allocation plus whatever the generators themselves need.
+ */
+public final class CompiledTemplate {
+
+    // Builders that grew past this are not kept, so one huge message does not pin memory per thread
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    /**
+     * One piece of a compiled template: a literal chunk or a generated value.
+     */
+    @FunctionalInterface
+    interface Segment {
+        void appendTo(StringBuilder out);
+    }
+
+    /**
+     * A value that depends on the message being rendered: its run, number, data row or references.
+     */
+    interface MessageSegment extends Segment {
+        void appendTo(StringBuilder out, Rendering rendering);
+
+        @Override
+        default void appendTo(StringBuilder out) {
+            appendTo(out, new Rendering(TemplateRun.shared(), 0, 0));
+        }
+    }
+
+    private final String source;
+    private final Segment[] segments;
+    private final int estimatedLength;
+    // Distinct ${REF:name} names; each message generates that many values
+    private final int refCount;
+    private final boolean hasMessageSegments;
+
+    CompiledTemplate(String source, Segment[] segments, int estimatedLength, int refCount) {
+        this.source = source;
+        this.segments = segments;
+        this.estimatedLength = estimatedLength;
+        this.refCount = refCount;
+        boolean perMessage = false;
+        for (Segment segment : segments) {
+            perMessage |= segment instanceof MessageSegment;
+        }
+        this.hasMessageSegments = perMessage;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * False if every placeholder was unknown, i.e. every rendering is the same text.
+     */
+    public boolean hasPlaceholders() {
+        return segments.length != 1 || !(segments[0] instanceof Literal);
+    }
+
+    /**
+     * Renders one message with freshly generated values, in the {@link TemplateRun#shared() shared} run.
+     */
+    public String render() {
+        return render(TemplateRun.shared(), 0);
+    }
+
+    /**
+     * Renders one message of a run.
+     * @param messageNumber What {@code ${MSGNUM}} prints; 0 to draw one from the run
+     */
+    public String render(TemplateRun run, long messageNumber) {
+        if (!hasPlaceholders()) {
+            return ((Literal) segments[0]).text;
+        }
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(estimatedLength);
+        renderTo(out, run, messageNumber);
+        String result = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Appends one rendering to the given builder, in the shared run.
+     */
+    public void renderTo(StringBuilder out) {
+        renderTo(out, TemplateRun.shared(), 0);
+    }
+
+    /**
+     * Appends one rendering of a run's message to the given builder.
+     */
+    public void renderTo(StringBuilder out, TemplateRun run, long messageNumber) {
+        if (!hasMessageSegments) {
+            for (Segment segment : segments) {
+                segment.appendTo(out);
+            }
+            return;
+        }
+        Rendering rendering = new Rendering(run, messageNumber, refCount);
+        for (Segment segment : segments) {
+            if (segment instanceof MessageSegment) {
+                ((MessageSegment) segment).appendTo(out, rendering);
+            } else {
+                segment.appendTo(out);
+            }
+        }
+    }
+
+    /**
+     * What the placeholders of one message share: every column comes from the same row and
+     * every occurrence of a reference prints the same value. Each is fetched on first use.
+     */
+    static final class Rendering {
+        private final TemplateRun run;
+        private long messageNumber;
+        private String[] row;
+        private String[] refs;
+
+        Rendering(TemplateRun run, long messageNumber, int refCount) {
+            this.run = run;
+            this.messageNumber = messageNumber;
+            this.refs = new String[refCount];
+        }
+
+        TemplateRun run() {
+            return run;
+        }
+
+        long messageNumber() {
+            if (messageNumber <= 0) {
+                messageNumber = run.nextRenderNumber();
+            }
+            return messageNumber;
+        }
+
+        String[] row(DataFeed feed) {
+            if (row == null) {
+                row = feed.nextRow(run.threadCount());
+            }
+            return row;
+        }
+
+        String ref(int slot) {
+            if (slot >= refs.length) {
+                // Only when a lone segment renders outside its template
+                refs = Arrays.copyOf(refs, slot + 1);
+            }
+            String value = refs[slot];
+            if (value == null) {
+                StringBuilder uuid = new StringBuilder(36);
+                TemplateUtil.appendUuid(uuid);
+                value = uuid.toString();
+                refs[slot] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Literal chunk of template text.
+     */
+    static final class Literal implements Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    /**
+     * One column of a data file row, XML-escaped.
+     */
+    static final class Column implements MessageSegment {
+        private final DataFeed feed;
+        private final int index;
+
+        Column(DataFeed feed, int index) {
+            this.feed = feed;
+            this.index = index;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, Rendering rendering) {
+            String value = rendering.row(feed)[index];
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&':
+                        out.append("&amp;");
+                        break;
+                    case '<':
+                        out.append("&lt;");
+                        break;
+                    case '>':
+                        out.append("&gt;");
+                        break;
+                    case '"':
+                        out.append("&quot;");
+                        break;
+                    case '\'':
+                        out.append("&apos;");
+                        break;
+                    default:
+                        out.append(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code ${REF:name}}: a UUID generated once per message and repeated wherever the name appears.
+     */
+    static final class Ref implements MessageSegment {
+        private final int slot;
+
+        Ref(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, Rendering rendering) {
+            out.append(rendering.ref(slot));
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.ibmmqsimulator.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows of a CSV or JSONL file for {@code ${col:NAME}} placeholders. The file is memory-mapped
+ * and indexed once by line start offsets, so the heap holds one offset per row rather than the
+ * data; each message decodes just its own row. CSV files name their columns in the header line,
+ * JSONL files by the keys of the first object. Any number of send threads can pull rows at once.
+ */
+public final class DataFeed {
+
+    /**
+     * Which row each message gets.
+     */
+    public enum Order {
+        /** File order through one shared cursor, starting over after the last row. */
+        SEQUENTIAL,
+        /** A uniformly random row per message. */
+        RANDOM,
+        /**
+         * Blocks of rows dealt to the threads in turn: a thread claims the next block from the
+         * shared cursor and walks it alone, so the cursor is touched once per block rather than
+         * per message. Blocks never run past the end of the file and are no bigger than the file
+         * divided by the threads of the current run, so every row is used once per pass and
+         * small files still spread across threads; threads interleave by block.
+         */
+        ROUND_ROBIN
+    }
+
+    // Largest region mapped at once; a mapped buffer is int-indexed
+    private static final int REGION_BITS = 30;
+    private static final long REGION_SIZE = 1L << REGION_BITS;
+    private static final int BLOCK_ROWS = 256;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Path file;
+    private final boolean json;
+    private final MappedByteBuffer[] regions;
+    private final String[] columns;
+    private final Map<String, Integer> columnIndex = new LinkedHashMap<>();
+    private final long size;
+    // Start of each data row; int while the file allows
+    private int[] intOffsets;
+    private long[] longOffsets;
+    private int rowCount;
+    private final AtomicLong cursor = new AtomicLong();
+    // Per thread: next row of its claimed block and the end of the block
+    private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[2]);
+    private volatile Order order;
+
+    private DataFeed(Path file, boolean json, MappedByteBuffer[] regions, long size, Order order) throws IOException {
+        this.file = file;
+        this.json = json;
+        this.regions = regions;
+        this.size = size;
+        this.order = order;
+
+        if (size <= Integer.MAX_VALUE) {
+            intOffsets = new int[1024];
+        } else {
+            longOffsets = new long[1024];
+        }
+        indexLines();
+        if (rowCount == 0) {
+            throw new IOException(file.getFileName() + " has no data rows");
+        }
+        String header = null;
+        if (!json) {
+            // The header is the first line; data rows are the ones after it
+            header = line(start(0), end(0));
+            dropFirstRow();
+            if (rowCount == 0) {
+                throw new IOException(file.getFileName() + " has a header but no data rows");
+            }
+        }
+        if (intOffsets != null) {
+            intOffsets = Arrays.copyOf(intOffsets, rowCount);
+        } else {
+            longOffsets = Arrays.copyOf(longOffsets, rowCount);
+        }
+
+        this.columns = json ? jsonKeys(line(start(0), end(0))) : parseCsv(header);
+        for (int i = 0; i < columns.length; i++) {
+            columnIndex.putIfAbsent(columns[i].trim().toUpperCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Maps and indexes a data file: JSONL if it ends in .jsonl or .ndjson, CSV otherwise.
+     * Plain .json files are refused, as they usually hold one array rather than a line per row.
+     */
+    public static DataFeed open(Path file, Order order) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json")) {
+            throw new IOException(file.getFileName() + ": only JSON Lines is supported, one object per line;"
+                    + " save the rows as .jsonl or .ndjson");
+        }
+        boolean json = name.endsWith(".jsonl") || name.endsWith(".ndjson");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) >>> REGION_BITS)];
+            for (int i = 0; i < regions.length; i++) {
+                long start = (long) i << REGION_BITS;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+            }
+            // Mappings stay valid after the channel is closed
+            return new DataFeed(file, json, regions, size, order);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<String> getColumns() {
+        return Arrays.asList(columns);
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    /**
+     * Position of a column by name, ignoring case, or -1 if the file has no such column.
+     */
+    public int columnIndex(String name) {
+        return columnIndex.getOrDefault(name.trim().toUpperCase(Locale.ROOT), -1);
+    }
+
+    /**
+     * Decodes the next row in the current order. Short rows are padded with empty values.
+     * @param threads Threads of the run taking rows, which sizes ROUND_ROBIN blocks; the feed
+     *                outlives runs, so it cannot count them itself
+     */
+    public String[] nextRow(int threads) {
+        return row(nextRowIndex(threads));
+    }
+
+    /**
+     * Decodes one row by position.
+     */
+    public String[] row(int index) {
+        String text = line(start(index), end(index));
+        String[] values = json ? jsonValues(text) : parseCsv(text);
+        if (values.length >= columns.length) {
+            return values;
+        }
+        String[] padded = Arrays.copyOf(values, columns.length);
+        Arrays.fill(padded, values.length, columns.length, "");
+        return padded;
+    }
+
+    private int nextRowIndex(int threads) {
+        switch (order) {
+            case RANDOM:
+                return ThreadLocalRandom.current().nextInt(rowCount);
+            case ROUND_ROBIN: {
+                long[] block = blocks.get();
+                if (block[0] >= block[1]) {
+                    claimBlock(block, threads);
+                }
+                return (int) (block[0]++ % rowCount);
+            }
+            default:
+                return (int) (cursor.getAndIncrement() % rowCount);
+        }
+    }
+
+    /**
+     * Moves the shared cursor past the next block, ending it early at the end of the pass.
+     */
+    private void claimBlock(long[] block, int threads) {
+        int size = Math.max(1, Math.min(BLOCK_ROWS, rowCount / Math.max(1, threads)));
+        long start;
+        long end;
+        do {
+            start = cursor.get();
+            end = Math.min(start + size, (start / rowCount + 1) * rowCount);
+        } while (!cursor.compareAndSet(start, end));
+        block[0] = start;
+        block[1] = end;
+    }
+
+    private long start(int row) {
+        return intOffsets != null ? intOffsets[row] : longOffsets[row];
+    }
+
+    /**
+     * End of a row's text, without its line break.
+     */
+    private long end(int row) {
+        long start = start(row);
+        long end = start;
+        while (end < size && byteAt(end) != '\n') {
+            end++;
+        }
+        if (end > start && byteAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Records the start of every non-blank line.
+     */
+    private void indexLines() {
+        long lineStart = 0;
+        for (int r = 0; r < regions.length; r++) {
+            MappedByteBuffer region = regions[r];
+            long base = (long) r << REGION_BITS;
+            int limit = region.limit();
+            for (int i = 0; i < limit; i++) {
+                if (region.get(i) == '\n') {
+                    long lineEnd = base + i;
+                    addLine(lineStart, lineEnd);
+                    lineStart = lineEnd + 1;
+                }
+            }
+        }
+        if (lineStart < size) {
+            addLine(lineStart, size);
+        }
+    }
+
+    private void addLine(long start, long end) {
+        if (end - start == 0 || (end - start == 1 && byteAt(start) == '\r')) {
+            // Blank lines are skipped
+            return;
+        }
+        if (intOffsets != null) {
+            if (rowCount == intOffsets.length) {
+                intOffsets = Arrays.copyOf(intOffsets, rowCount * 2);
+            }
+            intOffsets[rowCount] = (int) start;
+        } else {
+            if (rowCount == longOffsets.length) {
+                longOffsets = Arrays.copyOf(longOffsets, rowCount * 2);
+            }
+            longOffsets[rowCount] = start;
+        }
+        rowCount++;
+    }
+
+    private void dropFirstRow() {
+        if (intOffsets != null) {
+            System.arraycopy(intOffsets, 1, intOffsets, 0, rowCount - 1);
+        } else {
+            System.arraycopy(longOffsets, 1, longOffsets, 0, rowCount - 1);
+        }
+        rowCount--;
+    }
+
+    private byte byteAt(long position) {
+        return regions[(int) (position >>> REGION_BITS)].get((int) (position & (REGION_SIZE - 1)));
+    }
+
+    private String line(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        int region = (int) (start >>> REGION_BITS);
+        if (region == (int) ((end - 1) >>> REGION_BITS)) {
+            regions[region].get((int) (start & (REGION_SIZE - 1)), bytes);
+        } else {
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = byteAt(start + i);
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits one CSV line: commas separate fields, double quotes enclose fields containing
+     * commas or quotes, and a doubled quote inside them is a literal quote.
+     */
+    static String[] parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static String[] jsonKeys(String line) throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (JsonParser parser = JSON.getFactory().createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The first line is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                keys.add(parser.getCurrentName());
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    /**
+     * Top-level values of one JSON object, in column order. Nested objects and arrays come out
+     * as JSON text; keys the first row did not have are ignored.
+     */
+    private String[] jsonValues(String line) {
+        String[] values = new String[columns.length];
+        Arrays.fill(values, "");
+        try (JsonParser parser = JSON.getFactory().createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return values;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Integer index = columnIndex.get(parser.getCurrentName().trim().toUpperCase(Locale.ROOT));
+                JsonToken token = parser.nextToken();
+                if (index == null) {
+                    parser.skipChildren();
+                } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    values[index] = JSON.readTree(parser).toString();
+                } else if (token != JsonToken.VALUE_NULL) {
+                    values[index] = parser.getText();
+                }
+            }
+        } catch (IOException e) {
+            // A malformed line yields whatever was read before the error
+        }
+        return values;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ibmmqsimulator.util;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe count / total / max accumulator for operation latencies,
+ * cheap enough to call from every send worker on every operation. Latencies are
+ * also kept in an HDR histogram (microsecond resolution) for percentiles.
+ */
+public class LatencyTracker {
+
+    // Longer operations are recorded as this, one minute in microseconds
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        recorder.recordValue(Math.min(MAX_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getAverageMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (n * 1_000_000.0);
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Latencies recorded since the previous call, in microseconds.
+     */
+    public Histogram getIntervalHistogram() {
+        return recorder.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,206 @@
+package com.ibmmqsimulator.util;
+
+import com.ibmmqsimulator.model.MqConfig;
+import com.ibmmqsimulator.model.MqMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity message history shared by senders, receivers and listeners.
+ * <p>
+ * Entries go into a ring buffer indexed by a global sequence, so {@link #add} is one
+ * atomic increment plus one array store and never copies or blocks; once full, the
+ * oldest entries are overwritten. Only the most recent {@code fullPayloads} entries keep
+ * their content; older ones are cut down to a short summary. With a spill file set, the
+ * full content of each entry is appended to it (by a background thread) before it is
+ * summarized, so nothing is lost while memory stays bounded.
+ */
+@Slf4j
+public class MessageHistory {
+
+    private static final int SUMMARY_LENGTH = 120;
+    private static final int SPILL_QUEUE_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final int fullPayloads;
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long clearedBefore;
+
+    private final Path spillFile;
+    private final BlockingQueue<MqMessage> spillQueue;
+    private final AtomicLong spillDropped = new AtomicLong();
+    private volatile boolean spillFailed;
+
+    private static final class Entry {
+        private final long sequence;
+        private final MqMessage message;
+        private final boolean summarized;
+
+        private Entry(long sequence, MqMessage message, boolean summarized) {
+            this.sequence = sequence;
+            this.message = message;
+            this.summarized = summarized;
+        }
+    }
+
+    /**
+     * @param capacity Number of entries kept
+     * @param fullPayloads How many of the most recent entries keep their full content
+     * @param spillFile File to append full payloads to before they are summarized, or null for none
+     */
+    public MessageHistory(int capacity, int fullPayloads, Path spillFile) {
+        this.capacity = Math.max(1, capacity);
+        this.fullPayloads = Math.max(0, Math.min(fullPayloads, this.capacity));
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.spillFile = spillFile;
+        if (spillFile != null) {
+            spillQueue = new ArrayBlockingQueue<>(SPILL_QUEUE_CAPACITY);
+            Thread writer = new Thread(this::runSpillWriter, "history-spill");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            spillQueue = null;
+        }
+    }
+
+    /**
+     * Builds a history from the {@code ibm.mq.history.*} settings. A non-null {@code name}
+     * is added to the spill file name, so several histories can spill side by side.
+     */
+    public static MessageHistory fromConfig(MqConfig.HistoryConfig config, String name) {
+        Path spill = null;
+        String spillFile = config.getSpillFile();
+        if (spillFile != null && !spillFile.isBlank()) {
+            if (name != null) {
+                int dot = spillFile.lastIndexOf('.');
+                spillFile = dot > 0
+                        ? spillFile.substring(0, dot) + "-" + name + spillFile.substring(dot)
+                        : spillFile + "-" + name;
+            }
+            spill = Path.of(spillFile);
+        }
+        return new MessageHistory(config.getCapacity(), config.getFullPayloads(), spill);
+    }
+
+    public void add(MqMessage message) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set(index(sequence), new Entry(sequence, message, false));
+
+        // The entry that just dropped out of the full-payload window is reduced to a summary
+        long demoted = sequence - fullPayloads;
+        if (demoted >= 0) {
+            int demotedIndex = index(demoted);
+            Entry entry = slots.get(demotedIndex);
+            if (entry != null && entry.sequence == demoted && !entry.summarized) {
+                Entry summary = new Entry(demoted, summarize(entry.message), true);
+                // Lost races (slot already overwritten or summarized) need no retry
+                if (slots.compareAndSet(demotedIndex, entry, summary)) {
+                    spill(entry.message);
+                }
+            }
+        }
+    }
+
+    /**
+     * Entries currently held, oldest first. Entries whose slot is still being written are skipped.
+     */
+    public List<MqMessage> snapshot() {
+        long end = nextSequence.get();
+        long start = Math.max(Math.max(0, end - capacity), clearedBefore);
+        List<MqMessage> result = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Entry entry = slots.get(index(sequence));
+            if (entry != null && entry.sequence == sequence) {
+                result.add(entry.message);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        clearedBefore = nextSequence.get();
+    }
+
+    /**
+     * Number of entries ever added, including overwritten ones.
+     */
+    public long getTotalAdded() {
+        return nextSequence.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static MqMessage summarize(MqMessage message) {
+        String content = message.getContent();
+        if (content == null || content.length() <= SUMMARY_LENGTH) {
+            return message;
+        }
+        return MqMessage.builder()
+                .messageId(message.getMessageId())
+                .content(content.substring(0, SUMMARY_LENGTH) + "... (" + content.length() + " chars)")
+                .queue(message.getQueue())
+                .timestamp(message.getTimestamp())
+                .type(message.getType())
+                .build();
+    }
+
+    private void spill(MqMessage message) {
+        if (spillQueue != null && !spillFailed && !spillQueue.offer(message)) {
+            // Never block a sender on the disk; report what could not be archived instead
+            if (spillDropped.incrementAndGet() % 1000 == 1) {
+                log.warn("History spill is behind, {} entries not written to {}", spillDropped.get(), spillFile);
+            }
+        }
+    }
+
+    private void runSpillWriter() {
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (true) {
+                MqMessage message = spillQueue.poll(1, TimeUnit.SECONDS);
+                if (message == null) {
+                    writer.flush();
+                    continue;
+                }
+                // One line per entry: timestamp, type, queue, message id, content with line breaks escaped
+                writer.write(String.valueOf(message.getTimestamp()));
+                writer.write('\t');
+                writer.write(String.valueOf(message.getType()));
+                writer.write('\t');
+                writer.write(String.valueOf(message.getQueue()));
+                writer.write('\t');
+                writer.write(String.valueOf(message.getMessageId()));
+                writer.write('\t');
+                String content = message.getContent();
+                writer.write(content == null ? "" : content.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n"));
+                writer.newLine();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            spillFailed = true;
+            spillQueue.clear();
+            log.error("History spill to {} failed, spilling disabled: {}", spillFile, e.getMessage());
+        }
+    }
+}
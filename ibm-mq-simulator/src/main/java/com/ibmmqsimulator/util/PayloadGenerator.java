@@ -0,0 +1,28 @@
+package com.ibmmqsimulator.util;
+
+/**
+ * Builds synthetic XML messages of an exact size for benchmarks.
+ */
+public final class PayloadGenerator {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><benchmarkMessage><payload>";
+    private static final String FOOTER = "</payload></benchmarkMessage>";
+    private static final String FILLER = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private PayloadGenerator() {
+    }
+
+    /**
+     * A well-formed XML document of exactly {@code bytes} UTF-8 bytes, or of the smallest possible
+     * size when {@code bytes} is below that. The filler is ASCII, so characters equal bytes.
+     */
+    public static String xmlOfSize(int bytes) {
+        int fillerLength = Math.max(0, bytes - HEADER.length() - FOOTER.length());
+        StringBuilder out = new StringBuilder(HEADER.length() + fillerLength + FOOTER.length());
+        out.append(HEADER);
+        for (int i = 0; i < fillerLength; i++) {
+            out.append(FILLER.charAt(i % FILLER.length()));
+        }
+        return out.append(FOOTER).toString();
+    }
+}
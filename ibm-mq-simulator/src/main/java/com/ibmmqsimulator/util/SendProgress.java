@@ -0,0 +1,50 @@
+package com.ibmmqsimulator.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of a send run. Workers bump them on every message at the cost of an
+ * uncontended add; observers such as the UI poll them at their own pace instead of
+ * being called back per message. A queue drain reuses it with "sent" counting the
+ * messages received.
+ */
+public class SendProgress {
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile long total;
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * Marks the start of the run.
+     * @param total Expected message count, or 0 when the run is timed rather than counted
+     */
+    public void start(long total) {
+        this.total = total;
+        this.startNanos = System.nanoTime();
+    }
+
+    public void addSent(long count) {
+        sent.add(count);
+    }
+
+    public void addErrors(long count) {
+        errors.add(count);
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
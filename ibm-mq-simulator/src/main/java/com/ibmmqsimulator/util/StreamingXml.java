@@ -0,0 +1,353 @@
+package com.ibmmqsimulator.util;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.function.LongConsumer;
+
+/**
+ * Well-formedness checks and pretty-printing over a StAX event stream, for payloads of tens
+ * of megabytes. Unlike {@link XmlUtil} nothing but the current event is held in memory, so
+ * the cost is one pass over the characters and the heap stays flat whatever the size.
+ */
+public final class StreamingXml {
+
+    // Characters read between progress callbacks
+    private static final long PROGRESS_INTERVAL = 1 << 20;
+
+    // Configured once; creating readers from it is thread-safe
+    private static final XMLInputFactory INPUT_FACTORY;
+
+    static {
+        INPUT_FACTORY = XMLInputFactory.newInstance();
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    }
+
+    private StreamingXml() {
+    }
+
+    /**
+     * Reads the whole document, checking it is well-formed.
+     * @param progress Called with the number of characters read so far, about every megabyte; may be null
+     * @return null if the document is well-formed, else the parse error with its position
+     */
+    public static String getXmlError(Reader in, LongConsumer progress) {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(new CountingReader(in, progress));
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            return describe(e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Writes the document re-indented: one element per line, text-only elements kept on one
+     * line, whitespace between elements replaced, comments and processing instructions kept.
+     * Whitespace that is an element's only content is kept, as are line breaks and tabs in
+     * attribute values, which are written as character references.
+     * Adjacent text is merged, so CDATA sections come out as escaped text.
+     * @param indent Spaces per nesting level
+     * @param progress Called with the number of characters read so far, about every megabyte; may be null
+     * @throws XMLStreamException if the input is not well-formed; output written so far is incomplete
+     */
+    public static void prettyPrint(Reader in, Writer out, int indent, LongConsumer progress)
+            throws XMLStreamException, IOException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new CountingReader(in, progress));
+        try {
+            new Printer(reader, out, indent).print();
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private static String describe(XMLStreamException e) {
+        Location location = e.getLocation();
+        String message = e.getMessage();
+        // Parsers add their own position line before (JDK) or after (Woodstox) the message
+        int start = message != null ? message.indexOf("Message: ") : -1;
+        if (start >= 0) {
+            message = message.substring(start + "Message: ".length());
+        }
+        int end = message != null ? message.indexOf("\n at [row,col") : -1;
+        if (end >= 0) {
+            message = message.substring(0, end);
+        }
+        return location == null ? message
+                : String.format("Line %d, column %d: %s", location.getLineNumber(), location.getColumnNumber(), message);
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    /**
+     * Turns the event stream back into text. A start tag is left open until the next event
+     * shows whether the element is empty, so empty elements come out as {@code <a/>}.
+     */
+    private static class Printer {
+        private final XMLStreamReader reader;
+        private final Writer out;
+        private final int indent;
+        private int depth;
+        private boolean tagOpen;
+        // Whether the current element has had child elements, comments or PIs (so its end tag goes on its own line)
+        private boolean hadChildren;
+        private boolean atLineStart = true;
+        // Whitespace-only text of the current element, written only if no child follows
+        private final StringBuilder pendingSpace = new StringBuilder();
+
+        Printer(XMLStreamReader reader, Writer out, int indent) {
+            this.reader = reader;
+            this.out = out;
+            this.indent = indent;
+        }
+
+        void print() throws XMLStreamException, IOException {
+            String encoding = reader.getCharacterEncodingScheme();
+            out.write("<?xml version=\"" + (reader.getVersion() != null ? reader.getVersion() : "1.0")
+                    + "\" encoding=\"" + (encoding != null ? encoding : "UTF-8") + "\"?>");
+            atLineStart = false;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        startElement();
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        endElement();
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        if (!reader.isWhiteSpace()) {
+                            closeStartTag();
+                            writePendingSpace();
+                            escape(reader.getText(), false);
+                        } else if (!hadChildren && depth > 0) {
+                            pendingSpace.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        closeStartTag();
+                        writePendingSpace();
+                        out.write("<![CDATA[");
+                        out.write(reader.getText());
+                        out.write("]]>");
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        child();
+                        out.write("<!--");
+                        out.write(reader.getText());
+                        out.write("-->");
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        child();
+                        out.write("<?");
+                        out.write(reader.getPITarget());
+                        String data = reader.getPIData();
+                        if (data != null && !data.isEmpty()) {
+                            out.write(' ');
+                            out.write(data);
+                        }
+                        out.write("?>");
+                        break;
+                    case XMLStreamConstants.DTD:
+                        newLine();
+                        out.write(reader.getText());
+                        break;
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        closeStartTag();
+                        writePendingSpace();
+                        out.write('&');
+                        out.write(reader.getLocalName());
+                        out.write(';');
+                        break;
+                    default:
+                        break;
+                }
+            }
+            out.write(System.lineSeparator());
+            out.flush();
+        }
+
+        private void startElement() throws IOException {
+            child();
+            out.write('<');
+            writeName(reader.getPrefix(), reader.getLocalName());
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                String prefix = reader.getNamespacePrefix(i);
+                out.write(prefix == null || prefix.isEmpty() ? " xmlns" : " xmlns:" + prefix);
+                out.write("=\"");
+                escape(reader.getNamespaceURI(i), true);
+                out.write('"');
+            }
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                out.write(' ');
+                writeName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+                out.write("=\"");
+                escape(reader.getAttributeValue(i), true);
+                out.write('"');
+            }
+            tagOpen = true;
+            hadChildren = false;
+            depth++;
+        }
+
+        private void endElement() throws IOException {
+            depth--;
+            if (!hadChildren && pendingSpace.length() > 0) {
+                // The whitespace is the element's content, not layout
+                closeStartTag();
+                writePendingSpace();
+            }
+            if (tagOpen) {
+                out.write("/>");
+                tagOpen = false;
+            } else {
+                if (hadChildren) {
+                    newLine();
+                }
+                out.write("</");
+                writeName(reader.getPrefix(), reader.getLocalName());
+                out.write('>');
+            }
+            // The parent now has at least this child
+            hadChildren = true;
+        }
+
+        /**
+         * Starts a line for a child of the current element.
+         */
+        private void child() throws IOException {
+            closeStartTag();
+            // Whitespace next to a child is layout, replaced by the indentation
+            pendingSpace.setLength(0);
+            hadChildren = true;
+            newLine();
+        }
+
+        private void writePendingSpace() throws IOException {
+            if (pendingSpace.length() > 0) {
+                escape(pendingSpace.toString(), false);
+                pendingSpace.setLength(0);
+            }
+        }
+
+        private void closeStartTag() throws IOException {
+            if (tagOpen) {
+                out.write('>');
+                tagOpen = false;
+            }
+        }
+
+        private void newLine() throws IOException {
+            if (!atLineStart) {
+                out.write(System.lineSeparator());
+            }
+            for (int i = 0; i < depth * indent; i++) {
+                out.write(' ');
+            }
+            atLineStart = false;
+        }
+
+        private void writeName(String prefix, String localName) throws IOException {
+            if (prefix != null && !prefix.isEmpty()) {
+                out.write(prefix);
+                out.write(':');
+            }
+            out.write(localName);
+        }
+
+        private void escape(String text, boolean attribute) throws IOException {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '&':
+                        out.write("&amp;");
+                        break;
+                    case '<':
+                        out.write("&lt;");
+                        break;
+                    case '>':
+                        out.write("&gt;");
+                        break;
+                    case '"':
+                        out.write(attribute ? "&quot;" : "\"");
+                        break;
+                    case '\r':
+                        // A raw CR would be normalized to a line feed, in attributes to a space
+                        out.write("&#13;");
+                        break;
+                    case '\n':
+                        out.write(attribute ? "&#10;" : "\n");
+                        break;
+                    case '\t':
+                        // Attribute-value normalization would turn a raw tab into a space
+                        out.write(attribute ? "&#9;" : "\t");
+                        break;
+                    default:
+                        out.write(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts characters as the parser pulls them and reports progress every megabyte or so.
+     */
+    private static class CountingReader extends FilterReader {
+        private final LongConsumer progress;
+        private long count;
+        private long nextReport = PROGRESS_INTERVAL;
+
+        CountingReader(Reader in, LongConsumer progress) {
+            super(in);
+            this.progress = progress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                advance(1);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(int n) {
+            count += n;
+            if (progress != null && count >= nextReport) {
+                progress.accept(count);
+                nextReport = count + PROGRESS_INTERVAL;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ibmmqsimulator.util;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State that {@code ${SEQ}}, {@code ${SEQ:name}}, {@code ${THREAD}}, {@code ${MSGNUM}} and
+ * {@code ${RUN_ID}} share across every message of one send run. Send runs start their own;
+ * one-off renders use {@link #shared()}, whose sequences keep counting for the whole session.
+ * <p>
+ * Each sequence is one atomic counter, so its values are gap-free and increase in the order
+ * messages are rendered across all threads; one increment costs nothing next to a put.
+ */
+public final class TemplateRun {
+
+    private static final DateTimeFormatter RUN_ID_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final TemplateRun SHARED = new TemplateRun();
+
+    private final String id;
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ThreadLocal<Integer> threadNumber;
+
+    private TemplateRun() {
+        this.id = LocalDateTime.now().format(RUN_ID_TIME)
+                + String.format("-%04x", ThreadLocalRandom.current().nextInt(0x10000));
+        this.threadNumber = ThreadLocal.withInitial(threadCount::incrementAndGet);
+    }
+
+    /**
+     * A fresh run: sequences start at 1 and the run gets a new id.
+     */
+    public static TemplateRun start() {
+        return new TemplateRun();
+    }
+
+    /**
+     * The run used when rendering without one.
+     */
+    public static TemplateRun shared() {
+        return SHARED;
+    }
+
+    /**
+     * Run id, e.g. 20261019-101530-3fa2: when the run started plus a random suffix.
+     */
+    public String getId() {
+        return id;
+    }
+
+    long nextSeq() {
+        return seq.incrementAndGet();
+    }
+
+    long nextSeq(String name) {
+        AtomicLong sequence = sequences.get(name);
+        if (sequence == null) {
+            sequence = sequences.computeIfAbsent(name, key -> new AtomicLong());
+        }
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Stands in for the message number of renders that were not given one.
+     */
+    long nextRenderNumber() {
+        return renders.incrementAndGet();
+    }
+
+    /**
+     * 1 for the first thread that rendered in this run, 2 for the second and so on.
+     */
+    int threadNumber() {
+        return threadNumber.get();
+    }
+
+    /**
+     * Threads that have rendered in this run so far, counting the calling one.
+     */
+    int threadCount() {
+        threadNumber.get();
+        return threadCount.get();
+    }
+}
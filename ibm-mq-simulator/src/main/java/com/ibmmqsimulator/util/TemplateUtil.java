@@ -1,20 +1,18 @@
 package com.ibmmqsimulator.util;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Utility class for replacing dynamic parameters in XML templates.
  * Supports placeholders like ${ID}, ${AMOUNT}, ${NAME}, etc.
+ * Templates are compiled once into a {@link CompiledTemplate} and rendered from that.
  */
 public class TemplateUtil {
 
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
-    
     // Common first and last names for generating random names
     private static final String[] FIRST_NAMES = {
         "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda",
@@ -28,9 +26,38 @@ public class TemplateUtil {
         "Taylor", "Moore", "Jackson", "Martin", "Lee", "Thompson", "White", "Harris"
     };
 
+    // Compiled forms of recently used templates; cleared wholesale when it grows past the limit
+    private static final int MAX_CACHED_TEMPLATES = 64;
+    private static final Map<String, CompiledTemplate> COMPILED = new ConcurrentHashMap<>();
+
+    private static final String[] EMAIL_DOMAINS = {"example.com", "test.com", "demo.com", "mail.com"};
+    private static final String RANDOM_STRING_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Rough output width of a generated value, used to pre-size the render buffer
+    private static final int ESTIMATED_VALUE_LENGTH = 24;
+
+    // Rows for ${col:NAME} placeholders; templates compiled while it is null keep them as text
+    private static volatile DataFeed dataFeed;
+
+    /**
+     * Sets the data file that {@code ${col:NAME}} placeholders read from, or null for none.
+     * Templates compiled from now on use it; runs already going keep the feed they started with.
+     */
+    public static void setDataFeed(DataFeed feed) {
+        dataFeed = feed;
+        COMPILED.clear();
+    }
+
+    public static DataFeed getDataFeed() {
+        return dataFeed;
+    }
+
     /**
      * Replaces dynamic placeholders in the template with generated values.
-     * Supports: ${ID}, ${UUID}, ${NUMBER}, ${AMOUNT}, ${PRICE}, ${NAME}, ${EMAIL}, ${PHONE}, ${DATE}, ${TIMESTAMP}
+     * Supports: ${ID}, ${UUID}, ${NUMBER}, ${AMOUNT}, ${PRICE}, ${NAME}, ${EMAIL}, ${PHONE}, ${DATE}, ${TIMESTAMP},
+     * ${col:NAME} for a column of the current data file row, and the run placeholders ${SEQ}, ${SEQ:name},
+     * ${THREAD}, ${MSGNUM}, ${RUN_ID} and ${REF:name}, counted in the {@link TemplateRun#shared() shared} run
      * 
      * @param template The XML template with placeholders
      * @return XML with placeholders replaced with generated values
@@ -39,131 +66,143 @@ public class TemplateUtil {
         if (template == null || !template.contains("${")) {
             return template;
         }
+        CompiledTemplate compiled = COMPILED.get(template);
+        if (compiled == null) {
+            if (COMPILED.size() >= MAX_CACHED_TEMPLATES) {
+                COMPILED.clear();
+            }
+            compiled = COMPILED.computeIfAbsent(template, TemplateUtil::compile);
+        }
+        return compiled.render();
+    }
 
-        StringBuffer result = new StringBuffer();
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
-        
-        while (matcher.find()) {
-            String placeholder = matcher.group(1).toUpperCase().trim();
-            String replacement = generateValue(placeholder);
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    /**
+     * Parses a template once into literal chunks and typed value generators. Callers rendering
+     * the same template many times (send loops) should compile it up front and call
+     * {@link CompiledTemplate#render(TemplateRun, long)} per message instead of {@link #replacePlaceholders(String)}.
+     */
+    public static CompiledTemplate compile(String template) {
+        List<CompiledTemplate.Segment> segments = new ArrayList<>();
+        // ${REF:name} names in order of first use; the index is the value's slot in each message
+        List<String> refNames = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int estimatedLength = 0;
+        int pos = 0;
+        while (pos < template.length()) {
+            int start = template.indexOf("${", pos);
+            int end = start < 0 ? -1 : template.indexOf('}', start + 2);
+            if (start < 0 || end < 0) {
+                literal.append(template, pos, template.length());
+                break;
+            }
+            if (end == start + 2) {
+                // "${}" is not a placeholder
+                literal.append(template, pos, end + 1);
+                pos = end + 1;
+                continue;
+            }
+            literal.append(template, pos, start);
+            String placeholder = template.substring(start + 2, end).toUpperCase().trim();
+            CompiledTemplate.Segment generator = compileGenerator(placeholder, refNames);
+            if (generator == null) {
+                // Unknown placeholder - keep as-is
+                literal.append("${").append(placeholder).append('}');
+            } else {
+                if (literal.length() > 0) {
+                    segments.add(new CompiledTemplate.Literal(literal.toString()));
+                    estimatedLength += literal.length();
+                    literal.setLength(0);
+                }
+                segments.add(generator);
+                estimatedLength += ESTIMATED_VALUE_LENGTH;
+            }
+            pos = end + 1;
+        }
+        if (literal.length() > 0 || segments.isEmpty()) {
+            segments.add(new CompiledTemplate.Literal(literal.toString()));
+            estimatedLength += literal.length();
         }
-        matcher.appendTail(result);
-        
-        return result.toString();
+        return new CompiledTemplate(template, segments.toArray(new CompiledTemplate.Segment[0]), estimatedLength,
+                refNames.size());
     }
 
     /**
-     * Generates a value based on the placeholder type
+     * Builds the generator for a placeholder, or returns null if the placeholder is unknown
      */
-    private static String generateValue(String placeholder) {
+    private static CompiledTemplate.Segment compileGenerator(String placeholder, List<String> refNames) {
         switch (placeholder) {
             case "ID":
-                return String.valueOf(generateId());
+                return out -> out.append(generateId());
             
             case "UUID":
-                return UUID.randomUUID().toString();
+                return TemplateUtil::appendUuid;
             
             case "NUMBER":
-                return String.valueOf(ThreadLocalRandom.current().nextInt(999999) + 1);
+                return out -> out.append(ThreadLocalRandom.current().nextInt(999999) + 1);
             
             case "AMOUNT":
             case "PRICE":
-                return generateAmount();
+                return out -> appendAmount(out, 0.01, 9999.99);
             
             case "NAME":
-                return generateName();
+                return out -> out.append(randomOf(FIRST_NAMES)).append(' ').append(randomOf(LAST_NAMES));
             
             case "FIRSTNAME":
             case "FIRST_NAME":
-                return FIRST_NAMES[ThreadLocalRandom.current().nextInt(FIRST_NAMES.length)];
+                return out -> out.append(randomOf(FIRST_NAMES));
             
             case "LASTNAME":
             case "LAST_NAME":
-                return LAST_NAMES[ThreadLocalRandom.current().nextInt(LAST_NAMES.length)];
+                return out -> out.append(randomOf(LAST_NAMES));
             
             case "EMAIL":
-                return generateEmail();
+                return TemplateUtil::appendEmail;
             
             case "PHONE":
-                return generatePhone();
+                return TemplateUtil::appendPhone;
             
             case "DATE":
-                return java.time.LocalDate.now().toString();
+                return out -> out.append(java.time.LocalDate.now());
             
             case "TIMESTAMP":
-                return java.time.LocalDateTime.now().toString();
+                return out -> out.append(java.time.LocalDateTime.now());
             
             case "TIME":
-                return java.time.LocalTime.now().toString();
+                return out -> out.append(java.time.LocalTime.now());
             
             case "RANDOM":
-                return UUID.randomUUID().toString().substring(0, 8);
+                return out -> appendHex(out, ThreadLocalRandom.current().nextInt(), 8);
+
+            case "SEQ":
+                return (CompiledTemplate.MessageSegment) (out, rendering) -> out.append(rendering.run().nextSeq());
+
+            case "THREAD":
+                return (CompiledTemplate.MessageSegment) (out, rendering) -> out.append(rendering.run().threadNumber());
+
+            case "MSGNUM":
+                return (CompiledTemplate.MessageSegment) (out, rendering) -> out.append(rendering.messageNumber());
+
+            case "RUN_ID":
+                return (CompiledTemplate.MessageSegment) (out, rendering) -> out.append(rendering.run().getId());
             
             default:
                 // If placeholder contains a colon, parse as type:format
                 if (placeholder.contains(":")) {
-                    return generateCustomValue(placeholder);
+                    return compileCustomGenerator(placeholder, refNames);
                 }
-                // Unknown placeholder - return as-is
-                return "${" + placeholder + "}";
+                return null;
         }
     }
 
     /**
-     * Generates a numeric ID (1-999999999)
-     */
-    private static long generateId() {
-        return ThreadLocalRandom.current().nextInt(999999999) + 1;
-    }
-
-    /**
-     * Generates a random amount/price (0.01 - 9999.99)
-     */
-    private static String generateAmount() {
-        double amount = ThreadLocalRandom.current().nextDouble() * 9999.99 + 0.01;
-        BigDecimal bd = new BigDecimal(amount).setScale(2, RoundingMode.HALF_UP);
-        return bd.toString();
-    }
-
-    /**
-     * Generates a random full name
-     */
-    private static String generateName() {
-        String firstName = FIRST_NAMES[ThreadLocalRandom.current().nextInt(FIRST_NAMES.length)];
-        String lastName = LAST_NAMES[ThreadLocalRandom.current().nextInt(LAST_NAMES.length)];
-        return firstName + " " + lastName;
-    }
-
-    /**
-     * Generates a random email address
-     */
-    private static String generateEmail() {
-        String firstName = FIRST_NAMES[ThreadLocalRandom.current().nextInt(FIRST_NAMES.length)].toLowerCase();
-        String lastName = LAST_NAMES[ThreadLocalRandom.current().nextInt(LAST_NAMES.length)].toLowerCase();
-        String[] domains = {"example.com", "test.com", "demo.com", "mail.com"};
-        String domain = domains[ThreadLocalRandom.current().nextInt(domains.length)];
-        return firstName + "." + lastName + "@" + domain;
-    }
-
-    /**
-     * Generates a random phone number (format: ###-###-####)
-     */
-    private static String generatePhone() {
-        return String.format("%03d-%03d-%04d", 
-            ThreadLocalRandom.current().nextInt(900) + 100,
-            ThreadLocalRandom.current().nextInt(900) + 100,
-            ThreadLocalRandom.current().nextInt(9000) + 1000);
-    }
-
-    /**
-     * Generates custom values based on format specifiers
-     * Examples: NUMBER:1-100, AMOUNT:10-1000, STRING:5 (5 chars)
+     * Builds generators for format specifiers, parsing the format once
+     * Examples: NUMBER:1-100, AMOUNT:10-1000, STRING:5 (5 chars), COL:ACCOUNT_ID (data file column),
+     * SEQ:ORDER (named sequence), REF:ORDER_ID (value repeated within a message)
      */
-    private static String generateCustomValue(String placeholder) {
+    private static CompiledTemplate.Segment compileCustomGenerator(String placeholder, List<String> refNames) {
         String[] parts = placeholder.split(":");
         if (parts.length != 2) {
-            return "${" + placeholder + "}";
+            return null;
         }
 
         String type = parts[0].trim();
@@ -171,95 +210,173 @@ public class TemplateUtil {
 
         try {
             switch (type) {
-                case "NUMBER":
-                    return generateNumberInRange(format);
+                case "NUMBER": {
+                    String[] bounds = format.split("-");
+                    if (bounds.length != 2) {
+                        return out -> out.append(ThreadLocalRandom.current().nextInt(100));
+                    }
+                    try {
+                        int a = Integer.parseInt(bounds[0].trim());
+                        int b = Integer.parseInt(bounds[1].trim());
+                        int min = Math.min(a, b);
+                        int span = Math.max(a, b) - min + 1;
+                        if (span <= 0) {
+                            // Range too wide for an int
+                            return null;
+                        }
+                        return out -> out.append(ThreadLocalRandom.current().nextInt(span) + min);
+                    } catch (NumberFormatException e) {
+                        return out -> out.append(ThreadLocalRandom.current().nextInt(100));
+                    }
+                }
                 
-                case "AMOUNT":
-                    return generateAmountInRange(format);
+                case "AMOUNT": {
+                    String[] bounds = format.split("-");
+                    if (bounds.length != 2) {
+                        return out -> appendAmount(out, 0.01, 9999.99);
+                    }
+                    try {
+                        double a = Double.parseDouble(bounds[0].trim());
+                        double b = Double.parseDouble(bounds[1].trim());
+                        double min = Math.min(a, b);
+                        double range = Math.max(a, b) - min;
+                        return out -> appendAmount(out, min, range);
+                    } catch (NumberFormatException e) {
+                        return out -> appendAmount(out, 0.01, 9999.99);
+                    }
+                }
                 
-                case "STRING":
-                    return generateRandomString(Integer.parseInt(format));
+                case "STRING": {
+                    // Cap at reasonable length
+                    int length = Math.min(1000, Integer.parseInt(format));
+                    return out -> appendRandomString(out, length);
+                }
+
+                case "COL": {
+                    DataFeed feed = dataFeed;
+                    int index = feed == null ? -1 : feed.columnIndex(format);
+                    return index < 0 ? null : new CompiledTemplate.Column(feed, index);
+                }
+
+                case "SEQ": {
+                    if (format.isEmpty()) {
+                        return null;
+                    }
+                    return (CompiledTemplate.MessageSegment) (out, rendering) -> out.append(rendering.run().nextSeq(format));
+                }
+
+                case "REF": {
+                    if (format.isEmpty()) {
+                        return null;
+                    }
+                    int slot = refNames.indexOf(format);
+                    if (slot < 0) {
+                        slot = refNames.size();
+                        refNames.add(format);
+                    }
+                    return new CompiledTemplate.Ref(slot);
+                }
                 
                 default:
-                    return "${" + placeholder + "}";
+                    return null;
             }
         } catch (Exception e) {
-            return "${" + placeholder + "}";
+            return null;
         }
     }
 
     /**
-     * Generates a number within a specified range (e.g., "1-100")
+     * Generates a numeric ID (1-999999999)
      */
-    private static String generateNumberInRange(String range) {
-        String[] bounds = range.split("-");
-        if (bounds.length != 2) {
-            return String.valueOf(ThreadLocalRandom.current().nextInt(100));
-        }
-        
-        try {
-            int min = Integer.parseInt(bounds[0].trim());
-            int max = Integer.parseInt(bounds[1].trim());
-            
-            // Validate min <= max
-            if (min > max) {
-                int temp = min;
-                min = max;
-                max = temp;
-            }
-            
-            return String.valueOf(ThreadLocalRandom.current().nextInt(max - min + 1) + min);
-        } catch (NumberFormatException e) {
-            return String.valueOf(ThreadLocalRandom.current().nextInt(100));
-        }
+    private static long generateId() {
+        return ThreadLocalRandom.current().nextInt(999999999) + 1;
+    }
+
+    private static String randomOf(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
     }
 
     /**
-     * Generates an amount within a specified range (e.g., "10-1000")
+     * Appends a random amount min..min+range with two decimals, without BigDecimal or formatting
      */
-    private static String generateAmountInRange(String range) {
-        String[] bounds = range.split("-");
-        if (bounds.length != 2) {
-            return generateAmount();
+    private static void appendAmount(StringBuilder out, double min, double range) {
+        double amount = ThreadLocalRandom.current().nextDouble() * range + min;
+        long cents = Math.round(amount * 100);
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
         }
-        
-        try {
-            double min = Double.parseDouble(bounds[0].trim());
-            double max = Double.parseDouble(bounds[1].trim());
-            
-            // Validate min <= max
-            if (min > max) {
-                double temp = min;
-                min = max;
-                max = temp;
-            }
-            
-            double amount = ThreadLocalRandom.current().nextDouble() * (max - min) + min;
-            BigDecimal bd = new BigDecimal(amount).setScale(2, RoundingMode.HALF_UP);
-            return bd.toString();
-        } catch (NumberFormatException e) {
-            return generateAmount();
+        out.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            out.append('0');
         }
+        out.append(fraction);
     }
 
     /**
-     * Generates a random alphanumeric string of specified length
+     * Appends a random email address
      */
-    private static String generateRandomString(int length) {
-        // Validate length
-        if (length <= 0) {
-            return "";
+    private static void appendEmail(StringBuilder out) {
+        appendLowerCase(out, randomOf(FIRST_NAMES));
+        out.append('.');
+        appendLowerCase(out, randomOf(LAST_NAMES));
+        out.append('@').append(randomOf(EMAIL_DOMAINS));
+    }
+
+    private static void appendLowerCase(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            out.append(Character.toLowerCase(value.charAt(i)));
         }
-        if (length > 1000) {
-            length = 1000; // Cap at reasonable length
+    }
+
+    /**
+     * Appends a random phone number (format: ###-###-####); every part has a fixed width, so no padding is needed
+     */
+    private static void appendPhone(StringBuilder out) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        out.append(random.nextInt(900) + 100).append('-')
+           .append(random.nextInt(900) + 100).append('-')
+           .append(random.nextInt(9000) + 1000);
+    }
+
+    /**
+     * Appends a random version 4 UUID. Uses ThreadLocalRandom rather than UUID.randomUUID(),
+     * whose shared SecureRandom is slow and contended across send threads.
+     */
+    static void appendUuid(StringBuilder out) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        appendHex(out, (int) (msb >>> 32), 8);
+        out.append('-');
+        appendHex(out, (int) (msb >>> 16), 4);
+        out.append('-');
+        appendHex(out, (int) msb, 4);
+        out.append('-');
+        appendHex(out, (int) (lsb >>> 48), 4);
+        out.append('-');
+        appendHex(out, (int) (lsb >>> 32), 4);
+        appendHex(out, (int) lsb, 8);
+    }
+
+    /**
+     * Appends the low {@code digits} hex digits of value
+     */
+    private static void appendHex(StringBuilder out, int value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            out.append(HEX_DIGITS[(value >>> shift) & 0xF]);
         }
-        
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-        StringBuilder sb = new StringBuilder(length);
+    }
+
+    /**
+     * Appends a random alphanumeric string of specified length
+     */
+    private static void appendRandomString(StringBuilder out, int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         for (int i = 0; i < length; i++) {
-            sb.append(chars.charAt(ThreadLocalRandom.current().nextInt(chars.length())));
+            out.append(RANDOM_STRING_CHARS.charAt(random.nextInt(RANDOM_STRING_CHARS.length())));
         }
-        return sb.toString();
     }
 
     /**
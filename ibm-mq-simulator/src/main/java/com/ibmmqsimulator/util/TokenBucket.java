@@ -0,0 +1,84 @@
+package com.ibmmqsimulator.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by send workers to hold an arrival rate. Tokens refill
+ * continuously at the current rate up to {@code capacity}; a caller that finds
+ * the bucket empty reserves the next token and sleeps until it is due, so
+ * concurrent callers are spaced evenly rather than woken together.
+ */
+public class TokenBucket {
+
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final double capacity;
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private volatile boolean cancelled;
+
+    public TokenBucket(double rate, double capacity) {
+        this.rate = rate;
+        this.capacity = Math.max(1, capacity);
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized void setRate(double rate) {
+        refill(System.nanoTime());
+        this.rate = rate;
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * Makes every current and future {@link #acquire} return false.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Takes one token, waiting for it if necessary.
+     * @return false without taking a token if none would be available before {@code deadlineNanos}
+     *         (a {@link System#nanoTime()} value), or if the bucket has been cancelled
+     */
+    public boolean acquire(long deadlineNanos) throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (cancelled || now - deadlineNanos >= 0) {
+                    return false;
+                }
+                refill(now);
+                if (rate <= 0) {
+                    waitNanos = -1;
+                } else {
+                    waitNanos = tokens >= 1 ? 0 : (long) ((1 - tokens) * 1_000_000_000L / rate);
+                    if (now + waitNanos - deadlineNanos >= 0) {
+                        return false;
+                    }
+                    // Reserve the token now; the balance may go negative while callers sleep it off
+                    tokens -= 1;
+                }
+            }
+            if (waitNanos < 0) {
+                // Paused at zero rate: poll until the profile raises it again
+                TimeUnit.NANOSECONDS.sleep(Math.min(IDLE_POLL_NANOS, deadlineNanos - System.nanoTime()));
+                continue;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            return true;
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * rate / 1_000_000_000L);
+        lastRefill = now;
+    }
+}
@@ -3,26 +3,56 @@ package com.ibmmqsimulator.util;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Well-formedness checks, pretty-printing and XSD validation. Parsers, transformers and
+ * validators are not thread-safe but are expensive to create, so each thread keeps its own
+ * and resets it between documents; send workers can validate every message they render.
+ */
 public class XmlUtil {
 
     private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY;
     private static final TransformerFactory TRANSFORMER_FACTORY;
+    // Not thread-safe; only used while compiling a schema under its own lock
+    private static final SchemaFactory SCHEMA_FACTORY;
+
+    private static final ThreadLocal<DocumentBuilder> BUILDERS = ThreadLocal.withInitial(XmlUtil::newDocumentBuilder);
+    private static final ThreadLocal<Transformer> TRANSFORMERS = ThreadLocal.withInitial(XmlUtil::newTransformer);
+    // Per thread, the validator for the schema it last validated against. A validator holds its
+    // schema, so only the latest pair is kept: a reloaded XSD replaces the old one instead of piling up
+    private static final ThreadLocal<SchemaValidator> VALIDATORS = new ThreadLocal<>();
+    // Compiled schemas by file, compiled again only when the file changes
+    private static final Map<Path, CachedSchema> SCHEMAS = new ConcurrentHashMap<>();
 
     static {
         DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
         DOCUMENT_BUILDER_FACTORY.setNamespaceAware(true);
         TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+        SCHEMA_FACTORY = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
     }
 
     /**
@@ -34,8 +64,7 @@ public class XmlUtil {
         }
 
         try {
-            DocumentBuilder builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-            builder.parse(new InputSource(new StringReader(xml)));
+            parse(xml);
             return true;
         } catch (Exception e) {
             return false;
@@ -50,10 +79,11 @@ public class XmlUtil {
             return xml;
         }
 
-        DocumentBuilder builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-        Document document = builder.parse(new InputSource(new StringReader(xml)));
+        Document document = parse(xml);
 
-        Transformer transformer = TRANSFORMER_FACTORY.newTransformer();
+        Transformer transformer = TRANSFORMERS.get();
+        // Restores the default output properties, whatever the previous document left behind
+        transformer.reset();
         transformer.setOutputProperty(OutputKeys.INDENT, "yes");
         transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
         transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
@@ -74,8 +104,7 @@ public class XmlUtil {
         }
 
         try {
-            DocumentBuilder builder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-            builder.parse(new InputSource(new StringReader(xml)));
+            parse(xml);
             return null;
         } catch (SAXException e) {
             return "XML Parse Error: " + e.getMessage();
@@ -83,4 +112,96 @@ public class XmlUtil {
             return "Error: " + e.getMessage();
         }
     }
+
+    /**
+     * Compiles an XSD, or returns the schema compiled from the same file before if the file
+     * has not changed since. Imports and includes are resolved relative to the file.
+     */
+    public static Schema loadSchema(Path xsd) throws SAXException, IOException {
+        Path file = xsd.toAbsolutePath().normalize();
+        FileTime modified = Files.getLastModifiedTime(file);
+        CachedSchema cached = SCHEMAS.get(file);
+        if (cached != null && cached.modified.equals(modified)) {
+            return cached.schema;
+        }
+        Schema schema;
+        synchronized (SCHEMA_FACTORY) {
+            schema = SCHEMA_FACTORY.newSchema(file.toFile());
+        }
+        SCHEMAS.put(file, new CachedSchema(schema, modified));
+        return schema;
+    }
+
+    /**
+     * Validates XML against a compiled schema with this thread's validator for it.
+     * @return null if the document is valid, else the first violation with its position
+     */
+    public static String getSchemaError(String xml, Schema schema) {
+        SchemaValidator current = VALIDATORS.get();
+        if (current == null || current.schema != schema) {
+            current = new SchemaValidator(schema, schema.newValidator());
+            VALIDATORS.set(current);
+        }
+        Validator validator = current.validator;
+        try {
+            validator.validate(new StreamSource(new StringReader(xml)));
+            return null;
+        } catch (SAXParseException e) {
+            return String.format("Line %d, column %d: %s", e.getLineNumber(), e.getColumnNumber(), e.getMessage());
+        } catch (SAXException | IOException e) {
+            return e.getMessage();
+        } finally {
+            validator.reset();
+        }
+    }
+
+    private static Document parse(String xml) throws SAXException, IOException {
+        DocumentBuilder builder = BUILDERS.get();
+        try {
+            return builder.parse(new InputSource(new StringReader(xml)));
+        } finally {
+            builder.reset();
+        }
+    }
+
+    // The factories are not guaranteed thread-safe; threads create their first parser one at a time
+    private static DocumentBuilder newDocumentBuilder() {
+        try {
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser unavailable", e);
+        }
+    }
+
+    private static Transformer newTransformer() {
+        try {
+            synchronized (TRANSFORMER_FACTORY) {
+                return TRANSFORMER_FACTORY.newTransformer();
+            }
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("XML transformer unavailable", e);
+        }
+    }
+
+    private static class CachedSchema {
+        private final Schema schema;
+        private final FileTime modified;
+
+        CachedSchema(Schema schema, FileTime modified) {
+            this.schema = schema;
+            this.modified = modified;
+        }
+    }
+
+    private static class SchemaValidator {
+        private final Schema schema;
+        private final Validator validator;
+
+        SchemaValidator(Schema schema, Validator validator) {
+            this.schema = schema;
+            this.validator = validator;
+        }
+    }
 }
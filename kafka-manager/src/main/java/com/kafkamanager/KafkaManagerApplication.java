@@ -12,19 +12,21 @@ import javax.swing.*;
 public class KafkaManagerApplication {
 
     public static void main(String[] args) {
-        // Set FlatLaf look and feel
-        try {
-            UIManager.setLookAndFeel(new FlatDarkLaf());
-        } catch (Exception e) {
-            System.err.println("Failed to initialize FlatLaf theme");
-        }
+        // Set FlatLaf look and feel on the EDT while Spring starts; the frame is queued behind it
+        SwingUtilities.invokeLater(() -> {
+            try {
+                UIManager.setLookAndFeel(new FlatDarkLaf());
+            } catch (Exception e) {
+                System.err.println("Failed to initialize FlatLaf theme");
+            }
+        });
 
         // Start Spring Boot application in headless mode disabled
         ConfigurableApplicationContext context = new SpringApplicationBuilder(KafkaManagerApplication.class)
                 .headless(false)
                 .run(args);
 
-        // Launch Swing UI on EDT
+        // Launch Swing UI on EDT (beans are lazy, so the frame is also built here)
         SwingUtilities.invokeLater(() -> {
             MainFrame mainFrame = context.getBean(MainFrame.class);
             mainFrame.setVisible(true);
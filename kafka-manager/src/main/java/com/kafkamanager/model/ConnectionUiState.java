@@ -0,0 +1,21 @@
+package com.kafkamanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionUiState {
+    private String lastTopic;
+    private int lastPartition;
+    private int limit;
+    private String filter;
+    // Last offset fetched from, keyed by "topic:partition"
+    private Map<String, Long> offsets;
+}
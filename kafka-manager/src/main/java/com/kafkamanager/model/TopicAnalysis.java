@@ -0,0 +1,33 @@
+package com.kafkamanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicAnalysis {
+    private String topic;
+    private long recordsScanned;
+    private long totalValueBytes;
+    private long minValueSize;
+    private long maxValueSize;
+    private long nullKeys;
+    private long nullValues;
+    // Bucket 0 counts empty values, bucket i counts sizes in [2^(i-1), 2^i)
+    private long[] sizeHistogram;
+    private long estimatedDistinctKeys;
+    // Estimated counts of the most frequent keys, most frequent first
+    private Map<String, Long> hotKeys;
+    private Map<Integer, Long> partitionRecords;
+    private Map<Integer, Long> partitionBytes;
+    // Records in the busiest partition divided by the mean per partition
+    private double partitionSkew;
+    private long elapsedMs;
+    private boolean cancelled;
+}
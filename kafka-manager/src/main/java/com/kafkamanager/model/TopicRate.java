@@ -0,0 +1,20 @@
+package com.kafkamanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicRate {
+    private String topic;
+    private double messagesPerSecond;
+    private Map<Integer, Double> partitionRates;
+    // Recent topic rates, oldest first
+    private double[] history;
+}
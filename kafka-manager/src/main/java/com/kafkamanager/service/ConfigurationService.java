@@ -1,38 +1,62 @@
 package com.kafkamanager.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kafkamanager.model.ConnectionUiState;
 import com.kafkamanager.model.KafkaConnection;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Persists connections and per-connection UI state under ~/.kafka-manager.
+ * Saves are coalesced and written on a background thread; each file is written
+ * to a temp file and atomically moved into place so a crash never leaves a
+ * half-written file behind.
+ */
 @Slf4j
 @Service
 public class ConfigurationService {
 
     private static final String CONFIG_DIR = System.getProperty("user.home") + File.separator + ".kafka-manager";
     private static final String CONNECTIONS_FILE = CONFIG_DIR + File.separator + "connections.json";
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String UI_STATE_FILE = CONFIG_DIR + File.separator + "ui-state.json";
+    private static final long SAVE_DELAY_MS = 500;
 
-    public ConfigurationService() {
-        File configDir = new File(CONFIG_DIR);
-        if (!configDir.exists()) {
-            configDir.mkdirs();
-        }
-    }
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ConnectionUiState> uiStates = new ConcurrentHashMap<>();
+    private final AtomicReference<List<KafkaConnection>> pendingConnections = new AtomicReference<>();
+    private final AtomicBoolean uiStateDirty = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "config-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public void saveConnections(List<KafkaConnection> connections) {
-        try {
-            objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValue(new File(CONNECTIONS_FILE), connections);
-            log.info("Saved {} connections to {}", connections.size(), CONNECTIONS_FILE);
-        } catch (IOException e) {
-            log.error("Failed to save connections", e);
-        }
+        pendingConnections.set(new ArrayList<>(connections));
+        scheduleFlush();
     }
 
     public List<KafkaConnection> loadConnections() {
@@ -51,4 +75,95 @@ public class ConfigurationService {
             return new ArrayList<>();
         }
     }
+
+    public void loadUiState() {
+        File file = new File(UI_STATE_FILE);
+        if (!file.exists()) {
+            return;
+        }
+
+        try {
+            Map<String, ConnectionUiState> states = objectMapper.readValue(file,
+                    objectMapper.getTypeFactory().constructMapType(HashMap.class, String.class, ConnectionUiState.class));
+            uiStates.putAll(states);
+            log.info("Loaded UI state for {} connections from {}", states.size(), UI_STATE_FILE);
+        } catch (IOException e) {
+            log.error("Failed to load UI state", e);
+        }
+    }
+
+    public ConnectionUiState getUiState(String connectionId) {
+        return uiStates.get(connectionId);
+    }
+
+    public void saveUiState(String connectionId, ConnectionUiState state) {
+        uiStates.put(connectionId, state);
+        uiStateDirty.set(true);
+        scheduleFlush();
+    }
+
+    public void removeUiState(String connectionId) {
+        if (uiStates.remove(connectionId) != null) {
+            uiStateDirty.set(true);
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Writes any pending changes immediately on the calling thread.
+     */
+    public synchronized void flush() {
+        flushScheduled.set(false);
+
+        List<KafkaConnection> connections = pendingConnections.getAndSet(null);
+        if (connections != null) {
+            try {
+                writeAtomically(CONNECTIONS_FILE, connections);
+                log.info("Saved {} connections to {}", connections.size(), CONNECTIONS_FILE);
+            } catch (IOException e) {
+                log.error("Failed to save connections", e);
+            }
+        }
+
+        if (uiStateDirty.getAndSet(false)) {
+            try {
+                writeAtomically(UI_STATE_FILE, new HashMap<>(uiStates));
+            } catch (IOException e) {
+                log.error("Failed to save UI state", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            writer.schedule(this::flush, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writeAtomically(String fileName, Object value) throws IOException {
+        Path target = Paths.get(fileName);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        ByteBuffer json = ByteBuffer.wrap(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(value));
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (json.hasRemaining()) {
+                channel.write(json);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 }
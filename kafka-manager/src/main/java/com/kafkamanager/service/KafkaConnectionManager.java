@@ -8,6 +8,7 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.stereotype.Service;
 
@@ -178,6 +179,55 @@ public class KafkaConnectionManager {
         return stats;
     }
 
+    /**
+     * Fetches the latest offset of every partition of the given topics in a single
+     * listOffsets request. Partitions that fail (e.g. a deleted topic) are left out.
+     */
+    public Map<TopicPartition, Long> getEndOffsets(String connectionId, Map<String, Integer> partitionCounts)
+            throws InterruptedException {
+        AdminClient adminClient = adminClients.get(connectionId);
+        if (adminClient == null) {
+            throw new IllegalStateException("Not connected to cluster");
+        }
+
+        Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+        partitionCounts.forEach((topic, count) -> {
+            for (int partition = 0; partition < count; partition++) {
+                request.put(new TopicPartition(topic, partition), OffsetSpec.latest());
+            }
+        });
+
+        ListOffsetsResult result = adminClient.listOffsets(request);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        for (TopicPartition partition : request.keySet()) {
+            try {
+                endOffsets.put(partition, result.partitionResult(partition).get().offset());
+            } catch (ExecutionException e) {
+                log.debug("Failed to fetch end offset for {}: {}", partition, e.getMessage());
+            }
+        }
+        return endOffsets;
+    }
+
+    /**
+     * Creates a consumer that hands back raw key/value bytes, for scans that only
+     * need sizes and hashes. The caller owns (and must close) the consumer.
+     */
+    public KafkaConsumer<byte[], byte[]> createRawConsumer(String connectionId, String purpose) {
+        KafkaConnection connection = connections.get(connectionId);
+        if (connection == null || !connection.isConnected()) {
+            throw new IllegalStateException("Not connected to cluster");
+        }
+
+        Map<String, Object> props = connection.toPropertiesMap();
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "kafka-manager-" + purpose + "-" + UUID.randomUUID());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "2000");
+        return new KafkaConsumer<>(props);
+    }
+
     public List<String> listConsumerGroups(String connectionId) throws ExecutionException, InterruptedException {
         AdminClient adminClient = adminClients.get(connectionId);
         if (adminClient == null) {
@@ -0,0 +1,86 @@
+package com.kafkamanager.service;
+
+import com.kafkamanager.util.LatestValueStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a (compacted) topic from the beginning up to its current end offsets
+ * into a {@link LatestValueStore}, leaving the latest value per key.
+ */
+@Slf4j
+public class LatestValueScanner {
+
+    private static final int MAX_EMPTY_POLLS = 3;
+
+    private final KafkaConnectionManager connectionManager;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public LatestValueScanner(KafkaConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * @return the number of records read
+     */
+    public long scan(String connectionId, String topic, LatestValueStore store, LongConsumer progress)
+            throws IOException {
+        cancelled.set(false);
+        long scanned = 0;
+
+        try (KafkaConsumer<byte[], byte[]> consumer = connectionManager.createRawConsumer(connectionId, "latest")) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                    .map(p -> new TopicPartition(topic, p.partition()))
+                    .collect(Collectors.toList());
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            Set<TopicPartition> remaining = new HashSet<>(partitions);
+            int emptyPolls = 0;
+            while (!cancelled.get() && emptyPolls < MAX_EMPTY_POLLS) {
+                remaining.removeIf(p -> consumer.position(p) >= endOffsets.getOrDefault(p, 0L));
+                if (remaining.isEmpty()) {
+                    break;
+                }
+
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofSeconds(1));
+                if (records.isEmpty()) {
+                    emptyPolls++;
+                    continue;
+                }
+                emptyPolls = 0;
+
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.getOrDefault(partition, 0L) || record.key() == null) {
+                        continue;
+                    }
+                    store.put(record.key(), record.value());
+                    scanned++;
+                }
+                progress.accept(scanned);
+            }
+        }
+
+        log.info("Read {} records from {} into latest-value store ({} live keys)", scanned, topic, store.size());
+        return scanned;
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+}
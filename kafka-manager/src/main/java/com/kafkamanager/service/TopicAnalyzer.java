@@ -0,0 +1,275 @@
+package com.kafkamanager.service;
+
+import com.kafkamanager.model.TopicAnalysis;
+import com.kafkamanager.util.CountMinSketch;
+import com.kafkamanager.util.HyperLogLog;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Scans a topic with raw byte consumers and summarizes value sizes, key
+ * cardinality, hot keys and partition skew. Partitions are spread over a fixed
+ * number of workers, each accumulating into fixed-size sketches, so memory use
+ * does not grow with the number of records scanned.
+ */
+@Slf4j
+public class TopicAnalyzer {
+
+    public static final int HOT_KEY_COUNT = 20;
+    public static final int SIZE_BUCKETS = 33;
+    private static final int HOT_KEY_CANDIDATES = HOT_KEY_COUNT * 5;
+    private static final int MAX_EMPTY_POLLS = 3;
+
+    private final KafkaConnectionManager connectionManager;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public TopicAnalyzer(KafkaConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Analyzes a topic.
+     *
+     * @param recordsPerPartition records to sample from each partition, or 0 to scan everything
+     * @param fromLatest          sample the newest records instead of the oldest
+     * @param workers             number of partitions scanned in parallel
+     * @param progress            receives the running total of records scanned
+     */
+    public TopicAnalysis analyze(String connectionId, String topic, long recordsPerPartition, boolean fromLatest,
+                                 int workers, LongConsumer progress) throws InterruptedException, ExecutionException {
+        cancelled.set(false);
+        long startTime = System.currentTimeMillis();
+
+        Map<TopicPartition, long[]> ranges = new HashMap<>();
+        try (KafkaConsumer<byte[], byte[]> consumer = connectionManager.createRawConsumer(connectionId, "analyzer")) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                    .map(PartitionInfo::partition)
+                    .map(p -> new TopicPartition(topic, p))
+                    .collect(Collectors.toList());
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+
+            for (TopicPartition partition : partitions) {
+                long first = beginning.getOrDefault(partition, 0L);
+                long last = end.getOrDefault(partition, 0L);
+                if (recordsPerPartition > 0) {
+                    if (fromLatest) {
+                        first = Math.max(first, last - recordsPerPartition);
+                    } else {
+                        last = Math.min(last, first + recordsPerPartition);
+                    }
+                }
+                ranges.put(partition, new long[]{first, last});
+            }
+        }
+
+        Queue<TopicPartition> pending = new ConcurrentLinkedQueue<>(ranges.keySet());
+        AtomicLong scanned = new AtomicLong();
+        int workerCount = Math.max(1, Math.min(workers, ranges.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "topic-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<Accumulator>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(executor.submit(() -> {
+                    Accumulator accumulator = new Accumulator();
+                    try (KafkaConsumer<byte[], byte[]> consumer =
+                                 connectionManager.createRawConsumer(connectionId, "analyzer")) {
+                        TopicPartition partition;
+                        while (!cancelled.get() && (partition = pending.poll()) != null) {
+                            scanPartition(consumer, partition, ranges.get(partition), accumulator, scanned, progress);
+                        }
+                    }
+                    return accumulator;
+                }));
+            }
+
+            Accumulator total = new Accumulator();
+            ranges.keySet().forEach(p -> {
+                total.partitionRecords.put(p.partition(), 0L);
+                total.partitionBytes.put(p.partition(), 0L);
+            });
+            for (Future<Accumulator> future : futures) {
+                total.merge(future.get());
+            }
+            return total.toAnalysis(topic, System.currentTimeMillis() - startTime, cancelled.get());
+        } finally {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    private void scanPartition(KafkaConsumer<byte[], byte[]> consumer, TopicPartition partition, long[] range,
+                               Accumulator accumulator, AtomicLong scanned, LongConsumer progress) {
+        long stopOffset = range[1];
+        if (range[0] >= stopOffset) {
+            return;
+        }
+
+        consumer.assign(Collections.singletonList(partition));
+        consumer.seek(partition, range[0]);
+
+        int emptyPolls = 0;
+        while (!cancelled.get() && consumer.position(partition) < stopOffset && emptyPolls < MAX_EMPTY_POLLS) {
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofSeconds(1));
+            if (records.isEmpty()) {
+                emptyPolls++;
+                continue;
+            }
+            emptyPolls = 0;
+
+            int count = 0;
+            for (ConsumerRecord<byte[], byte[]> record : records) {
+                if (record.offset() >= stopOffset) {
+                    break;
+                }
+                accumulator.add(record);
+                count++;
+            }
+            progress.accept(scanned.addAndGet(count));
+        }
+    }
+
+    /**
+     * Per-worker statistics; every structure has a fixed size.
+     */
+    private static class Accumulator {
+        private final HyperLogLog keyCardinality = new HyperLogLog();
+        private final CountMinSketch keyFrequencies = new CountMinSketch();
+        private final Map<ByteBuffer, Long> hotKeyCandidates = new HashMap<>();
+        private final long[] sizeHistogram = new long[SIZE_BUCKETS];
+        private final Map<Integer, Long> partitionRecords = new HashMap<>();
+        private final Map<Integer, Long> partitionBytes = new HashMap<>();
+        private long records;
+        private long totalValueBytes;
+        private long minValueSize = Long.MAX_VALUE;
+        private long maxValueSize;
+        private long nullKeys;
+        private long nullValues;
+        private long minCandidateCount;
+
+        void add(ConsumerRecord<byte[], byte[]> record) {
+            records++;
+            int size = record.value() != null ? record.value().length : 0;
+            if (record.value() == null) {
+                nullValues++;
+            }
+            totalValueBytes += size;
+            minValueSize = Math.min(minValueSize, size);
+            maxValueSize = Math.max(maxValueSize, size);
+            sizeHistogram[Math.min(SIZE_BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(size))]++;
+            partitionRecords.merge(record.partition(), 1L, Long::sum);
+            partitionBytes.merge(record.partition(), (long) size, Long::sum);
+
+            if (record.key() == null) {
+                nullKeys++;
+                return;
+            }
+            long hash = HyperLogLog.hash(record.key());
+            keyCardinality.add(hash);
+            long estimate = keyFrequencies.add(hash);
+            trackHotKey(ByteBuffer.wrap(record.key()), estimate);
+        }
+
+        private void trackHotKey(ByteBuffer key, long estimate) {
+            if (hotKeyCandidates.containsKey(key)) {
+                hotKeyCandidates.put(key, estimate);
+                return;
+            }
+            if (hotKeyCandidates.size() < HOT_KEY_CANDIDATES) {
+                hotKeyCandidates.put(key, estimate);
+                minCandidateCount = Math.min(minCandidateCount == 0 ? estimate : minCandidateCount, estimate);
+                return;
+            }
+            if (estimate <= minCandidateCount) {
+                return;
+            }
+
+            ByteBuffer coldest = null;
+            long coldestCount = Long.MAX_VALUE;
+            long nextMin = Long.MAX_VALUE;
+            for (Map.Entry<ByteBuffer, Long> entry : hotKeyCandidates.entrySet()) {
+                if (entry.getValue() < coldestCount) {
+                    nextMin = coldestCount;
+                    coldest = entry.getKey();
+                    coldestCount = entry.getValue();
+                } else if (entry.getValue() < nextMin) {
+                    nextMin = entry.getValue();
+                }
+            }
+            hotKeyCandidates.remove(coldest);
+            hotKeyCandidates.put(key, estimate);
+            minCandidateCount = Math.min(nextMin, estimate);
+        }
+
+        void merge(Accumulator other) {
+            keyCardinality.merge(other.keyCardinality);
+            keyFrequencies.merge(other.keyFrequencies);
+            other.hotKeyCandidates.keySet().forEach(key -> hotKeyCandidates.put(key, 0L));
+            for (int i = 0; i < SIZE_BUCKETS; i++) {
+                sizeHistogram[i] += other.sizeHistogram[i];
+            }
+            other.partitionRecords.forEach((p, c) -> partitionRecords.merge(p, c, Long::sum));
+            other.partitionBytes.forEach((p, c) -> partitionBytes.merge(p, c, Long::sum));
+            records += other.records;
+            totalValueBytes += other.totalValueBytes;
+            minValueSize = Math.min(minValueSize, other.minValueSize);
+            maxValueSize = Math.max(maxValueSize, other.maxValueSize);
+            nullKeys += other.nullKeys;
+            nullValues += other.nullValues;
+        }
+
+        TopicAnalysis toAnalysis(String topic, long elapsedMs, boolean cancelled) {
+            // Re-estimate the candidates from every worker against the merged sketch
+            Map<String, Long> hotKeys = new LinkedHashMap<>();
+            hotKeyCandidates.keySet().stream()
+                    .map(key -> Map.entry(key, keyFrequencies.estimate(HyperLogLog.hash(key.array()))))
+                    .sorted(Map.Entry.<ByteBuffer, Long>comparingByValue().reversed())
+                    .limit(HOT_KEY_COUNT)
+                    .forEach(e -> hotKeys.put(new String(e.getKey().array(), StandardCharsets.UTF_8), e.getValue()));
+
+            long busiest = partitionRecords.values().stream().mapToLong(Long::longValue).max().orElse(0);
+            double mean = partitionRecords.isEmpty() ? 0 : (double) records / partitionRecords.size();
+
+            return TopicAnalysis.builder()
+                    .topic(topic)
+                    .recordsScanned(records)
+                    .totalValueBytes(totalValueBytes)
+                    .minValueSize(records > 0 ? minValueSize : 0)
+                    .maxValueSize(maxValueSize)
+                    .nullKeys(nullKeys)
+                    .nullValues(nullValues)
+                    .sizeHistogram(sizeHistogram)
+                    .estimatedDistinctKeys(keyCardinality.estimate())
+                    .hotKeys(hotKeys)
+                    .partitionRecords(new TreeMap<>(partitionRecords))
+                    .partitionBytes(new TreeMap<>(partitionBytes))
+                    .partitionSkew(mean > 0 ? busiest / mean : 0)
+                    .elapsedMs(elapsedMs)
+                    .cancelled(cancelled)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.kafkamanager.service;
+
+import com.kafkamanager.model.TopicRate;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Periodically samples the end offsets of a set of topics and derives produce
+ * rates (messages/sec) from the deltas between samples. Each sample costs one
+ * listOffsets admin request regardless of the number of topics.
+ */
+@Slf4j
+public class TopicRateSampler {
+
+    public static final int HISTORY_SIZE = 60;
+
+    private final KafkaConnectionManager connectionManager;
+    private ScheduledExecutorService scheduler;
+
+    public TopicRateSampler(KafkaConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    /**
+     * Starts sampling the given topics (name to partition count), replacing any
+     * previous run. The listener is called on the sampler thread after every
+     * sample except the first, which only establishes the baseline.
+     */
+    public synchronized void start(String connectionId, Map<String, Integer> topics, long intervalMs,
+                                   Consumer<Map<String, TopicRate>> listener) {
+        stop();
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "topic-rate-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SamplingRun run = new SamplingRun(connectionId, new HashMap<>(topics));
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                Map<String, TopicRate> rates = run.sample();
+                if (rates != null && !executor.isShutdown()) {
+                    listener.accept(rates);
+                }
+            } catch (IllegalStateException e) {
+                log.info("Stopping rate sampler: {}", e.getMessage());
+                executor.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Rate sample failed: {}", e.getMessage());
+            }
+        }, 0, intervalMs, TimeUnit.MILLISECONDS);
+        scheduler = executor;
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return scheduler != null && !scheduler.isShutdown();
+    }
+
+    /**
+     * State of one sampling run; only touched from that run's scheduler thread.
+     */
+    private class SamplingRun {
+        private final String connectionId;
+        private final Map<String, Integer> topics;
+        private final Map<String, RateHistory> histories = new HashMap<>();
+        private Map<TopicPartition, Long> lastOffsets;
+        private long lastSampleNanos;
+
+        SamplingRun(String connectionId, Map<String, Integer> topics) {
+            this.connectionId = connectionId;
+            this.topics = topics;
+        }
+
+        Map<String, TopicRate> sample() throws InterruptedException {
+            Map<TopicPartition, Long> offsets = connectionManager.getEndOffsets(connectionId, topics);
+            long now = System.nanoTime();
+
+            Map<TopicPartition, Long> previous = lastOffsets;
+            double elapsedSeconds = (now - lastSampleNanos) / 1_000_000_000.0;
+            lastOffsets = offsets;
+            lastSampleNanos = now;
+            if (previous == null || elapsedSeconds <= 0) {
+                return null;
+            }
+
+            Map<String, Map<Integer, Double>> partitionRates = new HashMap<>();
+            for (Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+                Long before = previous.get(entry.getKey());
+                if (before == null) {
+                    continue;
+                }
+                // A negative delta means the topic was recreated; report it as idle
+                double rate = Math.max(0, entry.getValue() - before) / elapsedSeconds;
+                partitionRates.computeIfAbsent(entry.getKey().topic(), t -> new HashMap<>())
+                        .put(entry.getKey().partition(), rate);
+            }
+
+            Map<String, TopicRate> rates = new HashMap<>();
+            for (Map.Entry<String, Map<Integer, Double>> entry : partitionRates.entrySet()) {
+                double total = entry.getValue().values().stream().mapToDouble(Double::doubleValue).sum();
+                RateHistory history = histories.computeIfAbsent(entry.getKey(), t -> new RateHistory());
+                history.add(total);
+
+                rates.put(entry.getKey(), TopicRate.builder()
+                        .topic(entry.getKey())
+                        .messagesPerSecond(total)
+                        .partitionRates(entry.getValue())
+                        .history(history.snapshot())
+                        .build());
+            }
+            return rates;
+        }
+    }
+
+    private static class RateHistory {
+        private final double[] values = new double[HISTORY_SIZE];
+        private int next;
+        private int size;
+
+        void add(double value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            size = Math.min(size + 1, values.length);
+        }
+
+        double[] snapshot() {
+            double[] copy = new double[size];
+            int start = (next - size + values.length) % values.length;
+            for (int i = 0; i < size; i++) {
+                copy[i] = values[(start + i) % values.length];
+            }
+            return copy;
+        }
+    }
+}
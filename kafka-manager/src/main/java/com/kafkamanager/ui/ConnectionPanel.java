@@ -288,6 +288,7 @@ public class ConnectionPanel extends JPanel {
 
             if (connection != null) {
                 connectionManager.removeConnection(connection.getId());
+                configService.removeUiState(connection.getId());
                 loadConnections();
                 onConnectionsUpdated.run();
             }
@@ -0,0 +1,293 @@
+package com.kafkamanager.ui;
+
+import com.kafkamanager.model.TopicInfo;
+import com.kafkamanager.service.KafkaConnectionManager;
+import com.kafkamanager.service.LatestValueScanner;
+import com.kafkamanager.util.LatestValueStore;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materializes the latest value per key of a compacted topic and lets the user
+ * look keys up in it.
+ */
+@Slf4j
+public class LatestValuesPanel extends JPanel {
+
+    private static final int MAX_RESULTS = 1000;
+
+    private final LatestValueScanner scanner;
+    private String connectionId;
+    private TopicInfo topic;
+    private LatestValueStore store;
+
+    private JLabel topicLabel;
+    private JSpinner memoryLimitSpinner;
+    private JButton scanButton;
+    private JButton cancelButton;
+    private JLabel statusLabel;
+    private JTextField searchField;
+    private JCheckBox containsCheckBox;
+    private JButton searchButton;
+    private DefaultTableModel tableModel;
+    private JTable resultsTable;
+    private JTextArea valueArea;
+    private final List<byte[]> resultValues = new ArrayList<>();
+
+    public LatestValuesPanel(KafkaConnectionManager connectionManager) {
+        this.scanner = new LatestValueScanner(connectionManager);
+        initializeUI();
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(5, 5, 5, 5));
+
+        JPanel controlPanel = new JPanel(new GridLayout(2, 1));
+
+        JPanel scanPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        topicLabel = new JLabel("Select a compacted topic");
+        scanPanel.add(topicLabel);
+
+        scanPanel.add(new JLabel("In-Memory Limit (MB):"));
+        memoryLimitSpinner = new JSpinner(new SpinnerNumberModel(256, 16, 16384, 64));
+        memoryLimitSpinner.setPreferredSize(new Dimension(80, 25));
+        scanPanel.add(memoryLimitSpinner);
+
+        scanButton = new JButton("Scan");
+        scanButton.setEnabled(false);
+        scanButton.addActionListener(e -> runScan());
+        scanPanel.add(scanButton);
+
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> scanner.cancel());
+        scanPanel.add(cancelButton);
+
+        statusLabel = new JLabel(" ");
+        scanPanel.add(statusLabel);
+
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        searchPanel.add(new JLabel("Key:"));
+        searchField = new JTextField(25);
+        searchField.addActionListener(e -> runSearch());
+        searchPanel.add(searchField);
+
+        containsCheckBox = new JCheckBox("Contains");
+        searchPanel.add(containsCheckBox);
+
+        searchButton = new JButton("Search");
+        searchButton.setEnabled(false);
+        searchButton.addActionListener(e -> runSearch());
+        searchPanel.add(searchButton);
+
+        controlPanel.add(scanPanel);
+        controlPanel.add(searchPanel);
+        add(controlPanel, BorderLayout.NORTH);
+
+        tableModel = new DefaultTableModel(new String[]{"Key", "Value (Preview)", "Size"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        resultsTable = new JTable(tableModel);
+        resultsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultsTable.setRowHeight(25);
+        resultsTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                int row = resultsTable.getSelectedRow();
+                valueArea.setText(row >= 0 ? new String(resultValues.get(row), StandardCharsets.UTF_8) : "");
+                valueArea.setCaretPosition(0);
+            }
+        });
+
+        valueArea = new JTextArea();
+        valueArea.setEditable(false);
+        valueArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        valueArea.setLineWrap(true);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(resultsTable), new JScrollPane(valueArea));
+        splitPane.setDividerLocation(500);
+        add(splitPane, BorderLayout.CENTER);
+    }
+
+    public void setTopic(String connectionId, TopicInfo topic) {
+        if (cancelButton.isEnabled()) {
+            return;
+        }
+        this.connectionId = connectionId;
+        this.topic = topic;
+        closeStore();
+
+        String policy = topic.getConfigs() != null ? topic.getConfigs().get("cleanup.policy") : null;
+        boolean compacted = policy != null && policy.contains("compact");
+        topicLabel.setText("Topic: " + topic.getName() + " (cleanup.policy=" + policy + ")");
+        scanButton.setEnabled(connectionId != null && compacted);
+        statusLabel.setText(compacted ? " " : "Only available for compacted topics");
+    }
+
+    private void runScan() {
+        closeStore();
+        LatestValueStore newStore = new LatestValueStore(((Number) memoryLimitSpinner.getValue()).longValue() * 1024 * 1024);
+        String connection = connectionId;
+        String topicName = topic.getName();
+
+        scanButton.setEnabled(false);
+        searchButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        statusLabel.setText("Scanning...");
+
+        SwingWorker<Long, ScanProgress> worker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                // Store figures are read here, on the scanning thread: the store's lock is held
+                // through every spill to disk, and the EDT must not wait for that
+                return scanner.scan(connection, topicName, newStore,
+                        records -> publish(new ScanProgress(records, newStore.size(), newStore.isSpilled())));
+            }
+
+            @Override
+            protected void process(List<ScanProgress> chunks) {
+                ScanProgress latest = chunks.get(chunks.size() - 1);
+                statusLabel.setText(String.format("Read %,d records, %,d live keys%s",
+                        latest.records, latest.liveKeys, latest.spilled ? " (spilled to disk)" : ""));
+            }
+
+            @Override
+            protected void done() {
+                cancelButton.setEnabled(false);
+                if (topic == null) {
+                    // Cleared (disconnected) while scanning
+                    closeQuietly(newStore);
+                    return;
+                }
+                scanButton.setEnabled(true);
+                try {
+                    long records = get();
+                    store = newStore;
+                    searchButton.setEnabled(true);
+                    statusLabel.setText(String.format("Read %,d records: %,d live keys, %,d tombstones%s",
+                            records, newStore.size(), newStore.getTombstones(),
+                            newStore.isSpilled()
+                                    ? String.format(", %,d MB on disk", newStore.getDiskBytes() / (1024 * 1024))
+                                    : ""));
+                } catch (Exception e) {
+                    closeQuietly(newStore);
+                    statusLabel.setText("Scan failed");
+                    JOptionPane.showMessageDialog(LatestValuesPanel.this,
+                            "Failed to scan topic: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void runSearch() {
+        if (store == null) {
+            return;
+        }
+        LatestValueStore searchStore = store;
+        String text = searchField.getText();
+        boolean contains = containsCheckBox.isSelected();
+        searchButton.setEnabled(false);
+
+        SwingWorker<List<Map.Entry<byte[], byte[]>>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<Map.Entry<byte[], byte[]>> doInBackground() throws Exception {
+                if (!contains) {
+                    byte[] key = text.getBytes(StandardCharsets.UTF_8);
+                    byte[] value = searchStore.get(key);
+                    return value != null ? List.of(Map.entry(key, value)) : List.of();
+                }
+                return searchStore.find(key -> new String(key, StandardCharsets.UTF_8).contains(text), MAX_RESULTS);
+            }
+
+            @Override
+            protected void done() {
+                searchButton.setEnabled(store != null);
+                try {
+                    showResults(get());
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(LatestValuesPanel.this,
+                            "Search failed: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showResults(List<Map.Entry<byte[], byte[]>> results) {
+        tableModel.setRowCount(0);
+        resultValues.clear();
+        valueArea.setText("");
+        for (Map.Entry<byte[], byte[]> entry : results) {
+            String value = new String(entry.getValue(), StandardCharsets.UTF_8);
+            if (value.length() > 100) {
+                value = value.substring(0, 100) + "...";
+            }
+            resultValues.add(entry.getValue());
+            tableModel.addRow(new Object[]{
+                    new String(entry.getKey(), StandardCharsets.UTF_8),
+                    value,
+                    entry.getValue().length
+            });
+        }
+    }
+
+    private void closeStore() {
+        if (store != null) {
+            closeQuietly(store);
+            store = null;
+        }
+        searchButton.setEnabled(false);
+        showResults(List.of());
+    }
+
+    private void closeQuietly(LatestValueStore valueStore) {
+        try {
+            valueStore.close();
+        } catch (IOException e) {
+            log.warn("Failed to clean up latest-value store: {}", e.getMessage());
+        }
+    }
+
+    public void clearData() {
+        scanner.cancel();
+        closeStore();
+        connectionId = null;
+        topic = null;
+        topicLabel.setText("Select a compacted topic");
+        scanButton.setEnabled(false);
+        statusLabel.setText(" ");
+    }
+
+    /**
+     * Scan figures captured on the scanning thread for the status line.
+     */
+    private static final class ScanProgress {
+        private final long records;
+        private final long liveKeys;
+        private final boolean spilled;
+
+        ScanProgress(long records, long liveKeys, boolean spilled) {
+            this.records = records;
+            this.liveKeys = liveKeys;
+            this.spilled = spilled;
+        }
+    }
+}
@@ -27,6 +27,8 @@ public class MainFrame extends JFrame {
     private JComboBox<String> connectionComboBox;
     private JLabel statusLabel;
     private String currentConnectionId;
+    private boolean connectionsLoaded;
+    private boolean saveDeferred;
 
     public MainFrame(KafkaConnectionManager connectionManager, ConfigurationService configService) {
         this.connectionManager = connectionManager;
@@ -53,7 +55,7 @@ public class MainFrame extends JFrame {
         connectionPanel = new ConnectionPanel(connectionManager, configService, this::onConnectionsUpdated);
         topicsPanel = new TopicsPanel(connectionManager);
         consumerGroupsPanel = new ConsumerGroupsPanel(connectionManager);
-        messagesPanel = new MessagesPanel(connectionManager);
+        messagesPanel = new MessagesPanel(connectionManager, configService);
 
         tabbedPane.addTab("Connections", connectionPanel);
         tabbedPane.addTab("Topics", topicsPanel);
@@ -113,11 +115,35 @@ public class MainFrame extends JFrame {
     }
 
     private void loadSavedConnections() {
-        List<KafkaConnection> connections = configService.loadConnections();
-        for (KafkaConnection connection : connections) {
-            connectionManager.addConnection(connection);
-        }
-        updateConnectionComboBox();
+        setStatus("Loading saved connections...");
+        SwingWorker<List<KafkaConnection>, Void> worker = new SwingWorker<>() {
+            @Override
+            protected List<KafkaConnection> doInBackground() {
+                configService.loadUiState();
+                return configService.loadConnections();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    for (KafkaConnection connection : get()) {
+                        connectionManager.addConnection(connection);
+                    }
+                    setStatus("Ready");
+                } catch (Exception e) {
+                    log.error("Failed to load saved connections", e);
+                    setStatus("Failed to load saved connections");
+                }
+                connectionsLoaded = true;
+                updateConnectionComboBox();
+                connectionPanel.refreshConnections();
+                if (saveDeferred) {
+                    saveDeferred = false;
+                    saveConnections();
+                }
+            }
+        };
+        worker.execute();
     }
 
     private void updateConnectionComboBox() {
@@ -130,7 +156,11 @@ public class MainFrame extends JFrame {
     private void onConnectionSelected() {
         String selected = (String) connectionComboBox.getSelectedItem();
         if (selected != null) {
-            currentConnectionId = selected.split(" - ")[0];
+            String connectionId = selected.split(" - ")[0];
+            if (!connectionId.equals(currentConnectionId)) {
+                currentConnectionId = connectionId;
+                messagesPanel.restoreState(configService.getUiState(connectionId));
+            }
         }
     }
 
@@ -196,6 +226,15 @@ public class MainFrame extends JFrame {
 
     private void onConnectionsUpdated() {
         updateConnectionComboBox();
+        if (!connectionsLoaded) {
+            // Saving now would overwrite the file with only the connections added so far
+            saveDeferred = true;
+            return;
+        }
+        saveConnections();
+    }
+
+    private void saveConnections() {
         List<KafkaConnection> connections = (List<KafkaConnection>) connectionManager.getAllConnections()
                 .stream().toList();
         configService.saveConnections(connections);
@@ -1,6 +1,8 @@
 package com.kafkamanager.ui;
 
+import com.kafkamanager.model.ConnectionUiState;
 import com.kafkamanager.model.KafkaConnection;
+import com.kafkamanager.service.ConfigurationService;
 import com.kafkamanager.service.KafkaConnectionManager;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -11,7 +13,10 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.time.Duration;
 import java.time.Instant;
@@ -19,22 +24,28 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.regex.Pattern;
 
 public class MessagesPanel extends JPanel {
 
     private final KafkaConnectionManager connectionManager;
+    private final ConfigurationService configService;
     private JTextField topicField;
     private JSpinner partitionSpinner;
     private JSpinner offsetSpinner;
     private JSpinner limitSpinner;
+    private JTextField filterField;
     private JTable messagesTable;
     private DefaultTableModel tableModel;
+    private TableRowSorter<DefaultTableModel> rowSorter;
+    private boolean restoringState;
     private JTextArea messageDetailsArea;
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
             .withZone(ZoneId.systemDefault());
 
-    public MessagesPanel(KafkaConnectionManager connectionManager) {
+    public MessagesPanel(KafkaConnectionManager connectionManager, ConfigurationService configService) {
         this.connectionManager = connectionManager;
+        this.configService = configService;
         initializeUI();
     }
 
@@ -88,6 +99,26 @@ public class MessagesPanel extends JPanel {
         latestButton.addActionListener(e -> fetchLatestMessages());
         panel.add(latestButton);
 
+        panel.add(new JLabel("Filter:"));
+        filterField = new JTextField(15);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                onFilterChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                onFilterChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                onFilterChanged();
+            }
+        });
+        panel.add(filterField);
+
         return panel;
     }
 
@@ -103,6 +134,8 @@ public class MessagesPanel extends JPanel {
         };
 
         messagesTable = new JTable(tableModel);
+        rowSorter = new TableRowSorter<>(tableModel);
+        messagesTable.setRowSorter(rowSorter);
         messagesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         messagesTable.setRowHeight(25);
         messagesTable.getSelectionModel().addListSelectionListener(e -> {
@@ -146,6 +179,7 @@ public class MessagesPanel extends JPanel {
         int limit = (Integer) limitSpinner.getValue();
 
         fetchMessagesFromTopic(topic, partition, offset, limit, false);
+        rememberState(topic, partition, offset);
     }
 
     private void fetchLatestMessages() {
@@ -160,6 +194,7 @@ public class MessagesPanel extends JPanel {
         int limit = (Integer) limitSpinner.getValue();
 
         fetchMessagesFromTopic(topic, partition, 0, limit, true);
+        rememberState(topic, partition, null);
     }
 
     private void fetchMessagesFromTopic(String topic, int partition, long offset, int limit, boolean latest) {
@@ -257,6 +292,7 @@ public class MessagesPanel extends JPanel {
         if (selectedRow < 0) {
             return;
         }
+        selectedRow = messagesTable.convertRowIndexToModel(selectedRow);
 
         long offset = (Long) tableModel.getValueAt(selectedRow, 0);
         String timestamp = (String) tableModel.getValueAt(selectedRow, 1);
@@ -274,6 +310,64 @@ public class MessagesPanel extends JPanel {
         messageDetailsArea.setText(details.toString());
     }
 
+    private void onFilterChanged() {
+        String filter = filterField.getText().trim();
+        rowSorter.setRowFilter(filter.isEmpty() ? null
+                : RowFilter.regexFilter("(?i)" + Pattern.quote(filter), 2, 3));
+        if (!restoringState) {
+            rememberState(topicField.getText().trim(), (Integer) partitionSpinner.getValue(), null);
+        }
+    }
+
+    private String getCurrentConnectionId() {
+        Window window = SwingUtilities.getWindowAncestor(this);
+        return window instanceof MainFrame ? ((MainFrame) window).getCurrentConnectionId() : null;
+    }
+
+    private void rememberState(String topic, int partition, Long offset) {
+        String connectionId = getCurrentConnectionId();
+        if (connectionId == null) {
+            return;
+        }
+
+        ConnectionUiState previous = configService.getUiState(connectionId);
+        Map<String, Long> offsets = previous != null && previous.getOffsets() != null
+                ? new HashMap<>(previous.getOffsets()) : new HashMap<>();
+        if (offset != null && !topic.isEmpty()) {
+            offsets.put(topic + ":" + partition, offset);
+        }
+
+        configService.saveUiState(connectionId, ConnectionUiState.builder()
+                .lastTopic(topic)
+                .lastPartition(partition)
+                .limit((Integer) limitSpinner.getValue())
+                .filter(filterField.getText())
+                .offsets(offsets)
+                .build());
+    }
+
+    public void restoreState(ConnectionUiState state) {
+        if (state == null) {
+            return;
+        }
+
+        restoringState = true;
+        try {
+            topicField.setText(state.getLastTopic() != null ? state.getLastTopic() : "");
+            partitionSpinner.setValue(state.getLastPartition());
+            if (state.getLimit() > 0) {
+                limitSpinner.setValue(state.getLimit());
+            }
+            Long offset = state.getOffsets() != null
+                    ? state.getOffsets().get(state.getLastTopic() + ":" + state.getLastPartition()) : null;
+            // The offset spinner model holds doubles
+            offsetSpinner.setValue(offset != null ? offset.doubleValue() : 0.0);
+            filterField.setText(state.getFilter() != null ? state.getFilter() : "");
+        } finally {
+            restoringState = false;
+        }
+    }
+
     public void clearData() {
         tableModel.setRowCount(0);
         messageDetailsArea.setText("");
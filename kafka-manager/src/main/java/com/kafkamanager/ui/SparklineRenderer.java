@@ -0,0 +1,58 @@
+package com.kafkamanager.ui;
+
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+
+/**
+ * Table cell renderer that draws a double[] as a small line chart.
+ */
+public class SparklineRenderer extends JComponent implements TableCellRenderer {
+
+    private double[] values = new double[0];
+    private boolean selected;
+    private JTable table;
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        this.table = table;
+        this.values = value instanceof double[] ? (double[]) value : new double[0];
+        this.selected = isSelected;
+        return this;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setColor(selected ? table.getSelectionBackground() : table.getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            if (values.length < 2) {
+                return;
+            }
+
+            double max = 0;
+            for (double v : values) {
+                max = Math.max(max, v);
+            }
+
+            int padding = 3;
+            int width = getWidth() - 2 * padding;
+            int height = getHeight() - 2 * padding;
+            int[] xs = new int[values.length];
+            int[] ys = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                xs[i] = padding + (int) Math.round((double) i * width / (values.length - 1));
+                double ratio = max > 0 ? values[i] / max : 0;
+                ys[i] = padding + height - (int) Math.round(ratio * height);
+            }
+
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(selected ? table.getSelectionForeground() : new Color(0x4FC3F7));
+            g2.drawPolyline(xs, ys, values.length);
+        } finally {
+            g2.dispose();
+        }
+    }
+}
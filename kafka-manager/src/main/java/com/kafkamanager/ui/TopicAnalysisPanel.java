@@ -0,0 +1,223 @@
+package com.kafkamanager.ui;
+
+import com.kafkamanager.model.TopicAnalysis;
+import com.kafkamanager.service.KafkaConnectionManager;
+import com.kafkamanager.service.TopicAnalyzer;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.DefaultCategoryDataset;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.util.List;
+import java.util.Map;
+
+public class TopicAnalysisPanel extends JPanel {
+
+    private final TopicAnalyzer analyzer;
+    private String connectionId;
+    private String topicName;
+
+    private JLabel topicLabel;
+    private JSpinner recordsSpinner;
+    private JCheckBox fromLatestCheckBox;
+    private JSpinner workersSpinner;
+    private JButton analyzeButton;
+    private JButton cancelButton;
+    private JLabel progressLabel;
+    private JTextArea reportArea;
+    private ChartPanel chartPanel;
+
+    public TopicAnalysisPanel(KafkaConnectionManager connectionManager) {
+        this.analyzer = new TopicAnalyzer(connectionManager);
+        initializeUI();
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(new EmptyBorder(5, 5, 5, 5));
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        topicLabel = new JLabel("Select a topic");
+        controlPanel.add(topicLabel);
+
+        controlPanel.add(new JLabel("Records/Partition (0 = all):"));
+        recordsSpinner = new JSpinner(new SpinnerNumberModel(10000, 0, Integer.MAX_VALUE, 1000));
+        recordsSpinner.setPreferredSize(new Dimension(100, 25));
+        controlPanel.add(recordsSpinner);
+
+        fromLatestCheckBox = new JCheckBox("From Latest");
+        controlPanel.add(fromLatestCheckBox);
+
+        controlPanel.add(new JLabel("Workers:"));
+        workersSpinner = new JSpinner(new SpinnerNumberModel(4, 1, 32, 1));
+        workersSpinner.setPreferredSize(new Dimension(60, 25));
+        controlPanel.add(workersSpinner);
+
+        analyzeButton = new JButton("Analyze");
+        analyzeButton.setEnabled(false);
+        analyzeButton.addActionListener(e -> runAnalysis());
+        controlPanel.add(analyzeButton);
+
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> analyzer.cancel());
+        controlPanel.add(cancelButton);
+
+        progressLabel = new JLabel(" ");
+        controlPanel.add(progressLabel);
+
+        add(controlPanel, BorderLayout.NORTH);
+
+        reportArea = new JTextArea();
+        reportArea.setEditable(false);
+        reportArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+        chartPanel = new ChartPanel(createHistogramChart(new DefaultCategoryDataset()));
+        chartPanel.setPreferredSize(new Dimension(500, 300));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(reportArea), chartPanel);
+        splitPane.setDividerLocation(450);
+        add(splitPane, BorderLayout.CENTER);
+    }
+
+    public void setTopic(String connectionId, String topicName) {
+        this.connectionId = connectionId;
+        this.topicName = topicName;
+        topicLabel.setText("Topic: " + topicName);
+        analyzeButton.setEnabled(connectionId != null && !cancelButton.isEnabled());
+    }
+
+    private void runAnalysis() {
+        String connection = connectionId;
+        String topic = topicName;
+        long recordsPerPartition = ((Number) recordsSpinner.getValue()).longValue();
+        boolean fromLatest = fromLatestCheckBox.isSelected();
+        int workers = (Integer) workersSpinner.getValue();
+
+        analyzeButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressLabel.setText("Starting...");
+
+        SwingWorker<TopicAnalysis, Long> worker = new SwingWorker<>() {
+            @Override
+            protected TopicAnalysis doInBackground() throws Exception {
+                return analyzer.analyze(connection, topic, recordsPerPartition, fromLatest, workers, this::publish);
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                progressLabel.setText(String.format("Scanned %,d records", chunks.get(chunks.size() - 1)));
+            }
+
+            @Override
+            protected void done() {
+                analyzeButton.setEnabled(connectionId != null);
+                cancelButton.setEnabled(false);
+                try {
+                    TopicAnalysis analysis = get();
+                    progressLabel.setText(String.format("%s %,d records in %.1f s",
+                            analysis.isCancelled() ? "Cancelled after" : "Scanned",
+                            analysis.getRecordsScanned(), analysis.getElapsedMs() / 1000.0));
+                    showAnalysis(analysis);
+                } catch (Exception e) {
+                    progressLabel.setText("Failed");
+                    JOptionPane.showMessageDialog(TopicAnalysisPanel.this,
+                            "Failed to analyze topic: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showAnalysis(TopicAnalysis analysis) {
+        long records = analysis.getRecordsScanned();
+        StringBuilder report = new StringBuilder();
+        report.append("Topic: ").append(analysis.getTopic()).append("\n");
+        report.append(String.format("Records Scanned: %,d%n", records));
+        report.append(String.format("Value Bytes: %s%n", formatBytes(analysis.getTotalValueBytes())));
+        report.append(String.format("Value Size: min %s / avg %s / max %s%n",
+                formatBytes(analysis.getMinValueSize()),
+                formatBytes(records > 0 ? analysis.getTotalValueBytes() / records : 0),
+                formatBytes(analysis.getMaxValueSize())));
+        report.append(String.format("Null Values (tombstones): %,d%n", analysis.getNullValues()));
+        report.append(String.format("Null Keys: %,d%n", analysis.getNullKeys()));
+        report.append(String.format("Distinct Keys (estimated): %,d%n%n", analysis.getEstimatedDistinctKeys()));
+
+        report.append("Hot Keys (estimated count):\n");
+        report.append("---------------------------\n");
+        for (Map.Entry<String, Long> entry : analysis.getHotKeys().entrySet()) {
+            report.append(String.format("%,12d  %s%n", entry.getValue(), entry.getKey()));
+        }
+
+        report.append(String.format("%nPartition Skew (busiest / mean): %.2f%n", analysis.getPartitionSkew()));
+        report.append("-------------------------------------\n");
+        for (Map.Entry<Integer, Long> entry : analysis.getPartitionRecords().entrySet()) {
+            report.append(String.format("Partition %d: %,d records, %s%n", entry.getKey(), entry.getValue(),
+                    formatBytes(analysis.getPartitionBytes().getOrDefault(entry.getKey(), 0L))));
+        }
+
+        reportArea.setText(report.toString());
+        reportArea.setCaretPosition(0);
+
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        long[] histogram = analysis.getSizeHistogram();
+        int last = histogram.length - 1;
+        while (last > 0 && histogram[last] == 0) {
+            last--;
+        }
+        for (int i = 0; i <= last; i++) {
+            dataset.addValue(histogram[i], "Records", bucketLabel(i));
+        }
+        chartPanel.setChart(createHistogramChart(dataset));
+    }
+
+    private JFreeChart createHistogramChart(DefaultCategoryDataset dataset) {
+        return ChartFactory.createBarChart(
+                "Value Size Distribution",
+                "Value Size",
+                "Records",
+                dataset,
+                PlotOrientation.VERTICAL,
+                false,
+                true,
+                false
+        );
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "0";
+        }
+        return "<" + formatBytes(1L << bucket);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        }
+        return String.format("%.1f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    public void clearData() {
+        analyzer.cancel();
+        connectionId = null;
+        topicName = null;
+        topicLabel.setText("Select a topic");
+        analyzeButton.setEnabled(false);
+        reportArea.setText("");
+        progressLabel.setText(" ");
+    }
+}
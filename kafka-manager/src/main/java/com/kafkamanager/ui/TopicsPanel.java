@@ -1,7 +1,9 @@
 package com.kafkamanager.ui;
 
 import com.kafkamanager.model.TopicInfo;
+import com.kafkamanager.model.TopicRate;
 import com.kafkamanager.service.KafkaConnectionManager;
+import com.kafkamanager.service.TopicRateSampler;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -12,20 +14,40 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class TopicsPanel extends JPanel {
 
+    private static final int RATE_COLUMN = 4;
+    private static final int TREND_COLUMN = 5;
+
     private final KafkaConnectionManager connectionManager;
+    private final TopicRateSampler rateSampler;
+    private final Map<String, Integer> topicRows = new HashMap<>();
+    private final Map<String, Integer> topicPartitions = new HashMap<>();
+    private final Map<String, TopicInfo> topicInfos = new HashMap<>();
+    private Map<String, TopicRate> lastRates = new HashMap<>();
+    // Bumped on the EDT whenever sampling stops or restarts; samples of an older run are ignored
+    private long samplerRun;
+    private String connectionId;
     private JTable topicsTable;
     private DefaultTableModel tableModel;
+    private JCheckBox liveRatesCheckBox;
+    private JCheckBox selectedOnlyCheckBox;
+    private JComboBox<Integer> intervalComboBox;
     private JPanel detailsPanel;
     private JTextArea configTextArea;
     private ChartPanel chartPanel;
+    private TopicAnalysisPanel analysisPanel;
+    private LatestValuesPanel latestValuesPanel;
 
     public TopicsPanel(KafkaConnectionManager connectionManager) {
         this.connectionManager = connectionManager;
+        this.rateSampler = new TopicRateSampler(connectionManager);
         initializeUI();
     }
 
@@ -48,7 +70,7 @@ public class TopicsPanel extends JPanel {
     private JPanel createTopPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
 
-        String[] columns = {"Topic Name", "Partitions", "Replication Factor", "Internal"};
+        String[] columns = {"Topic Name", "Partitions", "Replication Factor", "Internal", "Msgs/sec", "Trend"};
         tableModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -56,9 +78,20 @@ public class TopicsPanel extends JPanel {
             }
         };
 
-        topicsTable = new JTable(tableModel);
-        topicsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        topicsTable = new JTable(tableModel) {
+            @Override
+            public String getToolTipText(MouseEvent event) {
+                int row = rowAtPoint(event.getPoint());
+                int column = columnAtPoint(event.getPoint());
+                if (row < 0 || (column != RATE_COLUMN && column != TREND_COLUMN)) {
+                    return null;
+                }
+                return getPartitionRatesTooltip((String) tableModel.getValueAt(row, 0));
+            }
+        };
+        topicsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         topicsTable.setRowHeight(25);
+        topicsTable.getColumnModel().getColumn(TREND_COLUMN).setCellRenderer(new SparklineRenderer());
         topicsTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 onTopicSelected();
@@ -75,6 +108,20 @@ public class TopicsPanel extends JPanel {
         });
         buttonPanel.add(refreshButton);
 
+        liveRatesCheckBox = new JCheckBox("Live Rates");
+        liveRatesCheckBox.addActionListener(e -> restartSampler());
+        buttonPanel.add(liveRatesCheckBox);
+
+        selectedOnlyCheckBox = new JCheckBox("Selected Topics Only");
+        selectedOnlyCheckBox.addActionListener(e -> restartSampler());
+        buttonPanel.add(selectedOnlyCheckBox);
+
+        buttonPanel.add(new JLabel("Interval (s):"));
+        intervalComboBox = new JComboBox<>(new Integer[]{1, 2, 5, 10, 30});
+        intervalComboBox.setSelectedItem(5);
+        intervalComboBox.addActionListener(e -> restartSampler());
+        buttonPanel.add(intervalComboBox);
+
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
         return panel;
@@ -108,12 +155,19 @@ public class TopicsPanel extends JPanel {
         chartPanel.setPreferredSize(new Dimension(800, 300));
         tabbedPane.addTab("Statistics", chartPanel);
 
+        analysisPanel = new TopicAnalysisPanel(connectionManager);
+        tabbedPane.addTab("Analysis", analysisPanel);
+
+        latestValuesPanel = new LatestValuesPanel(connectionManager);
+        tabbedPane.addTab("Latest Values", latestValuesPanel);
+
         panel.add(tabbedPane, BorderLayout.CENTER);
 
         return panel;
     }
 
     public void loadTopics(String connectionId) {
+        this.connectionId = connectionId;
         SwingWorker<List<TopicInfo>, Void> worker = new SwingWorker<>() {
             @Override
             protected List<TopicInfo> doInBackground() throws Exception {
@@ -138,24 +192,97 @@ public class TopicsPanel extends JPanel {
 
     private void updateTopicsTable(List<TopicInfo> topics) {
         tableModel.setRowCount(0);
+        topicRows.clear();
+        topicPartitions.clear();
+        topicInfos.clear();
         for (TopicInfo topic : topics) {
             Object[] row = {
                     topic.getName(),
                     topic.getPartitionCount(),
                     topic.getReplicationFactor(),
-                    topic.isInternal() ? "Yes" : "No"
+                    topic.isInternal() ? "Yes" : "No",
+                    "",
+                    null
             };
+            topicRows.put(topic.getName(), tableModel.getRowCount());
+            topicPartitions.put(topic.getName(), topic.getPartitionCount());
+            topicInfos.put(topic.getName(), topic);
             tableModel.addRow(row);
         }
+        restartSampler();
+    }
+
+    private void restartSampler() {
+        rateSampler.stop();
+        long run = ++samplerRun;
+        lastRates = new HashMap<>();
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            tableModel.setValueAt("", row, RATE_COLUMN);
+            tableModel.setValueAt(null, row, TREND_COLUMN);
+        }
+
+        if (!liveRatesCheckBox.isSelected() || connectionId == null || topicPartitions.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> topics = topicPartitions;
+        if (selectedOnlyCheckBox.isSelected()) {
+            topics = new HashMap<>();
+            for (int row : topicsTable.getSelectedRows()) {
+                String topicName = (String) tableModel.getValueAt(row, 0);
+                topics.put(topicName, topicPartitions.get(topicName));
+            }
+            if (topics.isEmpty()) {
+                return;
+            }
+        }
+
+        long intervalMs = (Integer) intervalComboBox.getSelectedItem() * 1000L;
+        rateSampler.start(connectionId, topics, intervalMs,
+                rates -> SwingUtilities.invokeLater(() -> updateRates(run, rates)));
+    }
+
+    private void updateRates(long run, Map<String, TopicRate> rates) {
+        // A sample queued just before a restart belongs to the previous topic set
+        if (run != samplerRun || !rateSampler.isRunning()) {
+            return;
+        }
+        lastRates = rates;
+        for (TopicRate rate : rates.values()) {
+            Integer row = topicRows.get(rate.getTopic());
+            if (row != null) {
+                tableModel.setValueAt(String.format("%.1f", rate.getMessagesPerSecond()), row, RATE_COLUMN);
+                tableModel.setValueAt(rate.getHistory(), row, TREND_COLUMN);
+            }
+        }
+    }
+
+    private String getPartitionRatesTooltip(String topicName) {
+        TopicRate rate = lastRates.get(topicName);
+        if (rate == null || rate.getPartitionRates() == null) {
+            return null;
+        }
+
+        StringBuilder tooltip = new StringBuilder("<html><b>").append(topicName).append("</b>");
+        for (Map.Entry<Integer, Double> entry : new TreeMap<>(rate.getPartitionRates()).entrySet()) {
+            tooltip.append(String.format("<br>P%d: %.1f msgs/sec", entry.getKey(), entry.getValue()));
+        }
+        return tooltip.append("</html>").toString();
     }
 
     private void onTopicSelected() {
+        if (liveRatesCheckBox.isSelected() && selectedOnlyCheckBox.isSelected()) {
+            restartSampler();
+        }
+
         int selectedRow = topicsTable.getSelectedRow();
         if (selectedRow < 0) {
             return;
         }
 
         String topicName = (String) tableModel.getValueAt(selectedRow, 0);
+        analysisPanel.setTopic(connectionId, topicName);
+        latestValuesPanel.setTopic(connectionId, topicInfos.get(topicName));
         loadTopicDetails(topicName);
     }
 
@@ -250,7 +377,15 @@ public class TopicsPanel extends JPanel {
     }
 
     public void clearData() {
+        rateSampler.stop();
+        samplerRun++;
+        connectionId = null;
+        topicRows.clear();
+        topicPartitions.clear();
+        topicInfos.clear();
         tableModel.setRowCount(0);
         configTextArea.setText("");
+        analysisPanel.clearData();
+        latestValuesPanel.clearData();
     }
 }
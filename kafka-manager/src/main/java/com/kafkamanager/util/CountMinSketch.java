@@ -0,0 +1,45 @@
+package com.kafkamanager.util;
+
+/**
+ * Count-min sketch for approximate per-key frequencies in fixed memory.
+ * Estimates never undercount; with the default size the overcount is at most
+ * ~0.1% of the total count with 99% probability.
+ */
+public class CountMinSketch {
+
+    private static final int DEPTH = 5;
+    private static final int WIDTH = 2048;
+
+    private final long[][] counts = new long[DEPTH][WIDTH];
+
+    public long add(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            long count = ++counts[row][bucket(hash, row)];
+            estimate = Math.min(estimate, count);
+        }
+        return estimate;
+    }
+
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts[row][bucket(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public void merge(CountMinSketch other) {
+        for (int row = 0; row < DEPTH; row++) {
+            for (int i = 0; i < WIDTH; i++) {
+                counts[row][i] += other.counts[row][i];
+            }
+        }
+    }
+
+    private static int bucket(long hash, int row) {
+        // Kirsch-Mitzenmacher: derive the row hashes from the two 32-bit halves
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % WIDTH;
+    }
+}
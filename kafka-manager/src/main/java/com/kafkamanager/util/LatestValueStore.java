@@ -0,0 +1,366 @@
+package com.kafkamanager.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Holds the latest value per key, as when replaying a compacted topic. Entries
+ * live in a HashMap until their estimated footprint exceeds a threshold; after
+ * that, values are appended to a log file and keys are located through a
+ * memory-mapped open-addressing index of (key hash, log offset) slots, so heap
+ * use stays constant however many keys there are. A null value is a tombstone
+ * and removes the key.
+ */
+public class LatestValueStore implements Closeable {
+
+    // HashMap node, ByteBuffer wrapper and array headers per in-memory entry
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final int SLOT_BYTES = 16;
+    private static final int SEGMENT_SHIFT = 23;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final long INITIAL_SLOTS = 1L << 20;
+    private static final double MAX_LOAD = 0.6;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int HEADER_BYTES = 8;
+
+    private final long memoryLimitBytes;
+    private Map<ByteBuffer, byte[]> memory = new HashMap<>();
+    private long memoryBytes;
+    private long tombstones;
+
+    private Path directory;
+    private FileChannel log;
+    private ByteBuffer writeBuffer;
+    // Bytes of the log already on disk; the write buffer holds everything after this
+    private long flushedPosition;
+    private MappedByteBuffer[] index;
+    private Path indexFile;
+    private long slotCount;
+    private long usedSlots;
+    private long liveKeys;
+
+    public LatestValueStore(long memoryLimitBytes) {
+        this.memoryLimitBytes = memoryLimitBytes;
+    }
+
+    public synchronized void put(byte[] key, byte[] value) throws IOException {
+        if (value == null) {
+            tombstones++;
+        }
+
+        if (!isSpilled()) {
+            ByteBuffer wrappedKey = ByteBuffer.wrap(key);
+            byte[] previous = value == null ? memory.remove(wrappedKey) : memory.put(wrappedKey, value);
+            if (previous != null) {
+                memoryBytes -= footprint(key, previous);
+            }
+            if (value != null) {
+                memoryBytes += footprint(key, value);
+            }
+            if (memoryBytes > memoryLimitBytes) {
+                spill();
+            }
+            return;
+        }
+
+        putOnDisk(key, value);
+    }
+
+    public synchronized byte[] get(byte[] key) throws IOException {
+        if (!isSpilled()) {
+            return memory.get(ByteBuffer.wrap(key));
+        }
+
+        long slot = findSlot(key, hash(key));
+        if (slotHash(slot) == 0) {
+            return null;
+        }
+        long offset = slotOffset(slot);
+        ByteBuffer header = ByteBuffer.wrap(readBytes(offset, HEADER_BYTES));
+        int keyLength = header.getInt();
+        int valueLength = header.getInt();
+        return valueLength < 0 ? null : readBytes(offset + HEADER_BYTES + keyLength, valueLength);
+    }
+
+    /**
+     * Returns up to {@code limit} live entries whose key matches. Once spilled this
+     * reads every key from disk, so call it off the EDT.
+     */
+    public synchronized List<Map.Entry<byte[], byte[]>> find(Predicate<byte[]> keyMatcher, int limit)
+            throws IOException {
+        List<Map.Entry<byte[], byte[]>> matches = new ArrayList<>();
+        if (!isSpilled()) {
+            for (Map.Entry<ByteBuffer, byte[]> entry : memory.entrySet()) {
+                if (matches.size() >= limit) {
+                    break;
+                }
+                if (keyMatcher.test(entry.getKey().array())) {
+                    matches.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey().array(), entry.getValue()));
+                }
+            }
+            return matches;
+        }
+
+        for (long slot = 0; slot < slotCount && matches.size() < limit; slot++) {
+            if (slotHash(slot) == 0) {
+                continue;
+            }
+            long offset = slotOffset(slot);
+            ByteBuffer header = ByteBuffer.wrap(readBytes(offset, HEADER_BYTES));
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            if (valueLength < 0) {
+                continue;
+            }
+            byte[] key = readBytes(offset + HEADER_BYTES, keyLength);
+            if (keyMatcher.test(key)) {
+                byte[] value = readBytes(offset + HEADER_BYTES + keyLength, valueLength);
+                matches.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+            }
+        }
+        return matches;
+    }
+
+    public synchronized long size() {
+        return isSpilled() ? liveKeys : memory.size();
+    }
+
+    public synchronized long getTombstones() {
+        return tombstones;
+    }
+
+    public synchronized boolean isSpilled() {
+        return index != null;
+    }
+
+    public synchronized long getDiskBytes() {
+        return isSpilled() ? flushedPosition + writeBuffer.position() + slotCount * SLOT_BYTES : 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        memory = new HashMap<>();
+        index = null;
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+            directory = null;
+        }
+    }
+
+    private void spill() throws IOException {
+        directory = Files.createTempDirectory("kafka-manager-latest-");
+        log = FileChannel.open(directory.resolve("values.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+
+        long slots = INITIAL_SLOTS;
+        while (memory.size() > slots * MAX_LOAD / 2) {
+            slots <<= 1;
+        }
+        index = createIndex(slots);
+        slotCount = slots;
+
+        Map<ByteBuffer, byte[]> entries = memory;
+        memory = null;
+        memoryBytes = 0;
+        for (Map.Entry<ByteBuffer, byte[]> entry : entries.entrySet()) {
+            putOnDisk(entry.getKey().array(), entry.getValue());
+        }
+    }
+
+    private void putOnDisk(byte[] key, byte[] value) throws IOException {
+        long hash = hash(key);
+        long slot = findSlot(key, hash);
+        long existingHash = slotHash(slot);
+
+        if (existingHash == 0) {
+            if (value == null) {
+                return;
+            }
+            setSlot(slot, hash, append(key, value));
+            usedSlots++;
+            liveKeys++;
+            if (usedSlots > slotCount * MAX_LOAD) {
+                resize();
+            }
+            return;
+        }
+
+        boolean wasLive = ByteBuffer.wrap(readBytes(slotOffset(slot), HEADER_BYTES)).getInt(4) >= 0;
+        setSlot(slot, hash, append(key, value));
+        if (wasLive && value == null) {
+            liveKeys--;
+        } else if (!wasLive && value != null) {
+            liveKeys++;
+        }
+    }
+
+    /**
+     * Returns the slot holding {@code key}, or the empty slot where it belongs.
+     */
+    private long findSlot(byte[] key, long hash) throws IOException {
+        long mask = slotCount - 1;
+        long slot = hash & mask;
+        while (true) {
+            long slotHash = slotHash(slot);
+            if (slotHash == 0) {
+                return slot;
+            }
+            if (slotHash == hash) {
+                long offset = slotOffset(slot);
+                int keyLength = ByteBuffer.wrap(readBytes(offset, HEADER_BYTES)).getInt(0);
+                if (keyLength == key.length && Arrays.equals(readBytes(offset + HEADER_BYTES, keyLength), key)) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void resize() throws IOException {
+        MappedByteBuffer[] oldIndex = index;
+        long oldSlotCount = slotCount;
+        Path oldIndexFile = indexFile;
+
+        long newSlotCount = oldSlotCount << 1;
+        MappedByteBuffer[] newIndex = createIndex(newSlotCount);
+        index = newIndex;
+        slotCount = newSlotCount;
+        long mask = newSlotCount - 1;
+
+        for (long slot = 0; slot < oldSlotCount; slot++) {
+            ByteBuffer segment = oldIndex[(int) (slot >>> SEGMENT_SHIFT)];
+            int position = (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+            long hash = segment.getLong(position);
+            if (hash == 0) {
+                continue;
+            }
+            long target = hash & mask;
+            while (slotHash(target) != 0) {
+                target = (target + 1) & mask;
+            }
+            setSlot(target, hash, segment.getLong(position + 8));
+        }
+
+        try {
+            Files.deleteIfExists(oldIndexFile);
+        } catch (IOException e) {
+            // Still mapped on some platforms; removed with the directory on close
+        }
+    }
+
+    private MappedByteBuffer[] createIndex(long slots) throws IOException {
+        indexFile = directory.resolve("index-" + slots + ".bin");
+        long segmentSlots = 1L << SEGMENT_SHIFT;
+        int segments = (int) ((slots + segmentSlots - 1) / segmentSlots);
+        MappedByteBuffer[] buffers = new MappedByteBuffer[segments];
+        try (FileChannel channel = FileChannel.open(indexFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < segments; i++) {
+                long size = Math.min(segmentSlots, slots - i * segmentSlots) * SLOT_BYTES;
+                buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * segmentSlots * SLOT_BYTES, size);
+            }
+        }
+        return buffers;
+    }
+
+    private long slotHash(long slot) {
+        return index[(int) (slot >>> SEGMENT_SHIFT)].getLong((int) (slot & SEGMENT_MASK) * SLOT_BYTES);
+    }
+
+    private long slotOffset(long slot) {
+        return index[(int) (slot >>> SEGMENT_SHIFT)].getLong((int) (slot & SEGMENT_MASK) * SLOT_BYTES + 8);
+    }
+
+    private void setSlot(long slot, long hash, long offset) {
+        MappedByteBuffer segment = index[(int) (slot >>> SEGMENT_SHIFT)];
+        int position = (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+        segment.putLong(position, hash);
+        segment.putLong(position + 8, offset);
+    }
+
+    /**
+     * Appends a [keyLength][valueLength][key][value] record (valueLength -1 for a
+     * tombstone) and returns its log offset.
+     */
+    private long append(byte[] key, byte[] value) throws IOException {
+        int size = HEADER_BYTES + key.length + (value != null ? value.length : 0);
+        if (size > writeBuffer.remaining()) {
+            flushLog();
+        }
+
+        long offset = flushedPosition + writeBuffer.position();
+        ByteBuffer target = size > writeBuffer.capacity() ? ByteBuffer.allocate(size) : writeBuffer;
+        target.putInt(key.length).putInt(value != null ? value.length : -1).put(key);
+        if (value != null) {
+            target.put(value);
+        }
+
+        if (target != writeBuffer) {
+            // Too large to buffer; write straight through
+            target.flip();
+            writeFully(target);
+        }
+        return offset;
+    }
+
+    private void flushLog() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            flushedPosition += log.write(buffer, flushedPosition);
+        }
+    }
+
+    private byte[] readBytes(long offset, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        if (offset >= flushedPosition) {
+            writeBuffer.get((int) (offset - flushedPosition), bytes);
+            return bytes;
+        }
+
+        ByteBuffer target = ByteBuffer.wrap(bytes);
+        while (target.hasRemaining()) {
+            if (log.read(target, offset + target.position()) < 0) {
+                throw new EOFException("Unexpected end of value log at " + offset);
+            }
+        }
+        return bytes;
+    }
+
+    private static long footprint(byte[] key, byte[] value) {
+        return ENTRY_OVERHEAD + key.length + value.length;
+    }
+
+    private static long hash(byte[] key) {
+        long hash = HyperLogLog.hash(key);
+        // Zero marks an empty index slot
+        return hash != 0 ? hash : 1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.oraclejms.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A message seen through a queue browser; it stays on the queue.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrowsedMessage {
+    // 1-based position in the browse order
+    private long position;
+    private String messageId;
+    private String correlationId;
+    private LocalDateTime putTime;
+    private String bodyType;
+    private int priority;
+    private boolean persistent;
+    private boolean redelivered;
+    // Full body length in characters (text) or bytes (bytes messages)
+    private long size;
+    // Body text, cut off at QueueBrowsePager.MAX_CONTENT_CHARS
+    private String content;
+    private boolean truncated;
+
+    /**
+     * Single-line start of the body for the table.
+     */
+    public String getPreview() {
+        if (content == null) {
+            return "";
+        }
+        String preview = content.length() > 200 ? content.substring(0, 200) : content;
+        return preview.replaceAll("\\s+", " ").trim();
+    }
+}
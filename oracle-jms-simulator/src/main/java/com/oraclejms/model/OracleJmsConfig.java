@@ -8,16 +8,27 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "oracle.jms")
 public class OracleJmsConfig {
+    // "weblogic" for a WebLogic server over JNDI, "artemis" for the embedded broker
+    private String provider = "weblogic";
     private String providerUrl;
     private String connectionFactory;
     private String user;
     private String password;
     private int receiveTimeout;
     private Queue queue;
+    private Artemis artemis = new Artemis();
 
     @Data
     public static class Queue {
         private String in;
         private String out;
     }
+
+    @Data
+    public static class Artemis {
+        // Journal and paging directory; blank keeps messages in memory only
+        private String dataDirectory;
+        // Optional acceptor for outside clients, e.g. tcp://localhost:61616
+        private String tcpUrl;
+    }
 }
@@ -0,0 +1,131 @@
+package com.oraclejms.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.remoting.impl.invm.InVMAcceptorFactory;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.core.settings.impl.AddressFullMessagePolicy;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.Session;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ActiveMQ Artemis broker started inside this JVM, for running every feature without a
+ * WebLogic server. Queues are addressed by plain name and created on first use. Without a data directory the broker keeps
+ * messages in memory only and blocks producers when memory is full; with one it journals and
+ * pages to disk like a real broker. The broker starts on the first connection and keeps its
+ * messages across disconnects until {@link #shutdown()}.
+ */
+@Slf4j
+public class EmbeddedArtemisProvider implements JmsProvider {
+
+    private static final String IN_VM_URL = "vm://0";
+
+    private final String dataDirectory;
+    private final String tcpUrl;
+    private EmbeddedActiveMQ broker;
+    private ActiveMQConnectionFactory connectionFactory;
+
+    /**
+     * @param dataDirectory journal and paging directory, or blank for an in-memory broker
+     * @param tcpUrl        extra acceptor such as tcp://localhost:61616 for outside clients, or blank for none
+     */
+    public EmbeddedArtemisProvider(String dataDirectory, String tcpUrl) {
+        this.dataDirectory = dataDirectory == null || dataDirectory.isBlank() ? null : dataDirectory.trim();
+        this.tcpUrl = tcpUrl == null || tcpUrl.isBlank() ? null : tcpUrl.trim();
+    }
+
+    @Override
+    public String describe() {
+        return "embedded Artemis (" + (dataDirectory != null ? "journal in " + dataDirectory : "in-memory")
+                + (tcpUrl != null ? ", " + tcpUrl : "") + ")";
+    }
+
+    @Override
+    public synchronized Connection connect() throws JMSException {
+        if (broker == null) {
+            startBroker();
+        }
+        return connectionFactory.createConnection();
+    }
+
+    @Override
+    public Queue lookupQueue(Session session, String queueName) throws JMSException {
+        return session.createQueue(queueName);
+    }
+
+    @Override
+    public boolean testConnection() {
+        try (Connection connection = connect()) {
+            connection.start();
+            log.info("Connection test successful to {}", describe());
+            return true;
+        } catch (JMSException e) {
+            log.error("Embedded broker connection failed: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        if (broker == null) {
+            return;
+        }
+        connectionFactory.close();
+        connectionFactory = null;
+        try {
+            broker.stop();
+            log.info("Stopped {}", describe());
+        } catch (Exception e) {
+            log.warn("Error stopping embedded broker: {}", e.getMessage());
+        }
+        broker = null;
+    }
+
+    private void startBroker() throws JMSException {
+        try {
+            Configuration configuration = new ConfigurationImpl()
+                    .setName("simulator")
+                    .setSecurityEnabled(false)
+                    .setPersistenceEnabled(dataDirectory != null)
+                    .addAcceptorConfiguration(new TransportConfiguration(InVMAcceptorFactory.class.getName()));
+            if (tcpUrl != null) {
+                configuration.addAcceptorConfiguration("tcp", tcpUrl);
+            }
+            AddressSettings defaults = new AddressSettings()
+                    .setAutoCreateQueues(true)
+                    .setAutoCreateAddresses(true)
+                    .setAddressFullMessagePolicy(dataDirectory != null
+                            ? AddressFullMessagePolicy.PAGE
+                            : AddressFullMessagePolicy.BLOCK);
+            configuration.addAddressesSetting("#", defaults);
+            if (dataDirectory != null) {
+                Path base = Paths.get(dataDirectory).toAbsolutePath();
+                configuration.setJournalDirectory(base.resolve("journal").toString())
+                        .setBindingsDirectory(base.resolve("bindings").toString())
+                        .setPagingDirectory(base.resolve("paging").toString())
+                        .setLargeMessagesDirectory(base.resolve("large-messages").toString());
+            }
+
+            EmbeddedActiveMQ server = new EmbeddedActiveMQ();
+            server.setConfiguration(configuration);
+            server.start();
+            broker = server;
+            connectionFactory = new ActiveMQConnectionFactory(IN_VM_URL);
+            log.info("Started {}", describe());
+        } catch (Exception e) {
+            log.error("Failed to start embedded broker", e);
+            JMSException jmsException = new JMSException("Failed to start embedded Artemis broker: " + e.getMessage());
+            jmsException.setLinkedException(e);
+            throw jmsException;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.oraclejms.service;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.Session;
+
+/**
+ * Opens the JMS connections and resolves the queues the service works with, so the same
+ * send, receive and browse code runs against WebLogic or an in-process broker.
+ */
+public interface JmsProvider {
+
+    /**
+     * Human-readable target, e.g. "WebLogic at t3://localhost:7001".
+     */
+    String describe();
+
+    /**
+     * Opens a connection (not yet started) with whatever credentials the provider holds.
+     */
+    Connection connect() throws JMSException;
+
+    /**
+     * Resolves a queue by the name the user typed: a JNDI name for WebLogic, a plain queue name otherwise.
+     */
+    Queue lookupQueue(Session session, String queueName) throws JMSException;
+
+    /**
+     * Opens and starts a throwaway connection, logging why it failed if it does.
+     */
+    boolean testConnection();
+
+    /**
+     * Releases anything the provider runs itself; a no-op for remote servers.
+     */
+    default void shutdown() {
+    }
+}
@@ -5,13 +5,10 @@ import com.oraclejms.model.OracleJmsConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import javax.jms.*;
-import javax.naming.Context;
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +19,9 @@ public class OracleJmsService {
     private final OracleJmsConfig config;
     private Connection connection;
     private Session session;
+    private JmsProvider provider;
+    // Kept across connects so the embedded broker's queues survive a disconnect
+    private EmbeddedArtemisProvider embeddedBroker;
     private boolean connected = false;
     private final List<JmsMessage> messageHistory = new ArrayList<>();
     
@@ -58,125 +58,61 @@ public class OracleJmsService {
         return currentProviderUrl;
     }
 
-    /**
-     * Creates JNDI context with configured settings
-     */
-    private InitialContext createJndiContext() throws NamingException {
-        // Step 2: Create JNDI context
-        System.out.println("\n[2/6] Creating JNDI context...");
-
-        Hashtable<String, String> env = new Hashtable<>();
-        env.put(Context.INITIAL_CONTEXT_FACTORY, "weblogic.jndi.WLInitialContextFactory");
-        env.put(Context.PROVIDER_URL, currentProviderUrl);
-
-        // WebLogic-specific timeout settings (in milliseconds)
-        env.put("weblogic.jndi.connectTimeout", "60000");  // 60 seconds connection timeout
-        env.put("weblogic.jndi.responseReadTimeout", "60000");  // 60 seconds read timeout
-
-        if (currentUser != null && !currentUser.isEmpty()) {
-            env.put(Context.SECURITY_PRINCIPAL, currentUser);
-            env.put(Context.SECURITY_CREDENTIALS, currentPassword);
-        }
-
-
-        return new InitialContext(env);
-    }
-    
     /**
      * Test connection with current parameters
      */
     public boolean testConnection() {
+        return resolveProvider().testConnection();
+    }
 
-        // Step 1: Verify WebLogic classes
-        System.out.println("\n[1/6] Verifying WebLogic classes...");
-        verifyWebLogicClasses();
-        System.out.println("✓ WebLogic classes found");
-
-        InitialContext ctx = null;
-        Connection testConnection = null;
-        try {
-            ctx = createJndiContext();
-            System.out.println("✓ JNDI context created successfully");
+    public void connect() throws JMSException {
+        provider = resolveProvider();
+        connection = provider.connect();
+        session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        connection.start();
+        connected = true;
 
-            // Step 3: Lookup connection factory
-            System.out.println("\n[3/6] Looking up connection factory: " + config.getConnectionFactory());
-            // Look up connection factory
-            ConnectionFactory connectionFactory = (ConnectionFactory) ctx.lookup(currentConnectionFactory);
-            System.out.println("✓ Connection factory found: " + connectionFactory.getClass().getName());
+        log.info("Connected to Oracle JMS at {}", provider.describe());
+    }
 
-            // Step 4: Create connection
-            System.out.println("\n[4/6] Creating JMS connection...");
-            // Create test connection
-            if (currentUser != null && !currentUser.isEmpty()) {
-                testConnection = connectionFactory.createConnection(currentUser, currentPassword);
-            } else {
-                testConnection = connectionFactory.createConnection();
-            }
-            System.out.println("✓ Connection created: " + testConnection.getClass().getName());
+    /**
+     * Where the service is (or would be) connected, for status lines.
+     */
+    public String getProviderDescription() {
+        return provider != null ? provider.describe() : currentProviderUrl;
+    }
 
-            // Step 5: Start connection
-            System.out.println("\n[5/6] Starting connection...");
-            testConnection.start();
-            System.out.println("✓ Connection started successfully");
-            log.info("Connection test successful to {}", currentProviderUrl);
-            return true;
-        } catch (NamingException e) {
-            if (e.getMessage() != null && e.getMessage().contains("Cannot instantiate class")) {
-                log.error("WebLogic JNDI classes not available. Please ensure WebLogic client JAR is in the classpath. " +
-                         "See README.md for installation instructions.", e);
-            } else {
-                log.error("JNDI lookup failed: {}", e.getMessage(), e);
-            }
-            return false;
-        } catch (JMSException e) {
-            log.error("JMS connection failed: {}", e.getMessage(), e);
-            return false;
-        } finally {
-            if (testConnection != null) {
-                try {
-                    testConnection.close();
-                } catch (JMSException e) {
-                    log.warn("Error closing test connection", e);
-                }
-            }
-            if (ctx != null) {
-                try {
-                    ctx.close();
-                } catch (NamingException e) {
-                    log.warn("Error closing test context", e);
-                }
-            }
+    /**
+     * Stops the embedded broker, if one was started, when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (connected) {
+            disconnect();
+        }
+        if (embeddedBroker != null) {
+            embeddedBroker.shutdown();
         }
     }
 
-    public void connect() throws JMSException {
-        try {
-            InitialContext ctx = createJndiContext();
-            
-            // Look up connection factory
-            ConnectionFactory connectionFactory = (ConnectionFactory) ctx.lookup(currentConnectionFactory);
-            
-            // Create connection
-            if (currentUser != null && !currentUser.isEmpty()) {
-                connection = connectionFactory.createConnection(currentUser, currentPassword);
-            } else {
-                connection = connectionFactory.createConnection();
-            }
-            
-            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            connection.start();
-            connected = true;
-            
-            log.info("Connected to Oracle JMS at {}", currentProviderUrl);
-            
-            ctx.close();
-        } catch (NamingException e) {
-            log.error("Failed to connect to Oracle JMS", e);
-            String errorMsg = e.getMessage();
-            if (errorMsg != null && errorMsg.contains("Cannot instantiate class")) {
-                throw new JMSException("WebLogic client library not found. Please install wlfullclient.jar or wlthint3client.jar. See README.md for instructions.");
-            }
-            throw new JMSException("Failed to connect: " + errorMsg);
+    /**
+     * The provider selected by {@code oracle.jms.provider}. WebLogic picks up the current
+     * connection parameters each time; the embedded broker is kept so its queues outlive a disconnect.
+     */
+    private JmsProvider resolveProvider() {
+        String name = config.getProvider() == null ? "weblogic" : config.getProvider().trim().toLowerCase();
+        switch (name) {
+            case "weblogic":
+                return new WebLogicProvider(currentProviderUrl, currentConnectionFactory, currentUser, currentPassword);
+            case "artemis":
+                if (embeddedBroker == null) {
+                    embeddedBroker = new EmbeddedArtemisProvider(config.getArtemis().getDataDirectory(),
+                            config.getArtemis().getTcpUrl());
+                }
+                return embeddedBroker;
+            default:
+                throw new IllegalArgumentException("Unknown JMS provider '" + config.getProvider()
+                        + "'; expected weblogic or artemis");
         }
     }
 
@@ -200,12 +136,10 @@ public class OracleJmsService {
             throw new JMSException("Not connected to Oracle JMS");
         }
 
-        InitialContext ctx = null;
         MessageProducer producer = null;
         
         try {
-            ctx = createJndiContext();
-            Queue queue = (Queue) ctx.lookup(queueName);
+            Queue queue = provider.lookupQueue(session, queueName);
             
             producer = session.createProducer(queue);
             TextMessage message = session.createTextMessage(xmlContent);
@@ -222,9 +156,6 @@ public class OracleJmsService {
             messageHistory.add(jmsMessage);
             
             log.info("Sent message to queue: {}", queueName);
-        } catch (NamingException e) {
-            log.error("Failed to send message", e);
-            throw new JMSException("Failed to send message: " + e.getMessage());
         } finally {
             if (producer != null) {
                 try {
@@ -233,13 +164,6 @@ public class OracleJmsService {
                     log.warn("Error closing producer", e);
                 }
             }
-            if (ctx != null) {
-                try {
-                    ctx.close();
-                } catch (NamingException e) {
-                    log.warn("Error closing context", e);
-                }
-            }
         }
     }
 
@@ -249,12 +173,10 @@ public class OracleJmsService {
         }
 
         List<JmsMessage> messages = new ArrayList<>();
-        InitialContext ctx = null;
         MessageConsumer consumer = null;
         
         try {
-            ctx = createJndiContext();
-            Queue queue = (Queue) ctx.lookup(queueName);
+            Queue queue = provider.lookupQueue(session, queueName);
             
             consumer = session.createConsumer(queue);
             
@@ -279,9 +201,6 @@ public class OracleJmsService {
             }
             
             log.info("Received {} messages from queue: {}", messages.size(), queueName);
-        } catch (NamingException e) {
-            log.error("Failed to receive messages", e);
-            throw new JMSException("Failed to receive messages: " + e.getMessage());
         } finally {
             if (consumer != null) {
                 try {
@@ -290,18 +209,27 @@ public class OracleJmsService {
                     log.warn("Error closing consumer", e);
                 }
             }
-            if (ctx != null) {
-                try {
-                    ctx.close();
-                } catch (NamingException e) {
-                    log.warn("Error closing context", e);
-                }
-            }
         }
         
         return messages;
     }
 
+    /**
+     * Opens a non-destructive, paged view of a queue on its own session.
+     * The caller owns the pager and must close it.
+     *
+     * @param queueName JNDI name of the queue (plain queue name on the embedded broker)
+     * @param selector JMS message selector, or blank for every message
+     */
+    public QueueBrowsePager browseQueue(String queueName, String selector) throws JMSException {
+        if (!connected) {
+            throw new JMSException("Not connected to Oracle JMS");
+        }
+
+        Queue queue = provider.lookupQueue(session, queueName);
+        return new QueueBrowsePager(connection, queue, queueName, selector);
+    }
+
     public boolean isConnected() {
         return connected;
     }
@@ -315,10 +243,13 @@ public class OracleJmsService {
     }
     
     /**
-     * Sends multiple messages with template processing in parallel using threading
+     * Sends multiple messages with template processing in parallel using threading.
+     * Worker threads pull message numbers off a shared sequence and render each message
+     * just before sending it, each over its own session and producer, so nothing is queued
+     * per message however large the count.
      * @param queueName Target queue name
      * @param xmlTemplate XML template with placeholders
-     * @param messageCount Number of messages to send (1-20000)
+     * @param messageCount Number of messages to send (1 or more)
      * @param progressCallback Callback for progress updates (sent count, total count)
      * @throws JMSException if sending fails
      */
@@ -328,61 +259,86 @@ public class OracleJmsService {
             throw new JMSException("Not connected to Oracle JMS");
         }
         
-        if (messageCount < 1 || messageCount > 20000) {
-            throw new JMSException("Message count must be between 1 and 20000");
+        if (messageCount < 1) {
+            throw new JMSException("Message count must be at least 1");
         }
         
         // Use thread pool for parallel sending
         int threadCount = Math.min(10, Math.max(1, messageCount / 100)); // 1-10 threads based on load
         java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(threadCount);
-        java.util.concurrent.atomic.AtomicInteger sentCount = new java.util.concurrent.atomic.AtomicInteger(0);
-        java.util.concurrent.atomic.AtomicInteger errorCount = new java.util.concurrent.atomic.AtomicInteger(0);
+        // Long, so the workers' final increments past a count near Integer.MAX_VALUE cannot wrap around
+        java.util.concurrent.atomic.AtomicLong sequence = new java.util.concurrent.atomic.AtomicLong(0);
+        java.util.concurrent.atomic.AtomicLong sentCount = new java.util.concurrent.atomic.AtomicLong(0);
+        java.util.concurrent.atomic.AtomicLong errorCount = new java.util.concurrent.atomic.AtomicLong(0);
         
         try {
-            InitialContext ctx = createJndiContext();
-            Queue queue = (Queue) ctx.lookup(queueName);
+            Queue queue = provider.lookupQueue(session, queueName);
             
-            for (int i = 0; i < messageCount; i++) {
-                final int messageNum = i + 1;
+            for (int i = 0; i < threadCount; i++) {
                 executor.submit(() -> {
+                    Session workerSession = null;
+                    MessageProducer producer = null;
                     try {
-                        // Process template for this message
-                        String processedXml = com.oraclejms.util.TemplateUtil.processTemplate(xmlTemplate);
-                        
-                        // Create producer for this thread
-                        MessageProducer producer = session.createProducer(queue);
-                        TextMessage message = session.createTextMessage(processedXml);
-                        producer.send(message);
-                        producer.close();
+                        // Sessions are single-threaded: each worker gets its own for the whole run
+                        workerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                        producer = workerSession.createProducer(queue);
                         
-                        int sent = sentCount.incrementAndGet();
-                        
-                        // Update progress every 10 messages or on last message
-                        if (sent % 10 == 0 || sent == messageCount) {
-                            if (progressCallback != null) {
-                                progressCallback.accept(sent, messageCount);
+                        long messageNum;
+                        while ((messageNum = sequence.incrementAndGet()) <= messageCount
+                                && !Thread.currentThread().isInterrupted()) {
+                            try {
+                                // Process template for this message
+                                String processedXml = com.oraclejms.util.TemplateUtil.processTemplate(xmlTemplate);
+                                TextMessage message = workerSession.createTextMessage(processedXml);
+                                producer.send(message);
+                                
+                                long sent = sentCount.incrementAndGet();
+                                
+                                // Update progress every 10 messages or on last message
+                                if (sent % 10 == 0 || sent == messageCount) {
+                                    if (progressCallback != null) {
+                                        // Never more than messageCount, so it fits an int
+                                        progressCallback.accept((int) sent, messageCount);
+                                    }
+                                }
+                                
+                                log.debug("Sent message {}/{} to queue: {}", sent, messageCount, queueName);
+                            } catch (Exception e) {
+                                errorCount.incrementAndGet();
+                                log.error("Failed to send message {}/{}", messageNum, messageCount, e);
                             }
                         }
-                        
-                        log.debug("Sent message {}/{} to queue: {}", sent, messageCount, queueName);
-                    } catch (Exception e) {
+                    } catch (JMSException e) {
+                        // Remaining numbers are picked up by the other workers
                         errorCount.incrementAndGet();
-                        log.error("Failed to send message {}/{}", messageNum, messageCount, e);
+                        log.error("Failed to open session for batch send", e);
+                    } finally {
+                        if (producer != null) {
+                            try {
+                                producer.close();
+                            } catch (JMSException e) {
+                                log.warn("Error closing producer", e);
+                            }
+                        }
+                        if (workerSession != null) {
+                            try {
+                                workerSession.close();
+                            } catch (JMSException e) {
+                                log.warn("Error closing session", e);
+                            }
+                        }
                     }
                 });
             }
             
-            ctx.close();
-            
-            // Wait for all messages to complete
+            // Wait for the workers to run out of messages; large counts can take a long time
             executor.shutdown();
-            if (!executor.awaitTermination(300, java.util.concurrent.TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-                throw new JMSException("Timeout waiting for messages to send");
+            while (!executor.awaitTermination(60, java.util.concurrent.TimeUnit.SECONDS)) {
+                log.info("Still sending: {}/{} messages", sentCount.get(), messageCount);
             }
             
-            int sent = sentCount.get();
-            int errors = errorCount.get();
+            long sent = sentCount.get();
+            long errors = errorCount.get();
             
             // Add summary to history
             if (sent > 0) {
@@ -398,26 +354,17 @@ public class OracleJmsService {
             
             log.info("Batch send completed: {} messages sent, {} errors", sent, errors);
             
-            if (errors > 0) {
-                throw new JMSException(String.format("Sent %d messages with %d errors", sent, errors));
+            if (errors > 0 || sent < messageCount) {
+                throw new JMSException(String.format("Sent %d of %d messages with %d errors", sent, messageCount, errors));
             }
             
-        } catch (NamingException e) {
-            log.error("Failed to send messages", e);
-            throw new JMSException("Failed to send messages: " + e.getMessage());
+        } catch (JMSException e) {
+            executor.shutdownNow();
+            throw e;
         } catch (InterruptedException e) {
+            executor.shutdownNow();
             Thread.currentThread().interrupt();
             throw new JMSException("Message sending interrupted: " + e.getMessage());
         }
     }
-
-    private void verifyWebLogicClasses() {
-        try {
-            Class.forName("weblogic.jndi.WLInitialContextFactory");
-            Class.forName("weblogic.jms.client.JMSConnectionFactory");
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-
-    }
 }
@@ -0,0 +1,183 @@
+package com.oraclejms.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import java.util.Hashtable;
+
+/**
+ * WebLogic JMS reached over JNDI with the t3 client. The connection factory and queues are
+ * JNDI names on the server.
+ */
+@Slf4j
+public class WebLogicProvider implements JmsProvider {
+
+    private final String providerUrl;
+    private final String connectionFactory;
+    private final String user;
+    private final String password;
+
+    public WebLogicProvider(String providerUrl, String connectionFactory, String user, String password) {
+        this.providerUrl = providerUrl;
+        this.connectionFactory = connectionFactory;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public String describe() {
+        return providerUrl;
+    }
+
+    @Override
+    public Connection connect() throws JMSException {
+        InitialContext ctx = null;
+        try {
+            ctx = createJndiContext();
+
+            // Look up connection factory
+            ConnectionFactory factory = (ConnectionFactory) ctx.lookup(connectionFactory);
+
+            // Create connection
+            if (user != null && !user.isEmpty()) {
+                return factory.createConnection(user, password);
+            }
+            return factory.createConnection();
+        } catch (NamingException e) {
+            log.error("Failed to connect to Oracle JMS", e);
+            String errorMsg = e.getMessage();
+            if (errorMsg != null && errorMsg.contains("Cannot instantiate class")) {
+                throw new JMSException("WebLogic client library not found. Please install wlfullclient.jar or wlthint3client.jar. See README.md for instructions.");
+            }
+            throw new JMSException("Failed to connect: " + errorMsg);
+        } finally {
+            closeQuietly(ctx);
+        }
+    }
+
+    @Override
+    public Queue lookupQueue(Session session, String queueName) throws JMSException {
+        InitialContext ctx = null;
+        try {
+            ctx = createJndiContext();
+            return (Queue) ctx.lookup(queueName);
+        } catch (NamingException e) {
+            log.error("Failed to look up queue {}", queueName, e);
+            throw new JMSException("Failed to look up queue " + queueName + ": " + e.getMessage());
+        } finally {
+            closeQuietly(ctx);
+        }
+    }
+
+    /**
+     * Test connection with current parameters
+     */
+    @Override
+    public boolean testConnection() {
+
+        // Step 1: Verify WebLogic classes
+        System.out.println("\n[1/6] Verifying WebLogic classes...");
+        verifyWebLogicClasses();
+        System.out.println("✓ WebLogic classes found");
+
+        InitialContext ctx = null;
+        Connection testConnection = null;
+        try {
+            ctx = createJndiContext();
+            System.out.println("✓ JNDI context created successfully");
+
+            // Step 3: Lookup connection factory
+            System.out.println("\n[3/6] Looking up connection factory: " + connectionFactory);
+            // Look up connection factory
+            ConnectionFactory factory = (ConnectionFactory) ctx.lookup(connectionFactory);
+            System.out.println("✓ Connection factory found: " + factory.getClass().getName());
+
+            // Step 4: Create connection
+            System.out.println("\n[4/6] Creating JMS connection...");
+            // Create test connection
+            if (user != null && !user.isEmpty()) {
+                testConnection = factory.createConnection(user, password);
+            } else {
+                testConnection = factory.createConnection();
+            }
+            System.out.println("✓ Connection created: " + testConnection.getClass().getName());
+
+            // Step 5: Start connection
+            System.out.println("\n[5/6] Starting connection...");
+            testConnection.start();
+            System.out.println("✓ Connection started successfully");
+            log.info("Connection test successful to {}", providerUrl);
+            return true;
+        } catch (NamingException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Cannot instantiate class")) {
+                log.error("WebLogic JNDI classes not available. Please ensure WebLogic client JAR is in the classpath. " +
+                         "See README.md for installation instructions.", e);
+            } else {
+                log.error("JNDI lookup failed: {}", e.getMessage(), e);
+            }
+            return false;
+        } catch (JMSException e) {
+            log.error("JMS connection failed: {}", e.getMessage(), e);
+            return false;
+        } finally {
+            if (testConnection != null) {
+                try {
+                    testConnection.close();
+                } catch (JMSException e) {
+                    log.warn("Error closing test connection", e);
+                }
+            }
+            closeQuietly(ctx);
+        }
+    }
+
+    /**
+     * Creates JNDI context with configured settings
+     */
+    private InitialContext createJndiContext() throws NamingException {
+        // Step 2: Create JNDI context
+        System.out.println("\n[2/6] Creating JNDI context...");
+
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put(Context.INITIAL_CONTEXT_FACTORY, "weblogic.jndi.WLInitialContextFactory");
+        env.put(Context.PROVIDER_URL, providerUrl);
+
+        // WebLogic-specific timeout settings (in milliseconds)
+        env.put("weblogic.jndi.connectTimeout", "60000");  // 60 seconds connection timeout
+        env.put("weblogic.jndi.responseReadTimeout", "60000");  // 60 seconds read timeout
+
+        if (user != null && !user.isEmpty()) {
+            env.put(Context.SECURITY_PRINCIPAL, user);
+            env.put(Context.SECURITY_CREDENTIALS, password);
+        }
+
+        return new InitialContext(env);
+    }
+
+    private void closeQuietly(InitialContext ctx) {
+        if (ctx != null) {
+            try {
+                ctx.close();
+            } catch (NamingException e) {
+                log.warn("Error closing context", e);
+            }
+        }
+    }
+
+    private void verifyWebLogicClasses() {
+        try {
+            Class.forName("weblogic.jndi.WLInitialContextFactory");
+            Class.forName("weblogic.jms.client.JMSConnectionFactory");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Component;
 import javax.jms.JMSException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -42,6 +43,7 @@ public class MainStage {
     private Button connectButton;
     private Button disconnectButton;
     private Button receiveButton;
+    private Button browseButton;
     private Button clearHistoryButton;
     private ListView<String> historyListView;
     private Spinner<Integer> messageCountSpinner;
@@ -314,11 +316,11 @@ public class MainStage {
         countBox.setAlignment(Pos.CENTER_LEFT);
         Label countLabel = new Label("Message Count:");
         countLabel.setTextFill(Color.web("#b0b0b0"));
-        messageCountSpinner = new Spinner<>(1, 20000, 1);
+        messageCountSpinner = new Spinner<>(1, Integer.MAX_VALUE, 1);
         messageCountSpinner.setEditable(true);
         messageCountSpinner.setPrefWidth(100);
         messageCountSpinner.setStyle("-fx-background-color: #3e3e3e;");
-        Label countHelpLabel = new Label("(1-20000 messages)");
+        Label countHelpLabel = new Label("(1 or more messages)");
         countHelpLabel.setTextFill(Color.web("#757575"));
         countHelpLabel.setFont(Font.font("System", 10));
         countBox.getChildren().addAll(countLabel, messageCountSpinner, countHelpLabel);
@@ -409,10 +411,17 @@ public class MainStage {
         receiveButton = createStyledButton("Receive Messages", "#FF9800");
         Button clearReceiveButton = createStyledButton("Clear", "#757575");
         
+        browseButton = createStyledButton("Browse...", "#2196F3");
+        browseButton.setTooltip(new Tooltip("Page through a queue without consuming its messages"));
+        
         receiveButton.setOnAction(e -> receiveMessages());
         clearReceiveButton.setOnAction(e -> receivedMessagesArea.clear());
+        browseButton.setOnAction(e -> new QueueBrowserWindow(browseButton.getScene().getWindow(),
+                "Browse Queue - Oracle JMS", List.of(receiveQueueCombo.getValue(), jmsConfig.getQueue().getIn(),
+                        jmsConfig.getQueue().getOut()).stream().distinct().collect(Collectors.toList()),
+                jmsService::browseQueue).show());
         
-        buttonBox.getChildren().addAll(receiveButton, clearReceiveButton);
+        buttonBox.getChildren().addAll(receiveButton, browseButton, clearReceiveButton);
 
         VBox.setVgrow(receivedMessagesArea, Priority.ALWAYS);
         panel.getChildren().addAll(titleLabel, queueBox, receivedMessagesArea, buttonBox);
@@ -510,7 +519,7 @@ public class MainStage {
                 jmsService.connect();
                 Platform.runLater(() -> {
                     updateConnectionState(true);
-                    showStatus("Connected to " + jmsService.getCurrentProviderUrl(), "#4CAF50");
+                    showStatus("Connected to " + jmsService.getProviderDescription(), "#4CAF50");
                 });
             } catch (JMSException e) {
                 log.error("Connection failed", e);
@@ -542,8 +551,8 @@ public class MainStage {
             return;
         }
         
-        if (messageCount < 1 || messageCount > 20000) {
-            showAlert("Error", "Message count must be between 1 and 20000", Alert.AlertType.ERROR);
+        if (messageCount < 1) {
+            showAlert("Error", "Message count must be at least 1", Alert.AlertType.ERROR);
             return;
         }
         
@@ -655,6 +664,7 @@ public class MainStage {
         connectButton.setDisable(connected);
         disconnectButton.setDisable(!connected);
         receiveButton.setDisable(!connected);
+        browseButton.setDisable(!connected);
         beautifyButton.setDisable(false);
         
         // Update send button based on connection and current validation state
@@ -662,7 +672,7 @@ public class MainStage {
         sendButton.setDisable(!connected || xml == null || xml.trim().isEmpty() || !XmlUtil.isValidXml(xml));
         
         if (connected) {
-            statusLabel.setText("Connected to " + jmsService.getCurrentProviderUrl());
+            statusLabel.setText("Connected to " + jmsService.getProviderDescription());
             statusLabel.setTextFill(Color.web("#4CAF50"));
         } else {
             statusLabel.setText("Disconnected");
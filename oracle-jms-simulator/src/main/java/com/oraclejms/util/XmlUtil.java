@@ -3,22 +3,50 @@ package com.oraclejms.util;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Well-formedness checks, pretty-printing and XSD validation with external entities disabled.
+ * Parsers, transformers and validators are expensive to create and not thread-safe, so each
+ * thread keeps its own and resets it between documents.
+ */
 public class XmlUtil {
 
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = createSecureDocumentBuilderFactory();
+    private static final TransformerFactory TRANSFORMER_FACTORY = createSecureTransformerFactory();
+
+    private static final ThreadLocal<DocumentBuilder> BUILDERS = ThreadLocal.withInitial(XmlUtil::newDocumentBuilder);
+    private static final ThreadLocal<Transformer> TRANSFORMERS = ThreadLocal.withInitial(XmlUtil::newTransformer);
+    // Per thread, the validator for the schema it last validated against. A validator holds its
+    // schema, so only the latest pair is kept: a reloaded XSD replaces the old one instead of piling up
+    private static final ThreadLocal<SchemaValidator> VALIDATORS = new ThreadLocal<>();
+    // Compiled schemas by file, compiled again only when the file changes
+    private static final Map<Path, CachedSchema> SCHEMAS = new ConcurrentHashMap<>();
+
     private XmlUtil() {
         // Utility class
     }
@@ -26,15 +54,34 @@ public class XmlUtil {
     /**
      * Configures DocumentBuilderFactory with secure settings
      */
-    private static DocumentBuilderFactory createSecureDocumentBuilderFactory() throws ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        factory.setXIncludeAware(false);
-        factory.setExpandEntityReferences(false);
-        return factory;
+    private static DocumentBuilderFactory createSecureDocumentBuilderFactory() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            factory.setXIncludeAware(false);
+            factory.setExpandEntityReferences(false);
+            return factory;
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser does not support secure processing", e);
+        }
+    }
+
+    /**
+     * Configures TransformerFactory with secure settings
+     */
+    private static TransformerFactory createSecureTransformerFactory() {
+        try {
+            TransformerFactory factory = TransformerFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
+            return factory;
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("XML transformer does not support secure processing", e);
+        }
     }
 
     /**
@@ -45,11 +92,9 @@ public class XmlUtil {
             return false;
         }
         try {
-            DocumentBuilderFactory factory = createSecureDocumentBuilderFactory();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            builder.parse(new InputSource(new StringReader(xml)));
+            parse(xml);
             return true;
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             return false;
         }
     }
@@ -59,11 +104,9 @@ public class XmlUtil {
      */
     public static String getXmlError(String xml) {
         try {
-            DocumentBuilderFactory factory = createSecureDocumentBuilderFactory();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            builder.parse(new InputSource(new StringReader(xml)));
+            parse(xml);
             return "Valid XML";
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+        } catch (SAXException | IOException e) {
             return e.getMessage();
         }
     }
@@ -72,16 +115,11 @@ public class XmlUtil {
      * Beautifies the given XML string
      */
     public static String beautifyXml(String xml) throws TransformerException, ParserConfigurationException, SAXException, IOException {
-        DocumentBuilderFactory factory = createSecureDocumentBuilderFactory();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document document = builder.parse(new InputSource(new StringReader(xml)));
-
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        transformerFactory.setFeature(javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        transformerFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_DTD, "");
-        transformerFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-        
-        Transformer transformer = transformerFactory.newTransformer();
+        Document document = parse(xml);
+
+        Transformer transformer = TRANSFORMERS.get();
+        // Restores the default output properties before setting ours
+        transformer.reset();
         transformer.setOutputProperty(OutputKeys.INDENT, "yes");
         transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
         transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
@@ -90,4 +128,98 @@ public class XmlUtil {
         transformer.transform(new DOMSource(document), new StreamResult(writer));
         return writer.toString();
     }
+
+    /**
+     * Compiles an XSD, or returns the schema compiled from the same file before if the file
+     * has not changed since. Only local files may be imported or included.
+     */
+    public static Schema loadSchema(Path xsd) throws SAXException, IOException {
+        Path file = xsd.toAbsolutePath().normalize();
+        FileTime modified = Files.getLastModifiedTime(file);
+        CachedSchema cached = SCHEMAS.get(file);
+        if (cached != null && cached.modified.equals(modified)) {
+            return cached.schema;
+        }
+        // SchemaFactory is not thread-safe and compiling is rare, so each compile gets its own.
+        // Validators of the schema inherit its access restrictions.
+        SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "file");
+        Schema schema = factory.newSchema(file.toFile());
+        SCHEMAS.put(file, new CachedSchema(schema, modified));
+        return schema;
+    }
+
+    /**
+     * Validates XML against a compiled schema with this thread's validator for it.
+     * @return null if the document is valid, else the first violation with its position
+     */
+    public static String getSchemaError(String xml, Schema schema) {
+        SchemaValidator current = VALIDATORS.get();
+        if (current == null || current.schema != schema) {
+            current = new SchemaValidator(schema, schema.newValidator());
+            VALIDATORS.set(current);
+        }
+        Validator validator = current.validator;
+        try {
+            validator.validate(new StreamSource(new StringReader(xml)));
+            return null;
+        } catch (SAXParseException e) {
+            return String.format("Line %d, column %d: %s", e.getLineNumber(), e.getColumnNumber(), e.getMessage());
+        } catch (SAXException | IOException e) {
+            return e.getMessage();
+        } finally {
+            validator.reset();
+        }
+    }
+
+    private static Document parse(String xml) throws SAXException, IOException {
+        DocumentBuilder builder = BUILDERS.get();
+        try {
+            return builder.parse(new InputSource(new StringReader(xml)));
+        } finally {
+            builder.reset();
+        }
+    }
+
+    // The factories are not guaranteed thread-safe; threads create their first instance one at a time
+    private static DocumentBuilder newDocumentBuilder() {
+        try {
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+            }
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("XML parser unavailable", e);
+        }
+    }
+
+    private static Transformer newTransformer() {
+        try {
+            synchronized (TRANSFORMER_FACTORY) {
+                return TRANSFORMER_FACTORY.newTransformer();
+            }
+        } catch (TransformerConfigurationException e) {
+            throw new IllegalStateException("XML transformer unavailable", e);
+        }
+    }
+
+    private static class CachedSchema {
+        private final Schema schema;
+        private final FileTime modified;
+
+        CachedSchema(Schema schema, FileTime modified) {
+            this.schema = schema;
+            this.modified = modified;
+        }
+    }
+
+    private static class SchemaValidator {
+        private final Schema schema;
+        private final Validator validator;
+
+        SchemaValidator(Schema schema, Validator validator) {
+            this.schema = schema;
+            this.validator = validator;
+        }
+    }
 }